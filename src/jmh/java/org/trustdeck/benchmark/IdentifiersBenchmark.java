@@ -0,0 +1,83 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.trustdeck.benchmark.distribution.UniformKeyDistribution;
+
+/**
+ * Measures the cost of generating identifiers. The instance is shared by all threads,
+ * as it is in the driver, so that contention shows up when run with multiple threads.
+ *
+ * @author Armin Müller
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdentifiersBenchmark {
+
+    /** Number of identifiers created before measuring. */
+    private static final int INITIAL_SIZE = 10000;
+
+    /** Format of the identifiers. */
+    @Param({"sequential", "hashed", "uuid", "time-prefixed"})
+    private String format;
+
+    /** Identifiers, shared by all threads. */
+    private Identifiers identifiers;
+
+    /**
+     * Creates the identifiers.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        IdentifierFormat format = IdentifierFormat.fromLabel(this.format);
+        identifiers = new Identifiers(new UniformKeyDistribution(), 0d, 0, 1, format, format.getDefaultLength());
+        for (int i = 0; i < INITIAL_SIZE; i++) {
+            identifiers.created(identifiers.create());
+        }
+    }
+
+    /** Identifier for create operations. */
+    @Benchmark
+    public String create() {
+        return identifiers.create();
+    }
+
+    /** Identifier for read and update operations. */
+    @Benchmark
+    public String read() {
+        return identifiers.read();
+    }
+}
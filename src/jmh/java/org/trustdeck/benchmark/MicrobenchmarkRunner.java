@@ -0,0 +1,126 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the microbenchmarks with an increasing number of threads and prints how the
+ * throughput of each hot path scales. A path whose throughput does not grow with the
+ * number of threads limits the load a single driver instance can generate.
+ * 
+ * Usage: MicrobenchmarkRunner [include regex] [comma-separated thread counts]
+ *
+ * @author Armin Müller
+ */
+public class MicrobenchmarkRunner {
+
+    /**
+     * Runs the benchmarks.
+     * 
+     * @param args optional regular expression selecting benchmarks and thread counts
+     * @throws RunnerException
+     */
+    public static void main(String[] args) throws RunnerException {
+        
+        // Parse arguments
+        String include = args.length > 0 ? args[0] : "org\\.trustdeck\\.benchmark\\..*";
+        List<Integer> threadCounts = args.length > 1 ? parseThreadCounts(args[1]) : getDefaultThreadCounts();
+        
+        // Run, throughput in operations per microsecond, for each thread count
+        Map<String, Map<Integer, Double>> scores = new LinkedHashMap<>();
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder().include(include)
+                                                  .threads(threads)
+                                                  .mode(Mode.Throughput)
+                                                  .timeUnit(TimeUnit.MICROSECONDS)
+                                                  .resultFormat(ResultFormatType.CSV)
+                                                  .result("jmh-" + threads + "-threads.csv")
+                                                  .build();
+            Collection<RunResult> results = new Runner(options).run();
+            for (RunResult result : results) {
+                scores.computeIfAbsent(result.getParams().getBenchmark(), key -> new LinkedHashMap<>())
+                      .put(threads, result.getPrimaryResult().getScore());
+            }
+        }
+        
+        // Print summary
+        StringBuilder builder = new StringBuilder();
+        builder.append("\nThroughput in ops/us by number of threads (scaling relative to one thread in brackets)\n");
+        for (Entry<String, Map<Integer, Double>> entry : scores.entrySet()) {
+            builder.append(entry.getKey());
+            Double base = entry.getValue().get(threadCounts.get(0));
+            for (Entry<Integer, Double> score : entry.getValue().entrySet()) {
+                builder.append(String.format("; %d: %.2f", score.getKey(), score.getValue()));
+                if (base != null && base > 0d) {
+                    builder.append(String.format(" (%.2fx)", score.getValue() / base));
+                }
+            }
+            builder.append("\n");
+        }
+        System.out.println(builder.toString());
+    }
+    
+    /**
+     * Parses a comma-separated list of thread counts.
+     * 
+     * @param value
+     * @return the thread counts, ascending
+     */
+    private static List<Integer> parseThreadCounts(String value) {
+        TreeSet<Integer> result = new TreeSet<>();
+        for (String token : value.split(",")) {
+            int threads = Integer.parseInt(token.trim());
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Thread counts must be positive: " + value);
+            }
+            result.add(threads);
+        }
+        return new ArrayList<>(result);
+    }
+    
+    /**
+     * Powers of two up to the number of processors, and the number of processors itself.
+     * 
+     * @return the thread counts, ascending
+     */
+    private static List<Integer> getDefaultThreadCounts() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        TreeSet<Integer> result = new TreeSet<>();
+        for (int threads = 1; threads < processors; threads *= 2) {
+            result.add(threads);
+        }
+        result.add(processors);
+        return new ArrayList<>(result);
+    }
+}
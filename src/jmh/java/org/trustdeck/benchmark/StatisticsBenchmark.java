@@ -0,0 +1,96 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+import org.trustdeck.benchmark.connector.Outcome;
+
+/**
+ * Measures the cost of recording the outcome of an operation. The instance is shared by
+ * all threads, as it is in the driver.
+ *
+ * @author Armin Müller
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsBenchmark {
+
+    /** Work types. */
+    private static final WorkType[] TYPES = WorkType.values();
+
+    /** Outcomes. */
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    /** Statistics, shared by all threads. */
+    private Statistics statistics;
+
+    /**
+     * Per-thread position in the sequence of recorded outcomes.
+     */
+    @State(Scope.Thread)
+    public static class Position {
+
+        /** Counter. */
+        private int counter = 0;
+    }
+
+    /**
+     * Creates the statistics.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        statistics = new Statistics(Configuration.builder()
+                                                 .setName("jmh")
+                                                 .setPingRate(100)
+                                                 .setNumThreads(1)
+                                                 .setReportingInterval(1000)
+                                                 .setReportingIntervalDBSpace(1000)
+                                                 .build());
+        statistics.start();
+    }
+
+    /** All threads record the same outcome and latency, i.e., update the same counter and bucket. */
+    @Benchmark
+    public void addSame() {
+        statistics.add(WorkType.READ, 0, Outcome.SUCCESS, 1000000L);
+    }
+
+    /** Threads cycle through all combinations of work types and outcomes, with latencies between 0 and about 1 ms. */
+    @Benchmark
+    public void addMixed(Position position) {
+        int counter = position.counter++ & Integer.MAX_VALUE;
+        statistics.add(TYPES[counter % TYPES.length], 0, OUTCOMES[(counter / TYPES.length) % OUTCOMES.length], (counter * 7919L) & 0xFFFFFL);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.trustdeck.benchmark.connector.ConnectorException;
+import org.trustdeck.benchmark.connector.noop.NoOpConnectorFactory;
+
+/**
+ * Measures the cost of providing and dispatching work, without any connector overhead.
+ * This is the per-operation budget the driver consumes on top of the actual request.
+ *
+ * @author Armin Müller
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkProviderBenchmark {
+
+    /** Provider, shared by all threads. */
+    private WorkProvider provider;
+
+    /**
+     * Creates the provider with the "mostly-read" scenario.
+     * 
+     * @throws ConnectorException
+     */
+    @Setup(Level.Trial)
+    public void setup() throws ConnectorException {
+        Configuration config = Configuration.builder()
+                                            .setName("jmh")
+                                            .setCreateRate(23)
+                                            .setReadRate(75)
+                                            .setUpdateRate(1)
+                                            .setDeleteRate(1)
+                                            .setPingRate(0)
+                                            .setInitialDBSize(10000)
+                                            .setMaxTime(Integer.MAX_VALUE)
+                                            .setNumThreads(1)
+                                            .setReportingInterval(1000)
+                                            .setReportingIntervalDBSpace(1000)
+                                            .build();
+        Statistics statistics = new Statistics(config);
+        provider = new WorkProvider(config, new Identifiers(), statistics, new NoOpConnectorFactory());
+        provider.prepare();
+        statistics.start();
+    }
+
+    /** Obtain the next work item. */
+    @Benchmark
+    public Runnable getWork() {
+        return provider.getWork();
+    }
+
+    /** Obtain and perform the next work item, including identifier generation and statistics. */
+    @Benchmark
+    public void getWorkAndRun() {
+        provider.getWork().run();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.ace;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import jakarta.ws.rs.client.Invocation;
+
+/**
+ * Measures the cost of constructing requests, from the pseudonym object up to the
+ * ready-to-send invocation, without any network I/O.
+ *
+ * @author Armin Müller
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ACEServiceBenchmark {
+
+    /** Service, shared by all threads. Requests are never sent. */
+    private final ACEService service = new ACEService(URI.create("http://localhost:8080/api/pseudonymization"));
+
+    /** Domain, as configured by the connector. */
+    private final ACEDomain domain = new ACEDomain("TestStudy", "TS-");
+
+    /** Token of realistic length. */
+    private final ACEToken token = new ACEToken(StringUtils.repeat('x', 1200), Long.MAX_VALUE);
+
+    /**
+     * Per-thread identifier counter.
+     */
+    @State(Scope.Thread)
+    public static class Counter {
+
+        /** Counter. */
+        private long counter = 0;
+
+        /**
+         * Next identifier, formatted like the benchmark's identifiers.
+         *
+         * @return identifier
+         */
+        private String nextId() {
+            return "ID" + StringUtils.leftPad(String.valueOf(counter++), 30, "0");
+        }
+    }
+
+    /**
+     * Ensures that the shared client exists before measuring.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        HTTPClientManager.getClient();
+    }
+
+    /**
+     * Closes the shared client.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HTTPClientManager.shutdown();
+    }
+
+    /** Create request. */
+    @Benchmark
+    public Invocation create(Counter counter) throws JsonProcessingException {
+        return service.createPseudonymRequest(token, domain, new ACEPseudonym(counter.nextId(), "ID")).build();
+    }
+
+    /** Read request. */
+    @Benchmark
+    public Invocation read(Counter counter) {
+        return service.readPseudonymRequest(token, domain, new ACEPseudonym(counter.nextId(), "ID")).build();
+    }
+
+    /** Update request. */
+    @Benchmark
+    public Invocation update(Counter counter) throws JsonProcessingException {
+        return service.updatePseudonymRequest(token, domain, new ACEPseudonym(counter.nextId(), "ID").withValidFrom("2001-01-01T18:00:00")).build();
+    }
+
+    /** Delete request. */
+    @Benchmark
+    public Invocation delete(Counter counter) {
+        return service.deletePseudonymRequest(token, domain, new ACEPseudonym(counter.nextId(), "ID")).build();
+    }
+
+    /** Ping request. */
+    @Benchmark
+    public Invocation ping() {
+        return service.pingRequest(token).build();
+    }
+}
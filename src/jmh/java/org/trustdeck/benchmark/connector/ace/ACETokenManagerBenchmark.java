@@ -0,0 +1,116 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.ace;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.trustdeck.benchmark.mock.LatencyDistribution;
+import org.trustdeck.benchmark.mock.LatencyDistribution.Type;
+import org.trustdeck.benchmark.mock.MockACEServer;
+import org.trustdeck.benchmark.mock.MockConfiguration;
+
+/**
+ * Measures the cost of obtaining a token on every request. Tokens are issued by the
+ * embedded mock server; the measurement covers the steady state between refreshes.
+ *
+ * @author Armin Müller
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ACETokenManagerBenchmark {
+
+    /** Number of identities in the pool. */
+    private static final int IDENTITIES = 4;
+
+    /** Token issuer. */
+    private MockACEServer mock;
+
+    /**
+     * Per-thread identity, assigned like it is for connectors.
+     */
+    @State(Scope.Thread)
+    public static class Identity {
+
+        /** Handle of the identity. */
+        private final int identity = ACETokenManager.getInstance().assignIdentity();
+    }
+
+    /**
+     * Starts the mock server and initializes the token manager.
+     * 
+     * @throws IOException
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        mock = new MockACEServer(new MockConfiguration(0, 0, "/api/pseudonymization",
+                                                       new LatencyDistribution(Type.CONSTANT, 0d, 0d),
+                                                       new LatencyDistribution(Type.CONSTANT, 0d, 0d),
+                                                       0d, 0d, 3600));
+        mock.start();
+        if (!ACETokenManager.getInstance().isInitialized()) {
+            ACETokenManager.getInstance().initialize(ACEConfiguration.builder()
+                                                                     .setUri(mock.getServiceURI().toString())
+                                                                     .setClientId("ace")
+                                                                     .setClientSecret("secret")
+                                                                     .setKeycloakAuthUri(mock.getKeycloakURI())
+                                                                     .setKeycloakRealmName("jmh")
+                                                                     .setUsername("user")
+                                                                     .setPassword("password")
+                                                                     .setGeneratedIdentities(IDENTITIES)
+                                                                     .setDomainName("TestStudy")
+                                                                     .build());
+        }
+    }
+
+    /**
+     * Stops the mock server.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mock.stop();
+    }
+
+    /** Token of the primary identity, as used for administrative requests. */
+    @Benchmark
+    public String getToken() {
+        return ACETokenManager.getInstance().getToken();
+    }
+
+    /** Token of a pooled identity, as used for the workload. */
+    @Benchmark
+    public ACEToken getPooledToken(Identity identity) {
+        return ACETokenManager.getInstance().getAccessToken(identity.identity);
+    }
+}
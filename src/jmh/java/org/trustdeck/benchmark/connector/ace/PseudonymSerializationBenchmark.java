@@ -0,0 +1,100 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.ace;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Compares the per-request cost of serializing pseudonym payloads through the
+ * Jackson databind pipeline with the pre-serialized template path.
+ * Run with "-prof gc" to also compare the allocation rate.
+ *
+ * @author Armin Müller
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PseudonymSerializationBenchmark {
+
+    /** Mapper, configured like the one used by the service. */
+    private static final ObjectMapper MAPPER = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /** Cached writer. */
+    private static final ObjectWriter WRITER = MAPPER.writer();
+
+    /** Identifier counter. */
+    private long counter = 0;
+
+    /**
+     * Next identifier, formatted like the benchmark's identifiers.
+     *
+     * @return identifier
+     */
+    private String nextId() {
+        return "ID" + StringUtils.leftPad(String.valueOf(counter++), 30, "0");
+    }
+
+    /** Previous path for creates: new writer and full databind pipeline per request. */
+    @Benchmark
+    public String createDatabind() throws JsonProcessingException {
+        return MAPPER.writer().writeValueAsString(new ACEPseudonym(nextId(), "ID"));
+    }
+
+    /** Template path for creates. */
+    @Benchmark
+    public String createTemplate() throws JsonProcessingException {
+        return ACEPseudonymTemplate.serialize(new ACEPseudonym(nextId(), "ID"), WRITER);
+    }
+
+    /** Previous path for updates. */
+    @Benchmark
+    public String updateDatabind() throws JsonProcessingException {
+        return MAPPER.writer().writeValueAsString(new ACEPseudonym(nextId(), "ID").withValidFrom("2001-01-01T18:00:00"));
+    }
+
+    /** Template path for updates. */
+    @Benchmark
+    public String updateTemplate() throws JsonProcessingException {
+        return ACEPseudonymTemplate.serialize(new ACEPseudonym(nextId(), "ID").withValidFrom("2001-01-01T18:00:00"), WRITER);
+    }
+
+    /** Baseline: cost of producing the identifier alone, to be subtracted from the above. */
+    @Benchmark
+    public String identifierOnly() {
+        return nextId();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.distribution;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.trustdeck.benchmark.ConfigurationSection;
+
+/**
+ * Measures the cost of sampling keys, with a fixed size and with a size that grows
+ * with every sample, as it does when creates are mixed in.
+ *
+ * @author Armin Müller
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyDistributionBenchmark {
+
+    /** Type of distribution. */
+    @Param({"uniform", "zipfian", "latest", "hotspot"})
+    private String type;
+
+    /** Distribution, shared by all threads. */
+    private KeyDistribution distribution;
+
+    /**
+     * Per-thread size of the key space.
+     */
+    @State(Scope.Thread)
+    public static class Size {
+
+        /** Size. */
+        private long size = 1000000L;
+    }
+
+    /**
+     * Creates the distribution.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("type", type);
+        distribution = KeyDistribution.fromSection(new ConfigurationSection("keyDistribution", values));
+    }
+
+    /** Sample from a key space of constant size. */
+    @Benchmark
+    public long nextFixedSize() {
+        return distribution.next(1000000L);
+    }
+
+    /** Sample from a growing key space. */
+    @Benchmark
+    public long nextGrowingSize(Size size) {
+        return distribution.next(size.size++);
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Resource consumption of the benchmark's own JVM, to tell whether the client or the
+ * service limits the throughput. Intervals in which the client uses almost all cores,
+ * pauses for garbage collection a lot, or runs out of heap are flagged as saturated.
+ * 
+ * Allocations include those of threads that have terminated. Garbage collection time only
+ * counts collectors whose time is spent in pauses, not those of concurrent cycles.
+ * 
+ * @author Armin Müller
+ */
+public class ClientTelemetry {
+    
+    /** Share of all cores used by the process above which the client is considered saturated. */
+    private static final double SATURATED_CPU = 0.9d;
+    
+    /** Share of an interval spent in garbage collection pauses above which the client is considered saturated. */
+    private static final double SATURATED_GC = 0.1d;
+    
+    /** Share of the maximal heap in use above which the client is considered saturated. */
+    private static final double SATURATED_HEAP = 0.9d;
+    
+    /** Process CPU time, null if not supported by the JVM. */
+    private final com.sun.management.OperatingSystemMXBean os;
+    
+    /** Per-thread CPU time and allocations. */
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    
+    /** Heap usage. */
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    
+    /** Garbage collectors. */
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    
+    /** Total bytes allocated by all threads, including terminated ones, available from JDK 21 on, null if not available. */
+    private final Method totalAllocated;
+    
+    /** Bytes allocated by each live thread at the last sample, if the total is not available. */
+    private Map<Long, Long> lastThreadAllocated = new HashMap<>();
+    
+    /** Bytes allocated by threads that have terminated, up to their last sample, if the total is not available. */
+    private long terminatedAllocated;
+    
+    /** Number of cores available to the JVM. */
+    private final int cores = Runtime.getRuntime().availableProcessors();
+    
+    /** Last time the telemetry was sampled in nanoseconds. */
+    private long lastTime;
+    
+    /** Process CPU time at the last sample in nanoseconds. */
+    private long lastProcessCpuTime;
+    
+    /** CPU time of the workers at the last sample in nanoseconds, by position in the list of workers. */
+    private long[] lastWorkerCpuTimes = new long[0];
+    
+    /** Bytes allocated by all threads at the last sample. */
+    private long lastAllocated;
+    
+    /** Number of garbage collections at the last sample. */
+    private long lastGcCount;
+    
+    /** Time spent in garbage collection pauses at the last sample in milliseconds. */
+    private long lastGcTime;
+    
+    /** Number of intervals in which the client was saturated. */
+    @Getter
+    private int numSaturatedIntervals = 0;
+    
+    /** Whether the client was saturated in the last interval. */
+    @Getter
+    private boolean lastSaturated = false;
+    
+    /**
+     * Creates a new instance.
+     */
+    public ClientTelemetry() {
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        this.os = bean instanceof com.sun.management.OperatingSystemMXBean ? (com.sun.management.OperatingSystemMXBean) bean : null;
+        Method method = null;
+        try {
+            method = com.sun.management.ThreadMXBean.class.getMethod("getTotalThreadAllocatedBytes");
+        } catch (NoSuchMethodException e) {
+            // Before JDK 21, allocations are summed per thread
+        }
+        this.totalAllocated = method;
+        start();
+    }
+    
+    /**
+     * Marks the start of the first interval.
+     */
+    public void start() {
+        this.lastTime = System.nanoTime();
+        this.lastProcessCpuTime = getProcessCpuTime();
+        this.lastWorkerCpuTimes = new long[0];
+        this.lastAllocated = getAllocatedBytes();
+        this.lastGcCount = getGcCount();
+        this.lastGcTime = getGcTime();
+        this.numSaturatedIntervals = 0;
+        this.lastSaturated = false;
+    }
+    
+    /**
+     * Appends the labels of the columns.
+     * 
+     * @param builder
+     */
+    public void appendHeader(StringBuilder builder) {
+        builder.append(";").append("Client CPU %");
+        builder.append(";").append("Worker CPU ms");
+        builder.append(";").append("Max worker CPU %");
+        builder.append(";").append("Allocation MB/s");
+        builder.append(";").append("GC count");
+        builder.append(";").append("GC pause ms");
+        builder.append(";").append("Heap used MB");
+        builder.append(";").append("Live threads");
+        builder.append(";").append("Client saturated");
+    }
+    
+    /**
+     * Samples the telemetry and appends the values for the interval since the last sample. NOT thread safe.
+     * 
+     * @param builder
+     * @param workers the workers, whose CPU time is reported
+     */
+    public void append(StringBuilder builder, List<Worker> workers) {
+        
+        // Collect data
+        long currentTime = System.nanoTime();
+        long processCpuTime = getProcessCpuTime();
+        long[] workerCpuTimes = new long[workers.size()];
+        for (int i = 0; i < workers.size(); i++) {
+            workerCpuTimes[i] = threads.isThreadCpuTimeSupported() ? Math.max(0L, threads.getThreadCpuTime(workers.get(i).getId())) : 0L;
+        }
+        long allocated = getAllocatedBytes();
+        long gcCount = getGcCount();
+        long gcTime = getGcTime();
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        
+        // Derive parameters
+        double elapsed = Math.max(1L, currentTime - lastTime);
+        double processCpu = (double) (processCpuTime - lastProcessCpuTime) / elapsed / cores;
+        long workerCpu = 0L;
+        double maxWorkerCpu = 0d;
+        for (int i = 0; i < workerCpuTimes.length; i++) {
+            long delta = workerCpuTimes[i] - (i < lastWorkerCpuTimes.length ? lastWorkerCpuTimes[i] : 0L);
+            workerCpu += delta;
+            maxWorkerCpu = Math.max(maxWorkerCpu, (double) delta / elapsed);
+        }
+        double allocationRate = (double) Math.max(0L, allocated - lastAllocated) / elapsed * 1000000000d / (1024d * 1024d);
+        long gcPause = gcTime - lastGcTime;
+        boolean saturated = processCpu >= SATURATED_CPU || 
+                            gcPause * 1000000d >= elapsed * SATURATED_GC ||
+                            (heap.getMax() > 0 && heap.getUsed() >= heap.getMax() * SATURATED_HEAP);
+        
+        // Print values
+        builder.append(";").append(Math.round(processCpu * 100d));
+        builder.append(";").append(workerCpu / 1000000L);
+        builder.append(";").append(Math.round(maxWorkerCpu * 100d));
+        builder.append(";").append(Math.round(allocationRate));
+        builder.append(";").append(gcCount - lastGcCount);
+        builder.append(";").append(gcPause);
+        builder.append(";").append(heap.getUsed() / (1024L * 1024L));
+        builder.append(";").append(threads.getThreadCount());
+        builder.append(";").append(saturated ? 1 : 0);
+        
+        // Store
+        this.lastTime = currentTime;
+        this.lastProcessCpuTime = processCpuTime;
+        this.lastWorkerCpuTimes = workerCpuTimes;
+        this.lastAllocated = allocated;
+        this.lastGcCount = gcCount;
+        this.lastGcTime = gcTime;
+        this.lastSaturated = saturated;
+        this.numSaturatedIntervals += saturated ? 1 : 0;
+    }
+    
+    /**
+     * Returns the CPU time used by the process.
+     * 
+     * @return in nanoseconds, 0 if not supported by the JVM
+     */
+    private long getProcessCpuTime() {
+        return os != null ? Math.max(0L, os.getProcessCpuTime()) : 0L;
+    }
+    
+    /**
+     * Returns the bytes allocated by all threads, including those that have terminated. Before
+     * JDK 21, the allocations of a terminated thread are counted up to the last sample it was alive.
+     * 
+     * @return the number of bytes, 0 if not supported by the JVM
+     */
+    private long getAllocatedBytes() {
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return 0L;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threads;
+        if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled()) {
+            return 0L;
+        }
+        if (totalAllocated != null) {
+            try {
+                return Math.max(0L, (long) totalAllocated.invoke(bean));
+            } catch (ReflectiveOperationException e) {
+                // Fall back to summing per thread
+            }
+        }
+        
+        // Keep the last value of threads that have terminated since the last sample
+        long[] ids = bean.getAllThreadIds();
+        long[] allocated = bean.getThreadAllocatedBytes(ids);
+        Map<Long, Long> current = new HashMap<>();
+        long total = 0L;
+        for (int i = 0; i < ids.length; i++) {
+            if (allocated[i] >= 0) {
+                current.put(ids[i], allocated[i]);
+                total += allocated[i];
+            }
+        }
+        for (Map.Entry<Long, Long> entry : lastThreadAllocated.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                terminatedAllocated += entry.getValue();
+            }
+        }
+        this.lastThreadAllocated = current;
+        return terminatedAllocated + total;
+    }
+    
+    /**
+     * Returns the number of garbage collections.
+     * 
+     * @return the number of collections by all collectors, not counting the pauses of concurrent collectors separately
+     */
+    private long getGcCount() {
+        long total = 0L;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += collector.getName().endsWith("Pauses") ? 0L : Math.max(0L, collector.getCollectionCount());
+        }
+        return total;
+    }
+    
+    /**
+     * Returns the time spent in garbage collection pauses.
+     * 
+     * @return in milliseconds, summed over the collectors that pause the application
+     */
+    private long getGcTime() {
+        long total = 0L;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += isPause(collector) ? Math.max(0L, collector.getCollectionTime()) : 0L;
+        }
+        return total;
+    }
+    
+    /**
+     * Whether the time of a collector is spent in pauses. Concurrent collectors, e.g., ZGC and Shenandoah,
+     * report their cycles, which mostly run alongside the application, apart from their pauses, and G1
+     * reports its concurrent cycles apart from its young and mixed collections from JDK 20 on.
+     * 
+     * @param collector
+     * @return {@code true} if the collector reports pauses
+     */
+    private static boolean isPause(GarbageCollectorMXBean collector) {
+        String name = collector.getName();
+        return !name.endsWith("Cycles") && !name.contains("Concurrent");
+    }
+}
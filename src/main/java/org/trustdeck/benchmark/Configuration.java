@@ -17,6 +17,15 @@
 
 package org.trustdeck.benchmark;
 
+import java.util.Arrays;
+
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+import org.trustdeck.benchmark.distribution.KeyDistribution;
+import org.trustdeck.benchmark.distribution.UniformKeyDistribution;
+import org.trustdeck.benchmark.workload.AccessLogConfiguration;
+import org.trustdeck.benchmark.workload.ArrivalRateConfiguration;
+import org.trustdeck.benchmark.workload.SessionConfiguration;
+
 import lombok.Getter;
 
 /**
@@ -42,6 +51,18 @@ public class Configuration {
     /** Ping rate in percent. */
     private final int pingRate;
     
+    /** Domain creation rate in percent. */
+    private final int createDomainRate;
+    
+    /** Domain read rate in percent. */
+    private final int readDomainRate;
+    
+    /** Domain update rate in percent. */
+    private final int updateDomainRate;
+    
+    /** Domain deletion rate in percent. */
+    private final int deleteDomainRate;
+    
     /** Number of threads. */
     private final int numThreads;
     
@@ -52,7 +73,7 @@ public class Configuration {
     private final String name;
     
     /** Number of records created already at preparation stage. */
-    private final int initialDBSize;
+    private final long initialDBSize;
     
     /** Interval of performance recording in milliseconds. */
     private final int reportingInterval;
@@ -63,6 +84,54 @@ public class Configuration {
     /** Interval of database storage check recording in milliseconds. */
     private final int reportingIntervalDBSpace;
     
+    /** Whether to record a trace of all issued operations. */
+    private final boolean recordTrace;
+    
+    /** Path of a trace to replay instead of sampling operations, null if none. */
+    private final String replayTrace;
+    
+    /** Speed at which the trace is replayed, 1 is the original timing. */
+    private final double replaySpeed;
+    
+    /** Access log from which the workload is derived instead of the rates, null if none. */
+    private final AccessLogConfiguration accessLog;
+    
+    /** Sessions following the lifecycle of records, issued instead of the rates, null if none. */
+    private final SessionConfiguration session;
+    
+    /** Absolute rates per type of operation, issued instead of the relative rates, null if none. */
+    private final ArrivalRateConfiguration arrivalRates;
+    
+    /** Policies for retrying failed requests, per work type. */
+    private final RetryPolicy[] retryPolicies;
+    
+    /** Flight recorder settings used while the scenario runs, either a predefined name or a path to a .jfc file, null to not record. */
+    private final String flightRecording;
+    
+    /** Distribution of reads, updates, and deletes over the identifiers. */
+    private final KeyDistribution keyDistribution;
+    
+    /** Share of reads, updates, and deletes addressing identifiers that never exist. */
+    private final double missRatio;
+    
+    /** Index of this driver process among all processes running against the same service. */
+    private final int agentId;
+    
+    /** Number of driver processes running against the same service. */
+    private final int agentCount;
+    
+    /** Format of the identifiers. */
+    private final IdentifierFormat identifierFormat;
+    
+    /** Length of the identifiers. */
+    private final int identifierLength;
+    
+    /** Number of domains the records are spread across. */
+    private final int domainCount;
+    
+    /** Distribution of the records over the domains. */
+    private final KeyDistribution domainDistribution;
+    
     /**
      * Creates a new instance.
      * 
@@ -71,6 +140,10 @@ public class Configuration {
      * @param upateRate
      * @param deleteRate
      * @param pingRate
+     * @param createDomainRate
+     * @param readDomainRate
+     * @param updateDomainRate
+     * @param deleteDomainRate
      * @param numThreads
      * @param maxTime
      * @param name
@@ -78,24 +151,64 @@ public class Configuration {
      * @param reportingInterval
      * @param reportDBSpace
      * @param reportingIntervalDBSpace
+     * @param recordTrace
+     * @param replayTrace
+     * @param replaySpeed
+     * @param accessLog
+     * @param session
+     * @param arrivalRates
+     * @param retryPolicies
+     * @param flightRecording
+     * @param keyDistribution
+     * @param missRatio
+     * @param agentId
+     * @param agentCount
+     * @param identifierFormat
+     * @param identifierLength
+     * @param domainCount
+     * @param domainDistribution
      */
     private Configuration(int createRate,
                           int readRate,
                           int upateRate,
                           int deleteRate,
                           int pingRate,
+                          int createDomainRate,
+                          int readDomainRate,
+                          int updateDomainRate,
+                          int deleteDomainRate,
                           int numThreads,
                           int maxTime,
                           String name,
-                          int initialDBSize,
+                          long initialDBSize,
                           int reportingInterval,
                           boolean reportDBSpace,
-                          int reportingIntervalDBSpace) {
+                          int reportingIntervalDBSpace,
+                          boolean recordTrace,
+                          String replayTrace,
+                          double replaySpeed,
+                          AccessLogConfiguration accessLog,
+                          SessionConfiguration session,
+                          ArrivalRateConfiguration arrivalRates,
+                          RetryPolicy[] retryPolicies,
+                          String flightRecording,
+                          KeyDistribution keyDistribution,
+                          double missRatio,
+                          int agentId,
+                          int agentCount,
+                          IdentifierFormat identifierFormat,
+                          int identifierLength,
+                          int domainCount,
+                          KeyDistribution domainDistribution) {
         this.readRate = readRate;
         this.createRate = createRate;
         this.updateRate = upateRate;
         this.deleteRate = deleteRate;
         this.pingRate = pingRate;
+        this.createDomainRate = createDomainRate;
+        this.readDomainRate = readDomainRate;
+        this.updateDomainRate = updateDomainRate;
+        this.deleteDomainRate = deleteDomainRate;
         this.numThreads = numThreads;
         this.maxTime = maxTime;
         this.name = name;
@@ -103,8 +216,53 @@ public class Configuration {
         this.reportingInterval = reportingInterval;
         this.reportDBSpace = reportDBSpace;
         this.reportingIntervalDBSpace = reportingIntervalDBSpace;
+        this.recordTrace = recordTrace;
+        this.replayTrace = replayTrace;
+        this.replaySpeed = replaySpeed;
+        this.accessLog = accessLog;
+        this.session = session;
+        this.arrivalRates = arrivalRates;
+        this.retryPolicies = retryPolicies;
+        this.flightRecording = flightRecording;
+        this.keyDistribution = keyDistribution;
+        this.missRatio = missRatio;
+        this.agentId = agentId;
+        this.agentCount = agentCount;
+        this.identifierFormat = identifierFormat;
+        this.identifierLength = identifierLength;
+        this.domainCount = domainCount;
+        this.domainDistribution = domainDistribution;
     }
-    
+
+    /**
+     * Returns the policy for retrying failed requests of a type of work.
+     *
+     * @param type the type
+     * @return the policy
+     */
+    public RetryPolicy getRetryPolicy(WorkType type) {
+        return retryPolicies[type.ordinal()];
+    }
+
+    /**
+     * Whether domain-management operations may be issued. Replayed traces may contain them.
+     *
+     * @return {@code true} if they have a non-zero share or rate, or a trace is replayed
+     */
+    public boolean isManagingDomains() {
+        if (replayTrace != null || createDomainRate + readDomainRate + updateDomainRate + deleteDomainRate > 0) {
+            return true;
+        }
+        if (arrivalRates != null) {
+            for (WorkType type : WorkType.values()) {
+                if (type.isDomainOperation() && arrivalRates.getRate(type) > 0d) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Return builder
      * @return
@@ -134,6 +292,18 @@ public class Configuration {
         /** Ping rate. */
         private int pingRate;
         
+        /** Domain creation rate. */
+        private int createDomainRate;
+        
+        /** Domain read rate. */
+        private int readDomainRate;
+        
+        /** Domain update rate. */
+        private int updateDomainRate;
+        
+        /** Domain deletion rate. */
+        private int deleteDomainRate;
+        
         /** Number of threads. */
         private int numThreads;
         
@@ -144,7 +314,7 @@ public class Configuration {
         private String name;
         
         /** Number of records created already at preparation stage. */
-        private int initialDBSize;
+        private long initialDBSize;
         
         /** Whether to report DB space*/
         private boolean reportDBSpace;
@@ -155,6 +325,54 @@ public class Configuration {
         /** Interval of database storage check recording in milliseconds. */
         private int reportingIntervalDBSpace;
         
+        /** Whether to record a trace of all issued operations. */
+        private boolean recordTrace;
+        
+        /** Path of a trace to replay instead of sampling operations. */
+        private String replayTrace;
+        
+        /** Speed at which the trace is replayed. */
+        private double replaySpeed = 1d;
+        
+        /** Access log from which the workload is derived. */
+        private AccessLogConfiguration accessLog;
+        
+        /** Sessions issued instead of the rates. */
+        private SessionConfiguration session;
+        
+        /** Absolute rates issued instead of the relative rates. */
+        private ArrivalRateConfiguration arrivalRates;
+        
+        /** Policies for retrying failed requests, per work type. */
+        private RetryPolicy[] retryPolicies;
+        
+        /** Flight recorder settings, null to not record. */
+        private String flightRecording;
+        
+        /** Distribution of reads, updates, and deletes over the identifiers. */
+        private KeyDistribution keyDistribution = new UniformKeyDistribution();
+        
+        /** Share of reads, updates, and deletes addressing identifiers that never exist. */
+        private double missRatio;
+        
+        /** Index of this driver process. */
+        private int agentId = 0;
+        
+        /** Number of driver processes. */
+        private int agentCount = 1;
+        
+        /** Format of the identifiers. */
+        private IdentifierFormat identifierFormat = IdentifierFormat.SEQUENTIAL;
+        
+        /** Length of the identifiers, 0 for the format's default. */
+        private int identifierLength = 0;
+        
+        /** Number of domains. */
+        private int domainCount = 1;
+        
+        /** Distribution of the records over the domains. */
+        private KeyDistribution domainDistribution = new UniformKeyDistribution();
+        
         /**
          * Build the configuration.
          * 
@@ -162,11 +380,14 @@ public class Configuration {
          */
         public Configuration build() {
             // Checks
-            if (createRate < 0 || readRate < 0 || updateRate < 0 || deleteRate < 0 || pingRate < 0 || numThreads < 0 || maxTime < 0 || initialDBSize < 0) {
+            if (createRate < 0 || readRate < 0 || updateRate < 0 || deleteRate < 0 || pingRate < 0 || 
+                createDomainRate < 0 || readDomainRate < 0 || updateDomainRate < 0 || deleteDomainRate < 0 || numThreads < 0 || maxTime < 0 || initialDBSize < 0) {
                 throw new IllegalStateException("All number values must be zero or positive!");
             }
             
-            if (readRate + createRate + updateRate + deleteRate + pingRate != 100) {
+            // When replaying, following an access log, running sessions, or using absolute rates, the operations are taken from there
+            if (replayTrace == null && accessLog == null && session == null && arrivalRates == null && 
+                readRate + createRate + updateRate + deleteRate + pingRate + createDomainRate + readDomainRate + updateDomainRate + deleteDomainRate != 100) {
                 throw new IllegalStateException("All rates combined must add up to exactly one hundred!");
             }
             
@@ -178,7 +399,44 @@ public class Configuration {
                 throw new IllegalStateException("Name must not be null!");
             }
             
-            if (initialDBSize == 0 && (readRate > 0 || updateRate > 0 || deleteRate > 0)) {
+            if (replaySpeed <= 0d) {
+                throw new IllegalStateException("Replay speed must be positive!");
+            }
+            
+            if (keyDistribution == null) {
+                throw new IllegalStateException("Key distribution must not be null!");
+            }
+            
+            if (missRatio < 0d || missRatio > 1d) {
+                throw new IllegalStateException("Miss ratio must be between zero and one!");
+            }
+            
+            if (agentCount <= 0 || agentId < 0 || agentId >= agentCount) {
+                throw new IllegalStateException("Agent count must be positive and agent ID in [0, agent count)!");
+            }
+            
+            if (identifierFormat == null) {
+                throw new IllegalStateException("Identifier format must not be null!");
+            }
+            
+            if (identifierLength != 0 && identifierLength < identifierFormat.getMinLength()) {
+                throw new IllegalStateException("Identifiers in format '" + identifierFormat.getLabel() + "' must have a length of at least " + identifierFormat.getMinLength() + "!");
+            }
+            
+            if (domainCount <= 0 || domainDistribution == null) {
+                throw new IllegalStateException("Domain count must be positive and domain distribution not null!");
+            }
+            
+            if ((replayTrace != null ? 1 : 0) + (accessLog != null ? 1 : 0) + (session != null ? 1 : 0) + (arrivalRates != null ? 1 : 0) > 1) {
+                throw new IllegalStateException("Only one of a replayed trace, an access log, sessions, and arrival rates can be used!");
+            }
+            
+            if (retryPolicies != null && retryPolicies.length != WorkType.values().length) {
+                throw new IllegalStateException("Retry policies must be defined for all types of work!");
+            }
+            
+            if (initialDBSize == 0 && (readRate > 0 || updateRate > 0 || deleteRate > 0 || accessLog != null ||
+                (arrivalRates != null && arrivalRates.getRate(WorkType.READ) + arrivalRates.getRate(WorkType.UPDATE) + arrivalRates.getRate(WorkType.DELETE) > 0d))) {
                 throw new IllegalStateException("If read, update or delete is set, the number of pre-created records must not be null.");
             }
             
@@ -191,7 +449,7 @@ public class Configuration {
             }
             
             // Create object
-            return new Configuration(createRate, readRate, updateRate, deleteRate, pingRate, numThreads, maxTime, name, initialDBSize, reportingInterval, reportDBSpace, reportingIntervalDBSpace);
+            return new Configuration(createRate, readRate, updateRate, deleteRate, pingRate, createDomainRate, readDomainRate, updateDomainRate, deleteDomainRate, numThreads, maxTime, name, initialDBSize, reportingInterval, reportDBSpace, reportingIntervalDBSpace, recordTrace, replayTrace, replaySpeed, accessLog, session, arrivalRates, retryPolicies != null ? retryPolicies : getNoRetries(), flightRecording, keyDistribution, missRatio, agentId, agentCount, identifierFormat, identifierLength == 0 ? identifierFormat.getDefaultLength() : identifierLength, domainCount, domainDistribution);
         }
         
         // SETTERS SECTION (these allow chaining).
@@ -236,6 +494,38 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * @param createDomainRate the createDomainRate to set
+         */
+        public ConfigurationBuilder setCreateDomainRate(int createDomainRate) {
+            this.createDomainRate = createDomainRate;
+            return this;
+        }
+
+        /**
+         * @param readDomainRate the readDomainRate to set
+         */
+        public ConfigurationBuilder setReadDomainRate(int readDomainRate) {
+            this.readDomainRate = readDomainRate;
+            return this;
+        }
+
+        /**
+         * @param updateDomainRate the updateDomainRate to set
+         */
+        public ConfigurationBuilder setUpdateDomainRate(int updateDomainRate) {
+            this.updateDomainRate = updateDomainRate;
+            return this;
+        }
+
+        /**
+         * @param deleteDomainRate the deleteDomainRate to set
+         */
+        public ConfigurationBuilder setDeleteDomainRate(int deleteDomainRate) {
+            this.deleteDomainRate = deleteDomainRate;
+            return this;
+        }
+
         /**
          * @param numThreads the numThreads to set
          */
@@ -263,7 +553,7 @@ public class Configuration {
         /**
          * @param initialDBSize The number of records created before the evaluation starts
          */
-        public ConfigurationBuilder setInitialDBSize(int initialDBSize) {
+        public ConfigurationBuilder setInitialDBSize(long initialDBSize) {
             this.initialDBSize = initialDBSize;
             return this;
         }
@@ -295,5 +585,176 @@ public class Configuration {
             this.reportDBSpace = reportDBSpace;
             return this;
         }
+        
+        /**
+         * Set whether to record a trace of all issued operations
+         * @param recordTrace
+         * @return
+         */
+        public ConfigurationBuilder setRecordTrace(boolean recordTrace) {
+            this.recordTrace = recordTrace;
+            return this;
+        }
+        
+        /**
+         * Set a trace to replay instead of sampling operations
+         * @param replayTrace path of the trace file, null to sample operations
+         * @return
+         */
+        public ConfigurationBuilder setReplayTrace(String replayTrace) {
+            this.replayTrace = replayTrace;
+            return this;
+        }
+        
+        /**
+         * Set the replay speed
+         * @param replaySpeed 1 for the original timing, 2 for twice as fast, and so on
+         * @return
+         */
+        public ConfigurationBuilder setReplaySpeed(double replaySpeed) {
+            this.replaySpeed = replaySpeed;
+            return this;
+        }
+        
+        /**
+         * Set an access log from which the workload is derived instead of the rates
+         * @param accessLog the configuration, null to use the rates
+         * @return
+         */
+        public ConfigurationBuilder setAccessLog(AccessLogConfiguration accessLog) {
+            this.accessLog = accessLog;
+            return this;
+        }
+        
+        /**
+         * Set the sessions to issue instead of the rates
+         * @param session the configuration, null to use the rates
+         * @return
+         */
+        public ConfigurationBuilder setSession(SessionConfiguration session) {
+            this.session = session;
+            return this;
+        }
+        
+        /**
+         * Set absolute rates per type of operation to issue instead of the relative rates
+         * @param arrivalRates the configuration, null to use the relative rates
+         * @return
+         */
+        public ConfigurationBuilder setArrivalRates(ArrivalRateConfiguration arrivalRates) {
+            this.arrivalRates = arrivalRates;
+            return this;
+        }
+        
+        /**
+         * Set the policies for retrying failed requests
+         * @param retryPolicies per work type, null to never retry
+         * @return
+         */
+        public ConfigurationBuilder setRetryPolicies(RetryPolicy[] retryPolicies) {
+            this.retryPolicies = retryPolicies;
+            return this;
+        }
+        
+        /**
+         * Set the flight recorder settings
+         * @param flightRecording predefined settings, e.g. "default" or "profile", or a path to a .jfc file, null to not record
+         * @return
+         */
+        public ConfigurationBuilder setFlightRecording(String flightRecording) {
+            this.flightRecording = flightRecording;
+            return this;
+        }
+        
+        /**
+         * Returns policies that never retry.
+         * 
+         * @return the policies
+         */
+        private static RetryPolicy[] getNoRetries() {
+            RetryPolicy[] policies = new RetryPolicy[WorkType.values().length];
+            Arrays.fill(policies, RetryPolicy.NONE);
+            return policies;
+        }
+        
+        /**
+         * Set the distribution of reads, updates, and deletes over the identifiers
+         * @param keyDistribution
+         * @return
+         */
+        public ConfigurationBuilder setKeyDistribution(KeyDistribution keyDistribution) {
+            this.keyDistribution = keyDistribution;
+            return this;
+        }
+        
+        /**
+         * Set the share of reads, updates, and deletes addressing identifiers that never exist
+         * @param missRatio between zero and one
+         * @return
+         */
+        public ConfigurationBuilder setMissRatio(double missRatio) {
+            this.missRatio = missRatio;
+            return this;
+        }
+        
+        /**
+         * Set the index of this driver process among all processes running against the same service
+         * @param agentId in [0, agentCount)
+         * @return
+         */
+        public ConfigurationBuilder setAgentId(int agentId) {
+            this.agentId = agentId;
+            return this;
+        }
+        
+        /**
+         * Set the number of driver processes running against the same service
+         * @param agentCount
+         * @return
+         */
+        public ConfigurationBuilder setAgentCount(int agentCount) {
+            this.agentCount = agentCount;
+            return this;
+        }
+        
+        /**
+         * Set the format of the identifiers
+         * @param identifierFormat
+         * @return
+         */
+        public ConfigurationBuilder setIdentifierFormat(IdentifierFormat identifierFormat) {
+            this.identifierFormat = identifierFormat;
+            return this;
+        }
+        
+        /**
+         * Set the length of the identifiers
+         * @param identifierLength at least the format's minimal length, 0 for the format's default
+         * @return
+         */
+        public ConfigurationBuilder setIdentifierLength(int identifierLength) {
+            this.identifierLength = identifierLength;
+            return this;
+        }
+        
+        /**
+         * Set the number of domains the records are spread across
+         * @param domainCount
+         * @return
+         */
+        public ConfigurationBuilder setDomainCount(int domainCount) {
+            this.domainCount = domainCount;
+            return this;
+        }
+        
+        /**
+         * Set the distribution of the records over the domains, the first domain being the busiest
+         * @param domainDistribution
+         * @return
+         */
+        public ConfigurationBuilder setDomainDistribution(KeyDistribution domainDistribution) {
+            this.domainDistribution = domainDistribution;
+            return this;
+        }
     }
 }
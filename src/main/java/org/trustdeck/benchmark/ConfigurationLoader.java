@@ -0,0 +1,164 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.trustdeck.benchmark.distribution.KeyDistribution;
+import org.trustdeck.benchmark.workload.AccessLogConfiguration;
+import org.trustdeck.benchmark.workload.ArrivalRateConfiguration;
+import org.trustdeck.benchmark.workload.SessionConfiguration;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Loads the configuration file. The file is read and parsed exactly once; all
+ * components are configured from the resulting immutable, typed objects.
+ * 
+ * @author Armin Müller
+ */
+public class ConfigurationLoader {
+    
+    /** Name of the configuration resource used if no path is given. */
+    private static final String DEFAULT_RESOURCE = "config.yaml";
+    
+    /**
+     * Private constructor prevents instantiation.
+     */
+    private ConfigurationLoader() {}
+    
+    /**
+     * Reads and parses the configuration file.
+     * 
+     * @param path path to the configuration file, or null to use the config.yaml from the classpath
+     * @return the root section
+     * @throws IOException
+     */
+    public static ConfigurationSection load(String path) throws IOException {
+        try (InputStream inputStream = path != null ? new FileInputStream(path) : ConfigurationLoader.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (inputStream == null) {
+                throw new FileNotFoundException("No " + DEFAULT_RESOURCE + " found on the classpath.");
+            }
+            Map<String, Object> yamlConfig = new Yaml().load(inputStream);
+            return new ConfigurationSection("", yamlConfig);
+        }
+    }
+    
+    /**
+     * Creates the configurations of all benchmark runs, i.e., all scenarios and their repetitions.
+     * 
+     * @param root the root section
+     * @return the configurations
+     */
+    public static List<Configuration> getConfigurations(ConfigurationSection root) {
+        
+        // Extract the benchmark configuration
+        ConfigurationSection benchmarkConfig = root.getSection("benchmark");
+        final long INITIAL_DB_SIZE = benchmarkConfig.getLong("initialDbSize");
+        final int MAX_TIME = benchmarkConfig.getInt("maxTime");
+        final int REPORTING_INTERVAL = benchmarkConfig.getInt("reportingInterval");
+        final boolean REPORT_DB_SPACE = benchmarkConfig.getBoolean("reportDbSpace");
+        final int REPORTING_INTERVAL_DB_SPACE = benchmarkConfig.getInt("reportingIntervalDbSpace");
+        final int NUM_THREADS = benchmarkConfig.getInt("numThreads");
+        final int NUMBER_OF_REPETITIONS = benchmarkConfig.getInt("numberOfRepetitions", 1);
+        final boolean RECORD_TRACE = benchmarkConfig.getBoolean("recordTrace", false);
+        final int AGENT_ID = benchmarkConfig.getInt("agentId", 0);
+        final int AGENT_COUNT = benchmarkConfig.getInt("agentCount", 1);
+        final double MISS_RATIO = benchmarkConfig.getDouble("missRatio", 0d);
+        final String IDENTIFIER_FORMAT = benchmarkConfig.getString("identifierFormat", IdentifierFormat.SEQUENTIAL.getLabel());
+        final int IDENTIFIER_LENGTH = benchmarkConfig.getInt("identifierLength", 0);
+        final int DOMAIN_COUNT = benchmarkConfig.getInt("domainCount", 1);
+        final KeyDistribution DOMAIN_DISTRIBUTION = KeyDistribution.fromSection(benchmarkConfig.contains("domainDistribution") ? benchmarkConfig.getSection("domainDistribution") : null);
+        final KeyDistribution KEY_DISTRIBUTION = KeyDistribution.fromSection(benchmarkConfig.contains("keyDistribution") ? benchmarkConfig.getSection("keyDistribution") : null);
+        final RetryPolicy[] RETRY_POLICIES = benchmarkConfig.contains("retry") ? RetryPolicy.fromSection(benchmarkConfig.getSection("retry")) : null;
+        final String FLIGHT_RECORDING = benchmarkConfig.getString("flightRecording", null);
+
+        // Create configs
+        List<Configuration> configs = new ArrayList<>();
+        for (ConfigurationSection scenario : benchmarkConfig.getSections("scenarios")) {
+            String name = scenario.getString("name");
+            int createRate = scenario.getInt("createRate", 0);
+            int readRate = scenario.getInt("readRate", 0);
+            int updateRate = scenario.getInt("updateRate", 0);
+            int deleteRate = scenario.getInt("deleteRate", 0);
+            int pingRate = scenario.getInt("pingRate", 0);
+            int createDomainRate = scenario.getInt("createDomainRate", 0);
+            int readDomainRate = scenario.getInt("readDomainRate", 0);
+            int updateDomainRate = scenario.getInt("updateDomainRate", 0);
+            int deleteDomainRate = scenario.getInt("deleteDomainRate", 0);
+            boolean recordTrace = scenario.getBoolean("recordTrace", RECORD_TRACE);
+            String replayTrace = scenario.getString("replayTrace", null);
+            double replaySpeed = scenario.getDouble("replaySpeed", 1d);
+            KeyDistribution keyDistribution = scenario.contains("keyDistribution") ? KeyDistribution.fromSection(scenario.getSection("keyDistribution")) : KEY_DISTRIBUTION;
+            double missRatio = scenario.getDouble("missRatio", MISS_RATIO);
+            IdentifierFormat identifierFormat = IdentifierFormat.fromLabel(scenario.getString("identifierFormat", IDENTIFIER_FORMAT));
+            int identifierLength = scenario.getInt("identifierLength", IDENTIFIER_LENGTH);
+            int domainCount = scenario.getInt("domainCount", DOMAIN_COUNT);
+            KeyDistribution domainDistribution = scenario.contains("domainDistribution") ? KeyDistribution.fromSection(scenario.getSection("domainDistribution")) : DOMAIN_DISTRIBUTION;
+            AccessLogConfiguration accessLog = scenario.contains("accessLog") ? AccessLogConfiguration.fromSection(scenario.getSection("accessLog")) : null;
+            SessionConfiguration session = scenario.contains("session") ? SessionConfiguration.fromSection(scenario.getSection("session")) : null;
+            ArrivalRateConfiguration arrivalRates = scenario.contains("arrivalRates") ? ArrivalRateConfiguration.fromSection(scenario.getSection("arrivalRates")) : null;
+            RetryPolicy[] retryPolicies = scenario.contains("retry") ? RetryPolicy.fromSection(scenario.getSection("retry")) : RETRY_POLICIES;
+            String flightRecording = scenario.getString("flightRecording", FLIGHT_RECORDING);
+
+            for (int i = 0; i < NUMBER_OF_REPETITIONS; i++) {
+                configs.add(Configuration.builder()
+                        .setCreateRate(createRate)
+                        .setReadRate(readRate)
+                        .setUpdateRate(updateRate)
+                        .setDeleteRate(deleteRate)
+                        .setPingRate(pingRate)
+                        .setCreateDomainRate(createDomainRate)
+                        .setReadDomainRate(readDomainRate)
+                        .setUpdateDomainRate(updateDomainRate)
+                        .setDeleteDomainRate(deleteDomainRate)
+                        .setInitialDBSize(INITIAL_DB_SIZE)
+                        .setMaxTime(MAX_TIME)
+                        .setName(name + "-" + NUM_THREADS + "-threads")
+                        .setNumThreads(NUM_THREADS)
+                        .setReportingInterval(REPORTING_INTERVAL)
+                        .setReportingIntervalDBSpace(REPORTING_INTERVAL_DB_SPACE)
+                        .setReportDBSpace(REPORT_DB_SPACE)
+                        .setRecordTrace(recordTrace)
+                        .setReplayTrace(replayTrace)
+                        .setReplaySpeed(replaySpeed)
+                        .setAccessLog(accessLog)
+                        .setSession(session)
+                        .setArrivalRates(arrivalRates)
+                        .setRetryPolicies(retryPolicies)
+                        .setFlightRecording(flightRecording)
+                        .setKeyDistribution(keyDistribution)
+                        .setMissRatio(missRatio)
+                        .setAgentId(AGENT_ID)
+                        .setAgentCount(AGENT_COUNT)
+                        .setIdentifierFormat(identifierFormat)
+                        .setIdentifierLength(identifierLength)
+                        .setDomainCount(domainCount)
+                        .setDomainDistribution(domainDistribution)
+                        .build());
+            }
+        }
+        
+        return configs;
+    }
+}
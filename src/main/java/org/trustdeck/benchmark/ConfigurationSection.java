@@ -0,0 +1,259 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed, read-only view on a section of the parsed configuration file.
+ * Type errors and missing values are reported with the path of the offending key.
+ * 
+ * @author Armin Müller
+ */
+public class ConfigurationSection {
+    
+    /** Path of this section, used in error messages. */
+    private final String path;
+    
+    /** The section's values. */
+    private final Map<String, Object> values;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param path path of this section, empty for the root
+     * @param values the section's values
+     */
+    public ConfigurationSection(String path, Map<String, Object> values) {
+        this.path = path;
+        this.values = values != null ? values : Collections.emptyMap();
+    }
+    
+    /**
+     * Whether a value is set for the key.
+     * 
+     * @param key
+     * @return {@code true} if a non-null value exists
+     */
+    public boolean contains(String key) {
+        return values.get(key) != null;
+    }
+    
+    /**
+     * Returns a required string.
+     * 
+     * @param key
+     * @return the value
+     */
+    public String getString(String key) {
+        return get(key, String.class);
+    }
+    
+    /**
+     * Returns an optional string.
+     * 
+     * @param key
+     * @param defaultValue
+     * @return the value or the default
+     */
+    public String getString(String key, String defaultValue) {
+        return contains(key) ? getString(key) : defaultValue;
+    }
+    
+    /**
+     * Returns a required integer.
+     * 
+     * @param key
+     * @return the value
+     */
+    public int getInt(String key) {
+        long value = getLong(key);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Value of '" + getPath(key) + "' is out of range.");
+        }
+        return (int) value;
+    }
+    
+    /**
+     * Returns an optional integer.
+     * 
+     * @param key
+     * @param defaultValue
+     * @return the value or the default
+     */
+    public int getInt(String key, int defaultValue) {
+        return contains(key) ? getInt(key) : defaultValue;
+    }
+    
+    /**
+     * Returns a required long.
+     * 
+     * @param key
+     * @return the value
+     */
+    public long getLong(String key) {
+        Number value = get(key, Number.class);
+        if (value instanceof Double || value instanceof Float) {
+            throw new IllegalStateException("Value of '" + getPath(key) + "' must be an integer.");
+        }
+        return value.longValue();
+    }
+    
+    /**
+     * Returns an optional long.
+     * 
+     * @param key
+     * @param defaultValue
+     * @return the value or the default
+     */
+    public long getLong(String key, long defaultValue) {
+        return contains(key) ? getLong(key) : defaultValue;
+    }
+    
+    /**
+     * Returns a required floating point number.
+     * 
+     * @param key
+     * @return the value
+     */
+    public double getDouble(String key) {
+        return get(key, Number.class).doubleValue();
+    }
+    
+    /**
+     * Returns an optional floating point number.
+     * 
+     * @param key
+     * @param defaultValue
+     * @return the value or the default
+     */
+    public double getDouble(String key, double defaultValue) {
+        return contains(key) ? getDouble(key) : defaultValue;
+    }
+    
+    /**
+     * Returns a required boolean.
+     * 
+     * @param key
+     * @return the value
+     */
+    public boolean getBoolean(String key) {
+        return get(key, Boolean.class);
+    }
+    
+    /**
+     * Returns an optional boolean.
+     * 
+     * @param key
+     * @param defaultValue
+     * @return the value or the default
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return contains(key) ? getBoolean(key) : defaultValue;
+    }
+    
+    /**
+     * Returns a required sub-section.
+     * 
+     * @param key
+     * @return the section
+     */
+    @SuppressWarnings("unchecked")
+    public ConfigurationSection getSection(String key) {
+        return new ConfigurationSection(getPath(key), get(key, Map.class));
+    }
+    
+    /**
+     * Returns a required list of sub-sections.
+     * 
+     * @param key
+     * @return the sections
+     */
+    public List<ConfigurationSection> getSections(String key) {
+        List<?> list = get(key, List.class);
+        List<ConfigurationSection> result = new ArrayList<>();
+        for (int i = 0; i < list.size(); i++) {
+            if (!(list.get(i) instanceof Map)) {
+                throw new IllegalStateException("Entry '" + getPath(key) + "[" + i + "]' must be a section.");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> values = (Map<String, Object>) list.get(i);
+            result.add(new ConfigurationSection(getPath(key) + "[" + i + "]", values));
+        }
+        return result;
+    }
+    
+    /**
+     * Returns a required list of scalar values, each converted to a string.
+     * 
+     * @param key
+     * @return the values
+     */
+    public List<String> getStrings(String key) {
+        List<?> list = get(key, List.class);
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == null || list.get(i) instanceof Map || list.get(i) instanceof List) {
+                throw new IllegalStateException("Entry '" + getPath(key) + "[" + i + "]' must be a value.");
+            }
+            result.add(String.valueOf(list.get(i)));
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the path of this section.
+     * 
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+    
+    /**
+     * Returns the path of a key in this section.
+     * 
+     * @param key
+     * @return the path
+     */
+    private String getPath(String key) {
+        return path.isEmpty() ? key : path + "." + key;
+    }
+    
+    /**
+     * Returns a required value of the given type.
+     * 
+     * @param <T>
+     * @param key
+     * @param type
+     * @return the value
+     */
+    private <T> T get(String key, Class<T> type) {
+        Object value = values.get(key);
+        if (value == null) {
+            throw new IllegalStateException("Missing value for '" + getPath(key) + "'.");
+        }
+        if (!type.isInstance(value)) {
+            throw new IllegalStateException("Value of '" + getPath(key) + "' must be of type " + type.getSimpleName().toLowerCase() + ".");
+        }
+        return type.cast(value);
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import org.trustdeck.benchmark.distribution.KeyDistribution;
+
+/**
+ * Assigns records to the domains the load is spread across. The domain of a record is derived
+ * from a hash of its identifier, so that every operation on the record addresses the domain it
+ * has been created in, without keeping per-record state. Replayed traces map to the same domains
+ * as long as the number of domains and their shares are unchanged.
+ * 
+ * Domains created, read, updated, and deleted by domain-management operations are kept apart
+ * from those holding records. They are numbered after them, striped across agents like IDs.
+ * Existing managed domains are accessed uniformly, by sampling this agent's slots up to the
+ * highest one created and redrawing slots whose domains do not exist.
+ * 
+ * @author Armin Müller
+ */
+public class Domains {
+    
+    /** Index of a managed domain that is never created, accessed if there is no other. */
+    private static final int MISS = Integer.MAX_VALUE;
+    
+    /** Maximal number of draws for finding an existing managed domain, before falling back to the next existing one. */
+    private static final int MAX_ATTEMPTS = 1024;
+    
+    /** Upper bounds of the domains' shares, cumulated. */
+    private final double[] cumulative;
+    
+    /** Number of managed domains claimed by this agent. */
+    private final AtomicLong claimed = new AtomicLong(0);
+    
+    /** Highest slot of a managed domain of this agent created so far, plus one. */
+    private final LongAccumulator highest = new LongAccumulator(Math::max, 0L);
+    
+    /** Slots of the managed domains of this agent that currently exist. */
+    private final LiveKeySet live = new LiveKeySet();
+    
+    /** Index of this agent. */
+    private final int agentId;
+    
+    /** Number of agents. */
+    private final int agentCount;
+    
+    /**
+     * Creates a new instance for a single agent.
+     * 
+     * @param weights relative share of records per domain, at least one domain
+     */
+    public Domains(double[] weights) {
+        this(weights, 0, 1);
+    }
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param weights relative share of records per domain, at least one domain
+     * @param agentId index of this agent in [0, agentCount)
+     * @param agentCount number of agents
+     */
+    public Domains(double[] weights, int agentId, int agentCount) {
+        this.agentId = agentId;
+        this.agentCount = agentCount;
+        double sum = 0d;
+        for (double weight : weights) {
+            if (weight < 0d) {
+                throw new IllegalStateException("Domain weights must be zero or positive!");
+            }
+            sum += weight;
+        }
+        if (weights.length == 0 || sum <= 0d) {
+            throw new IllegalStateException("At least one domain must have a positive weight!");
+        }
+        this.cumulative = new double[weights.length];
+        double current = 0d;
+        for (int i = 0; i < weights.length; i++) {
+            current += weights[i] / sum;
+            this.cumulative[i] = current;
+        }
+        this.cumulative[weights.length - 1] = 1d;
+    }
+    
+    /**
+     * Creates domains whose shares follow a distribution, the first domain being the busiest
+     * for skewed distributions.
+     * 
+     * @param distribution the distribution
+     * @param count the number of domains
+     * @param agentId index of this agent in [0, agentCount)
+     * @param agentCount number of agents
+     * @return the domains
+     */
+    public static Domains of(KeyDistribution distribution, int count, int agentId, int agentCount) {
+        double[] weights = new double[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = distribution.getWeight(i, count);
+        }
+        return new Domains(weights, agentId, agentCount);
+    }
+    
+    /**
+     * Returns the number of domains.
+     * 
+     * @return the number
+     */
+    public int getCount() {
+        return cumulative.length;
+    }
+    
+    /**
+     * Returns the share of records assigned to a domain.
+     * 
+     * @param domain the index of the domain
+     * @return the share between zero and one
+     */
+    public double getShare(int domain) {
+        return cumulative[domain] - (domain == 0 ? 0d : cumulative[domain - 1]);
+    }
+    
+    /**
+     * Returns the domain of a record.
+     * 
+     * @param id the identifier of the record
+     * @return the index of the domain
+     */
+    public int of(String id) {
+        if (cumulative.length == 1) {
+            return 0;
+        }
+        
+        // Hash to a uniformly distributed number in [0, 1)
+        long hash = id.hashCode() * 0x9e3779b97f4a7c15L;
+        hash ^= hash >>> 29;
+        hash *= 0xbf58476d1ce4e5b9L;
+        hash ^= hash >>> 32;
+        double u = (hash >>> 11) * 0x1.0p-53;
+        
+        // Binary search
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (u < cumulative[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Returns the next managed domain to create. It is only accessed once it has been confirmed by {@link #created(int)}.
+     * 
+     * @return the index of the domain
+     */
+    public int create() {
+        return getDomain(claimed.getAndIncrement());
+    }
+    
+    /**
+     * Confirms that a managed domain has been created.
+     * 
+     * @param domain the index of the domain
+     */
+    public void created(int domain) {
+        long slot = getSlot(domain);
+        if (slot >= 0) {
+            live.add(slot);
+            highest.accumulate(slot + 1);
+        }
+    }
+    
+    /**
+     * Returns a managed domain for reading or updating.
+     * 
+     * @return the index of an existing domain, or of one that never exists if there is none, so that the access misses
+     */
+    public int read() {
+        long size = highest.get();
+        long slot = -1L;
+        if (size > 0) {
+            long sample = 0L;
+            for (int attempt = 0; attempt < MAX_ATTEMPTS && slot < 0; attempt++) {
+                sample = ThreadLocalRandom.current().nextLong(size);
+                slot = live.contains(sample) ? sample : -1L;
+            }
+            
+            // Hardly any of the domains created exists anymore
+            if (slot < 0) {
+                slot = live.next(sample);
+            }
+        }
+        return slot < 0 ? MISS : getDomain(slot);
+    }
+    
+    /**
+     * Returns a managed domain for deletion. It is no longer returned by {@link #read()} and {@link #delete()}.
+     * 
+     * @return the index of an existing domain, or of one that never exists if there is none, so that the access misses
+     */
+    public int delete() {
+        long size = highest.get();
+        long slot = -1L;
+        if (size > 0) {
+            long sample = 0L;
+            for (int attempt = 0; attempt < MAX_ATTEMPTS && slot < 0; attempt++) {
+                sample = ThreadLocalRandom.current().nextLong(size);
+                slot = live.remove(sample) ? sample : -1L;
+            }
+            
+            // Hardly any of the domains created exists anymore
+            if (slot < 0) {
+                slot = live.removeNext(sample);
+            }
+        }
+        return slot < 0 ? MISS : getDomain(slot);
+    }
+    
+    /**
+     * Returns a managed domain that could not be deleted, so that it is accessed again.
+     * 
+     * @param domain the index of the domain, obtained from {@link #delete()}
+     */
+    public void restore(int domain) {
+        long slot = getSlot(domain);
+        if (slot >= 0) {
+            live.add(slot);
+        }
+    }
+    
+    /**
+     * Marks a managed domain as deleted.
+     * 
+     * @param domain the index of the domain
+     */
+    public void deleted(int domain) {
+        long slot = getSlot(domain);
+        if (slot >= 0) {
+            live.remove(slot);
+        }
+    }
+    
+    /**
+     * Returns the managed domain in a slot of this agent.
+     * 
+     * @param slot the slot
+     * @return the index of the domain
+     */
+    private int getDomain(long slot) {
+        return (int) (cumulative.length + slot * agentCount + agentId);
+    }
+    
+    /**
+     * Returns the slot of a managed domain among those of this agent.
+     * 
+     * @param domain the index of the domain
+     * @return the slot, -1 if the domain holds records, never exists, or belongs to another agent
+     */
+    private long getSlot(int domain) {
+        long number = (long) domain - cumulative.length;
+        if (number < 0 || domain == MISS || number % agentCount != agentId) {
+            return -1L;
+        }
+        return number / agentCount;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent histogram of non-negative values, e.g., latencies in nanoseconds. Values are counted
+ * in log-linear buckets: each power of two is split into 32 buckets, so that values are resolved
+ * with a relative error of about 3 %. Recording is lock-free and striped across threads.
+ * 
+ * Counts are read as snapshots, the difference of two snapshots describes an interval.
+ * 
+ * @author Armin Müller
+ */
+public class Histogram {
+    
+    /** Number of bits resolved below the highest bit of a value. */
+    private static final int SUB_BUCKET_BITS = 5;
+    
+    /** Number of buckets per power of two. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    
+    /** Number of buckets covering all non-negative longs. */
+    private static final int BUCKETS = index(Long.MAX_VALUE) + 1;
+    
+    /** Maximal number of stripes. */
+    private static final int MAX_STRIPES = 16;
+    
+    /** Counts, one array per stripe. */
+    private final AtomicLongArray[] stripes;
+    
+    /** Mask for selecting a stripe. */
+    private final int mask;
+    
+    /**
+     * Creates a new instance with one stripe per processor, up to a maximum.
+     */
+    public Histogram() {
+        this(Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors()));
+    }
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param stripes the number of stripes, rounded up to a power of two
+     */
+    public Histogram(int stripes) {
+        stripes = stripes <= 1 ? 1 : Integer.highestOneBit((stripes - 1) << 1);
+        this.stripes = new AtomicLongArray[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+        this.mask = stripes - 1;
+    }
+    
+    /**
+     * Records a value. Thread safe.
+     * 
+     * @param value the value, negative values are counted as zero
+     */
+    public void record(long value) {
+        stripes[(int) Thread.currentThread().getId() & mask].incrementAndGet(index(Math.max(0L, value)));
+    }
+    
+    /**
+     * Returns the current counts per bucket. Thread safe, but not atomic.
+     * 
+     * @return the counts
+     */
+    public long[] snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return counts;
+    }
+    
+    /**
+     * Returns the counts recorded between two snapshots.
+     * 
+     * @param current the later snapshot
+     * @param last the earlier snapshot
+     * @return the counts
+     */
+    public static long[] delta(long[] current, long[] last) {
+        long[] delta = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            delta[i] = current[i] - last[i];
+        }
+        return delta;
+    }
+    
+    /**
+     * Returns the number of values in a snapshot.
+     * 
+     * @param counts the snapshot
+     * @return the number
+     */
+    public static long getCount(long[] counts) {
+        long count = 0;
+        for (long c : counts) {
+            count += c;
+        }
+        return count;
+    }
+    
+    /**
+     * Returns the value below which the given share of the values in a snapshot lies.
+     * 
+     * @param counts the snapshot
+     * @param percentile in [0, 100]
+     * @return the midpoint of the bucket containing the percentile, 0 if the snapshot is empty
+     */
+    public static long getPercentile(long[] counts, double percentile) {
+        long count = getCount(counts);
+        if (count == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100d * (double) count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (lowest(i) + highest(i)) >>> 1;
+            }
+        }
+        return highest(BUCKETS - 1);
+    }
+    
+    /**
+     * Returns the highest value in a snapshot.
+     * 
+     * @param counts the snapshot
+     * @return the upper bound of the highest non-empty bucket, 0 if the snapshot is empty
+     */
+    public static long getMax(long[] counts) {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return highest(i);
+            }
+        }
+        return 0L;
+    }
+    
+    /**
+     * Returns the bucket of a value.
+     * 
+     * @param value non-negative
+     * @return the index
+     */
+    private static int index(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+    
+    /**
+     * Returns the lowest value of a bucket.
+     * 
+     * @param index
+     * @return the value
+     */
+    private static long lowest(int index) {
+        int shift = Math.max(0, index / SUB_BUCKETS - 1);
+        return (long) (index - shift * SUB_BUCKETS) << shift;
+    }
+    
+    /**
+     * Returns the highest value of a bucket.
+     * 
+     * @param index
+     * @return the value
+     */
+    private static long highest(int index) {
+        int shift = Math.max(0, index / SUB_BUCKETS - 1);
+        return lowest(index) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import org.apache.commons.lang3.StringUtils;
+
+import lombok.Getter;
+
+/**
+ * Formats in which identifier numbers are rendered. The format determines the order in
+ * which new records arrive at the service's indexes: sequential identifiers are always
+ * appended, while the other formats spread inserts over the key space.
+ * 
+ * All formats are bijective, so that the number of an identifier can be recovered
+ * without keeping per-identifier state. The random-looking parts are derived from the
+ * number with an invertible 64-bit mixing function.
+ * 
+ * @author Armin Müller
+ */
+public enum IdentifierFormat {
+
+    /** Prefix followed by the zero-padded decimal number, e.g. "ID000...0042". */
+    SEQUENTIAL("sequential", 32, 3) {
+        @Override
+        String format(long number, int length) {
+            return PREFIX + StringUtils.leftPad(String.valueOf(number), length - PREFIX.length(), '0');
+        }
+
+        @Override
+        long parse(String id) {
+            return id.startsWith(PREFIX) ? Long.parseLong(id, PREFIX.length(), id.length(), 10) : -1L;
+        }
+    },
+
+    /** Prefix followed by the hashed number in hexadecimal, zero-padded. Inserts are uniformly spread. */
+    HASHED("hashed", 32, 18) {
+        @Override
+        String format(long number, int length) {
+            return PREFIX + StringUtils.leftPad(hex(mix(number)), length - PREFIX.length(), '0');
+        }
+
+        @Override
+        long parse(String id) {
+            return id.startsWith(PREFIX) && id.length() >= PREFIX.length() + 16 ? unmix(Long.parseUnsignedLong(id, id.length() - 16, id.length(), 16)) : -1L;
+        }
+    },
+
+    /** 128 random-looking bits in the 8-4-4-4-12 layout of UUIDs, or as 32 hexadecimal digits without dashes. */
+    UUID("uuid", 36, 32) {
+        @Override
+        String format(long number, int length) {
+            String high = hex(mix(number));
+            String low = hex(mix(mix(number) ^ UUID_SALT));
+            if (length < 36) {
+                return high + low;
+            }
+            return new StringBuilder(36)
+                    .append(high, 0, 8).append('-')
+                    .append(high, 8, 12).append('-')
+                    .append(high, 12, 16).append('-')
+                    .append(low, 0, 4).append('-')
+                    .append(low, 4, 16).toString();
+        }
+
+        @Override
+        long parse(String id) {
+            String digits = id.replace("-", "");
+            return digits.length() == 32 ? unmix(Long.parseUnsignedLong(digits, 0, 16, 16)) : -1L;
+        }
+    },
+
+    /**
+     * Increasing prefix followed by a random-looking suffix, like ULIDs or version 7 UUIDs. The prefix
+     * is the block of identifiers the number belongs to. As blocks are claimed one after the other,
+     * it is a logical creation time shared by the identifiers created by a thread in the same period.
+     */
+    TIME_PREFIXED("time-prefixed", 32, 20) {
+        @Override
+        String format(long number, int length) {
+            return StringUtils.leftPad(Long.toHexString(number / BLOCK_SIZE), length - 16, '0') + hex(mix(number));
+        }
+
+        @Override
+        long parse(String id) {
+            return id.length() >= 16 ? unmix(Long.parseUnsignedLong(id, id.length() - 16, id.length(), 16)) : -1L;
+        }
+    };
+
+    /** Prefix of sequential and hashed identifiers. */
+    private static final String PREFIX = "ID";
+
+    /** Number of identifiers per block of time-prefixed identifiers, matches {@link Identifiers}. */
+    private static final long BLOCK_SIZE = 1024;
+
+    /** Salt for deriving the second half of UUID-like identifiers. */
+    private static final long UUID_SALT = 0x9e3779b97f4a7c15L;
+
+    /** Label used in the configuration and reports. */
+    @Getter
+    private final String label;
+
+    /** Length used when none is configured. */
+    @Getter
+    private final int defaultLength;
+
+    /** Minimal length. */
+    @Getter
+    private final int minLength;
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param label
+     * @param defaultLength
+     * @param minLength
+     */
+    private IdentifierFormat(String label, int defaultLength, int minLength) {
+        this.label = label;
+        this.defaultLength = defaultLength;
+        this.minLength = minLength;
+    }
+
+    /**
+     * Renders a number. Numbers that do not fit into the length result in longer identifiers.
+     * 
+     * @param number the non-negative number
+     * @param length the length
+     * @return the identifier
+     */
+    abstract String format(long number, int length);
+
+    /**
+     * Recovers the number of an identifier.
+     * 
+     * @param id an identifier rendered by this format
+     * @return the number, -1 if the identifier is not in this format
+     * @throws NumberFormatException if the identifier is malformed
+     */
+    abstract long parse(String id);
+
+    /**
+     * Returns the format with the given label.
+     * 
+     * @param label
+     * @return the format
+     */
+    public static IdentifierFormat fromLabel(String label) {
+        for (IdentifierFormat format : values()) {
+            if (format.label.equalsIgnoreCase(label)) {
+                return format;
+            }
+        }
+        throw new IllegalStateException("Unknown identifier format '" + label + "', expected one of: sequential, hashed, uuid, time-prefixed");
+    }
+
+    /**
+     * Renders a value as 16 hexadecimal digits.
+     * 
+     * @param value
+     * @return the digits
+     */
+    private static String hex(long value) {
+        return StringUtils.leftPad(Long.toHexString(value), 16, '0');
+    }
+
+    /**
+     * Invertible mixing function, the finalizer of SplitMix64.
+     * 
+     * @param z
+     * @return the mixed value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Inverse of {@link #mix(long)}.
+     * 
+     * @param z
+     * @return the original value
+     */
+    private static long unmix(long z) {
+        z = z ^ (z >>> 31) ^ (z >>> 62);
+        z *= 0x319642b2d24d8ec3L;
+        z = z ^ (z >>> 27) ^ (z >>> 54);
+        z *= 0x96de1b173f119089L;
+        return z ^ (z >>> 30) ^ (z >>> 60);
+    }
+}
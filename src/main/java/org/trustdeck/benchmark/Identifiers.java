@@ -17,54 +17,316 @@
 
 package org.trustdeck.benchmark;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
 
-import org.apache.commons.lang3.StringUtils;
+import org.trustdeck.benchmark.distribution.KeyDistribution;
+import org.trustdeck.benchmark.distribution.UniformKeyDistribution;
 
 /**
- * Creates and accesses IDs by incrementing from a start number.
+ * Creates and accesses IDs by incrementing from a start number. Reads, updates, and
+ * deletes only address IDs that have been created successfully and not been deleted
+ * since, except for a configurable share of IDs that never exist.
+ * 
+ * IDs are handed out in blocks, so that threads do not contend on a shared counter.
+ * When several driver processes (agents) run against the same service, block i of
+ * agent a covers the IDs of global block i * agentCount + a, so IDs never collide.
+ * 
+ * Accesses are sampled from the key distribution over the slots of this agent's blocks
+ * up to the highest ID created, redrawing slots whose IDs do not exist (deleted, or not yet
+ * handed out from a thread's open block), so that every existing ID is accessed with the
+ * probability the distribution assigns to it.
+ * 
+ * Internally, IDs are numbers. They are rendered in a configurable {@link IdentifierFormat},
+ * IDs that never exist use numbers beyond the range of those that are created.
  * 
  * @author Felix Wirth, Armin Müller
  *
  */
 public class Identifiers {
     
-    /** Provides randomness. */
-    private static final Random RANDOM  = new Random(735576300);
+    /** First number of IDs that are never created. */
+    private static final long MISS_BASE = 1L << 62;
+    
+    /** Number of IDs per block. */
+    private static final long BLOCK_SIZE = 1024;
+    
+    /** Maximal number of draws for finding an existing ID, before falling back to the next existing one. */
+    private static final int MAX_ATTEMPTS = 1024;
+    
+    /** Number of blocks claimed by this agent. */
+    private final AtomicLong blocks = new AtomicLong(0);
+    
+    /** Per-thread block, the next ID and the end of the block (exclusive). */
+    private final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[2]);
+    
+    /** Number of slots of this agent up to the highest ID created so far. */
+    private final LongAccumulator slots = new LongAccumulator(Math::max, 0L);
+    
+    /** Index of this agent. */
+    private final int agentId;
+    
+    /** Number of agents. */
+    private final int agentCount;
+    
+    /** Slots of the IDs of this agent that currently exist, so that its size does not grow with the number of agents. */
+    private final LiveKeySet live = new LiveKeySet();
+    
+    /** Distribution of accesses. */
+    private final KeyDistribution distribution;
     
-    /** Prefix. */
-    private static final String PREFIX  = "ID";
+    /** Share of accesses that address IDs that never exist. */
+    private final double missRatio;
     
-    /** Length. */
-    private static final int LENGTH  = 32;
+    /** Format of the IDs. */
+    private final IdentifierFormat format;
     
-    /** Atomic counter. */
-    private final AtomicLong counter = new AtomicLong(0);
+    /** Length of the IDs. */
+    private final int length;
 
     /**
-     * Creates a new instance.
+     * Creates a new instance with uniformly distributed accesses.
      */
     public Identifiers() {
-        // Empty by design
+        this(new UniformKeyDistribution(), 0d, 0, 1, IdentifierFormat.SEQUENTIAL, IdentifierFormat.SEQUENTIAL.getDefaultLength());
+    }
+
+    /**
+     * Creates a new instance.
+     * 
+     * @param distribution distribution of accesses
+     * @param missRatio share of accesses that address IDs that never exist
+     * @param agentId index of this agent in [0, agentCount)
+     * @param agentCount number of agents
+     * @param format format of the IDs
+     * @param length length of the IDs
+     */
+    public Identifiers(KeyDistribution distribution, double missRatio, int agentId, int agentCount, IdentifierFormat format, int length) {
+        this.distribution = distribution;
+        this.missRatio = missRatio;
+        this.agentId = agentId;
+        this.agentCount = agentCount;
+        this.format = format;
+        this.length = length;
     }
 
     /**
-     * Create the next identifier.
+     * Create the next identifier. It is only accessed once it has been confirmed by {@link #created(String)}.
      * 
-     * @return the next number as a string, padded to the desired length
+     * @return the next number, rendered in the configured format
      */
     public String create() {
-        return PREFIX + StringUtils.leftPad(String.valueOf(counter.incrementAndGet()), LENGTH - PREFIX.length(), "0");
+        long[] block = this.block.get();
+        if (block[0] == block[1]) {
+            // Claim the next block
+            long start = getNumber(blocks.getAndIncrement(), 0);
+            block[0] = start;
+            block[1] = start + BLOCK_SIZE;
+        }
+        return format.format(block[0]++, length);
+    }
+    
+    /**
+     * Reserves the next identifiers for being created in bulk, e.g., by several threads while preparing.
+     * These are the identifiers a single thread would obtain from as many calls to {@link #create()}.
+     * 
+     * @param count the number of identifiers
+     * @return the index of the first block reserved
+     */
+    public long reserve(long count) {
+        return blocks.getAndAdd((count + BLOCK_SIZE - 1) / BLOCK_SIZE);
+    }
+    
+    /**
+     * Returns a reserved identifier. Like identifiers obtained from {@link #create()}, it is only
+     * accessed once it has been confirmed by {@link #created(String)}.
+     * 
+     * @param firstBlock the index of the first block reserved, obtained from {@link #reserve(long)}
+     * @param index the index of the identifier among those reserved
+     * @return the identifier
+     */
+    public String getReserved(long firstBlock, long index) {
+        return format.format(getNumber(firstBlock + index / BLOCK_SIZE, index % BLOCK_SIZE), length);
+    }
+    
+    /**
+     * Returns the number of the identifier at an offset in a block of this agent.
+     * 
+     * @param block the index of the block among those of this agent
+     * @param offset the offset in the block
+     * @return the number, starting at 1
+     */
+    private long getNumber(long block, long offset) {
+        return (block * agentCount + agentId) * BLOCK_SIZE + 1 + offset;
+    }
+    
+    /**
+     * Returns the number of the identifier in a slot among those of this agent's blocks.
+     * 
+     * @param slot the slot
+     * @return the number, starting at 1
+     */
+    private long getNumber(long slot) {
+        return getNumber(slot / BLOCK_SIZE, slot % BLOCK_SIZE);
+    }
+    
+    /**
+     * Returns the slot of an identifier among those of this agent's blocks.
+     * 
+     * @param number the number of the identifier, starting at 1
+     * @return the slot, -1 if the identifier belongs to another agent or cannot be parsed
+     */
+    private long getSlot(long number) {
+        if (number < 1) {
+            return -1L;
+        }
+        long block = (number - 1) / BLOCK_SIZE;
+        if (block % agentCount != agentId) {
+            return -1L;
+        }
+        return block / agentCount * BLOCK_SIZE + (number - 1) % BLOCK_SIZE;
+    }
+    
+    /**
+     * Returns the number of identifiers per block.
+     * 
+     * @return the number
+     */
+    public static long getBlockSize() {
+        return BLOCK_SIZE;
+    }
+    
+    /**
+     * Confirms that the record with the given identifier has been created.
+     * 
+     * @param id an identifier obtained from {@link #create()}
+     */
+    public void created(String id) {
+        long slot = getSlot(parse(id));
+        if (slot >= 0) {
+            live.add(slot);
+            slots.accumulate(slot + 1);
+        }
     }
 
     /**
-     * Read the next identifier.
+     * Read the next identifier, for reading or updating.
      * 
-     * @implNote this does not respect already deleted numbers so that this can return non-existing IDs
-     * @return the next number as a string, padded to the desired length
+     * @return an existing identifier, or one that never exists with the configured miss ratio
      */
     public String read() {
-        return PREFIX + StringUtils.leftPad(String.valueOf(RANDOM.nextInt((int) counter.get())), LENGTH - PREFIX.length(), "0");
+        long slot = -1L;
+        if (!isMiss()) {
+            long sample = 0L;
+            for (int attempt = 0; attempt < MAX_ATTEMPTS && slot < 0; attempt++) {
+                sample = sample();
+                slot = live.contains(sample) ? sample : -1L;
+            }
+            
+            // Hardly any of the IDs created exists anymore
+            if (slot < 0) {
+                slot = live.next(sample);
+            }
+        }
+        return slot < 0 ? miss() : format.format(getNumber(slot), length);
+    }
+    
+    /**
+     * Read the next identifier for deletion. It is no longer returned by {@link #read()} and {@link #delete()}.
+     * 
+     * @return an existing identifier, or one that never exists with the configured miss ratio
+     */
+    public String delete() {
+        long slot = -1L;
+        if (!isMiss()) {
+            long sample = 0L;
+            for (int attempt = 0; attempt < MAX_ATTEMPTS && slot < 0; attempt++) {
+                sample = sample();
+                slot = live.remove(sample) ? sample : -1L;
+            }
+            
+            // Hardly any of the IDs created exists anymore
+            if (slot < 0) {
+                slot = live.removeNext(sample);
+            }
+        }
+        return slot < 0 ? miss() : format.format(getNumber(slot), length);
+    }
+    
+    /**
+     * Returns an identifier that could not be deleted, so that it is accessed again.
+     * 
+     * @param id the identifier, obtained from {@link #delete()}
+     */
+    public void restore(String id) {
+        long slot = getSlot(parse(id));
+        if (slot >= 0) {
+            live.add(slot);
+        }
+    }
+    
+    /**
+     * Marks an identifier as deleted.
+     * 
+     * @param id the identifier
+     */
+    public void deleted(String id) {
+        long slot = getSlot(parse(id));
+        if (slot >= 0) {
+            live.remove(slot);
+        }
+    }
+    
+    /**
+     * Returns the number of identifiers of this agent that currently exist.
+     * 
+     * @return the number
+     */
+    public long getNumLive() {
+        return live.size();
+    }
+    
+    /**
+     * Whether the next access should address an identifier that never exists.
+     * 
+     * @return {@code true} if nothing has been created yet or with the configured miss ratio
+     */
+    private boolean isMiss() {
+        return slots.get() == 0 || (missRatio > 0d && ThreadLocalRandom.current().nextDouble() < missRatio);
+    }
+    
+    /**
+     * Samples the slot of an identifier of this agent up to the highest one created, which
+     * may have been deleted since or not been handed out yet.
+     * 
+     * @return the slot
+     */
+    private long sample() {
+        return distribution.next(slots.get());
+    }
+    
+    /**
+     * Returns an identifier that never exists.
+     * 
+     * @return the identifier
+     */
+    private String miss() {
+        return format.format(ThreadLocalRandom.current().nextLong(MISS_BASE, Long.MAX_VALUE), length);
+    }
+    
+    /**
+     * Parses the number of an identifier.
+     * 
+     * @param id
+     * @return the number, -1 for IDs that are never created or that cannot be parsed, e.g., from a trace in a different format
+     */
+    private long parse(String id) {
+        try {
+            long number = format.parse(id);
+            return number >= MISS_BASE ? -1L : number;
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
     }
 }
@@ -0,0 +1,216 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent set of the numbers of records that currently exist, stored as a bitmap
+ * split into segments that are allocated on first use. This requires one bit per number,
+ * e.g., 500 MB for four billion records, and no objects per number. Adding, removing, and
+ * testing membership are lock free and take constant time, so that live keys can be sampled
+ * by rejection. Finding the next live key after a given one scans the bitmap.
+ * 
+ * @author Armin Müller
+ */
+public class LiveKeySet {
+    
+    /** Number of bits per segment, as power of two. */
+    private static final int SEGMENT_BITS_LOG = 16;
+    
+    /** Number of bits per segment. */
+    private static final long SEGMENT_BITS = 1L << SEGMENT_BITS_LOG;
+    
+    /** Number of words per segment. */
+    private static final int SEGMENT_WORDS = (int) (SEGMENT_BITS >>> 6);
+    
+    /** Segments, copied on growth, which is rare. Segments not used yet are null, segments are never replaced. */
+    private volatile AtomicLongArray[] segments = new AtomicLongArray[0];
+    
+    /** Number of live keys. */
+    private final LongAdder size = new LongAdder();
+    
+    /**
+     * Adds a key.
+     * 
+     * @param key non-negative
+     */
+    public void add(long key) {
+        AtomicLongArray segment = getSegment(key, true);
+        int word = (int) ((key & (SEGMENT_BITS - 1)) >>> 6);
+        long mask = 1L << key;
+        while (true) {
+            long current = segment.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+            if (segment.compareAndSet(word, current, current | mask)) {
+                size.increment();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Removes a key.
+     * 
+     * @param key non-negative
+     * @return {@code true} if the key was live and has been removed by this call
+     */
+    public boolean remove(long key) {
+        AtomicLongArray segment = getSegment(key, false);
+        if (segment == null) {
+            return false;
+        }
+        int word = (int) ((key & (SEGMENT_BITS - 1)) >>> 6);
+        long mask = 1L << key;
+        while (true) {
+            long current = segment.get(word);
+            if ((current & mask) == 0) {
+                return false;
+            }
+            if (segment.compareAndSet(word, current, current & ~mask)) {
+                size.decrement();
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Whether a key is live.
+     * 
+     * @param key non-negative
+     * @return {@code true} if the key has been added and not removed since
+     */
+    public boolean contains(long key) {
+        AtomicLongArray segment = getSegment(key, false);
+        return segment != null && (segment.get((int) ((key & (SEGMENT_BITS - 1)) >>> 6)) & (1L << key)) != 0;
+    }
+    
+    /**
+     * Returns the first live key at or after the given one, wrapping around at the end.
+     * 
+     * @param key the key to start from, non-negative
+     * @return a live key, -1 if there is none
+     */
+    public long next(long key) {
+        AtomicLongArray[] segments = this.segments;
+        long limit = (long) segments.length << SEGMENT_BITS_LOG;
+        if (limit == 0) {
+            return -1L;
+        }
+        long start = key < limit ? key : 0L;
+        long result = next(segments, start, limit);
+        return result >= 0 || start == 0 ? result : next(segments, 0L, start);
+    }
+    
+    /**
+     * Removes and returns the first live key at or after the given one, wrapping around at the end.
+     * Concurrent callers never obtain the same key.
+     * 
+     * @param key the key to start from, non-negative
+     * @return the removed key, -1 if there is none
+     */
+    public long removeNext(long key) {
+        while (true) {
+            long next = next(key);
+            if (next < 0 || remove(next)) {
+                return next;
+            }
+            key = next;
+        }
+    }
+    
+    /**
+     * Returns the number of live keys.
+     * 
+     * @return the number
+     */
+    public long size() {
+        return size.sum();
+    }
+    
+    /**
+     * Returns the first live key in [from, to).
+     * 
+     * @param segments
+     * @param from
+     * @param to
+     * @return the key, -1 if there is none
+     */
+    private static long next(AtomicLongArray[] segments, long from, long to) {
+        long word = from >>> 6;
+        long lastWord = (to - 1) >>> 6;
+        long bits = getWord(segments, word) & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                long result = (word << 6) + Long.numberOfTrailingZeros(bits);
+                return result < to ? result : -1L;
+            }
+            if (++word > lastWord) {
+                return -1L;
+            }
+            bits = getWord(segments, word);
+        }
+    }
+    
+    /**
+     * Returns a word of the bitmap.
+     * 
+     * @param segments
+     * @param word index of the word
+     * @return the word
+     */
+    private static long getWord(AtomicLongArray[] segments, long word) {
+        AtomicLongArray segment = segments[(int) (word / SEGMENT_WORDS)];
+        return segment == null ? 0L : segment.get((int) (word % SEGMENT_WORDS));
+    }
+    
+    /**
+     * Returns the segment containing the key.
+     * 
+     * @param key
+     * @param create whether to allocate the segment if it does not exist
+     * @return the segment, null if it does not exist and should not be created
+     */
+    private AtomicLongArray getSegment(long key, boolean create) {
+        int index = (int) (key >>> SEGMENT_BITS_LOG);
+        AtomicLongArray[] segments = this.segments;
+        if (index < segments.length && segments[index] != null) {
+            return segments[index];
+        } else if (!create) {
+            return null;
+        }
+        
+        // Grow and allocate
+        synchronized (this) {
+            segments = this.segments;
+            if (index >= segments.length) {
+                AtomicLongArray[] grown = new AtomicLongArray[Math.max(index + 1, segments.length * 2)];
+                System.arraycopy(segments, 0, grown, 0, segments.length);
+                segments = grown;
+            }
+            if (segments[index] == null) {
+                segments[index] = new AtomicLongArray(SEGMENT_WORDS);
+            }
+            this.segments = segments;
+            return segments[index];
+        }
+    }
+}
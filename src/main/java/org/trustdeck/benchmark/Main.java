@@ -21,19 +21,32 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.URISyntaxException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.ParseException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+
+import jdk.jfr.Recording;
 
 import org.trustdeck.benchmark.connector.ConnectorException;
 import org.trustdeck.benchmark.connector.ConnectorFactory;
+import org.trustdeck.benchmark.connector.ace.ACEConfiguration;
 import org.trustdeck.benchmark.connector.ace.ACEConnectorFactory;
 import org.trustdeck.benchmark.connector.ace.ACETokenManager;
-import org.yaml.snakeyaml.Yaml;
+import org.trustdeck.benchmark.connector.ace.ACETokenMetrics;
+import org.trustdeck.benchmark.connector.ace.HTTPClientManager;
+import org.trustdeck.benchmark.connector.ace.HTTPPhaseMetrics;
+import org.trustdeck.benchmark.connector.memory.InMemoryConnectorFactory;
+import org.trustdeck.benchmark.connector.noop.NoOpConnectorFactory;
+import org.trustdeck.benchmark.mock.MockACEServer;
+import org.trustdeck.benchmark.mock.MockConfiguration;
+import org.trustdeck.benchmark.trace.TraceReader;
+import org.trustdeck.benchmark.trace.TraceRecorder;
+import org.trustdeck.benchmark.workload.AccessLogProfile;
+import org.trustdeck.benchmark.workload.AccessLogWorkload;
 
 /**
  * Main class of the benchmark driver.
@@ -42,63 +55,74 @@ import org.yaml.snakeyaml.Yaml;
  */
 public class Main {
 
-    public static void main(String[] args) throws URISyntaxException, IOException, ConnectorException {
-    	
-    	// Load configuration from file
-        Yaml yaml = new Yaml();
-        InputStream inputStream = Main.class.getClassLoader().getResourceAsStream("config.yaml");
-        Map<String, Object> yamlConfig = yaml.load(inputStream);
+    /** Connector talking to ACE via HTTP. */
+    private static final String CONNECTOR_ACE = "ace";
 
-        // Extract the benchmark configuration from the loaded configuration file
-        @SuppressWarnings("unchecked")
-		Map<String, Object> benchmarkConfig = (Map<String, Object>) yamlConfig.get("benchmark");
-        final int INITIAL_DB_SIZE = (int) benchmarkConfig.get("initialDbSize");
-        final int MAX_TIME = (int) benchmarkConfig.get("maxTime");
-        final int REPORTING_INTERVAL = (int) benchmarkConfig.get("reportingInterval");
-        final boolean REPORT_DB_SPACE = (boolean) benchmarkConfig.get("reportDbSpace");
-        final int REPORTING_INTERVAL_DB_SPACE = (int) benchmarkConfig.get("reportingIntervalDbSpace");
-        final int NUM_THREADS = (int) benchmarkConfig.get("numThreads");
-        final int NUMBER_OF_REPETITIONS = (int) benchmarkConfig.get("numberOfRepetitions");
+    /** Connector performing no work, to measure the driver's own overhead. */
+    private static final String CONNECTOR_NOOP = "noop";
 
-        // Extract the scenario configurations from the loaded configuration file
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> scenarios = (List<Map<String, Object>>) benchmarkConfig.get("scenarios");
+    /** Connector operating on an in-process map, to measure the driver's own overhead. */
+    private static final String CONNECTOR_MEMORY = "memory";
 
-        // Create configs
-        List<Configuration> configs = new ArrayList<>();
-        for (Map<String, Object> scenario : scenarios) {
-            String name = (String) scenario.get("name");
-            int createRate = scenario.containsKey("createRate") ? (int) scenario.get("createRate") : 0;
-            int readRate = scenario.containsKey("readRate") ? (int) scenario.get("readRate") : 0;
-            int updateRate = scenario.containsKey("updateRate") ? (int) scenario.get("updateRate") : 0;
-            int deleteRate = scenario.containsKey("deleteRate") ? (int) scenario.get("deleteRate") : 0;
-            int pingRate = scenario.containsKey("pingRate") ? (int) scenario.get("pingRate") : 0;
+    /** Maximal time to wait for a worker to finish its current operation, in milliseconds. */
+    private static final long WORKER_SHUTDOWN_TIMEOUT = 10000L;
 
-            for (int i = 0; i < NUMBER_OF_REPETITIONS; i++) {
-                configs.add(Configuration.builder()
-                        .setCreateRate(createRate)
-                        .setReadRate(readRate)
-                        .setUpdateRate(updateRate)
-                        .setDeleteRate(deleteRate)
-                        .setPingRate(pingRate)
-                        .setInitialDBSize(INITIAL_DB_SIZE)
-                        .setMaxTime(MAX_TIME)
-                        .setName(name + "-" + NUM_THREADS + "-threads")
-                        .setNumThreads(NUM_THREADS)
-                        .setReportingInterval(REPORTING_INTERVAL)
-                        .setReportingIntervalDBSpace(REPORTING_INTERVAL_DB_SPACE)
-                        .setReportDBSpace(REPORT_DB_SPACE)
-                        .build());
-            }
-        }
+    /**
+     * Runs the benchmark.
+     * 
+     * @param args optional path to the configuration file, defaults to the config.yaml on the classpath
+     * @throws IOException
+     * @throws ConnectorException
+     */
+    public static void main(String[] args) throws IOException, ConnectorException {
+    	
+    	// Load configuration from file, exactly once
+        ConfigurationSection root = ConfigurationLoader.load(args.length > 0 ? args[0] : null);
+        List<Configuration> configs = ConfigurationLoader.getConfigurations(root);
+        String connector = root.getSection("benchmark").getString("connector", CONNECTOR_ACE);
 
         // Some logging
         System.out.println("\n++++++++++++++++++++++++++++ ACE Benchmark ++++++++++++++++++++++++++++\n");
         
+        // Create connector factory
+        MockACEServer mock = null;
+        ConnectorFactory factory;
+        switch (connector) {
+        case CONNECTOR_ACE:
+            ACEConfiguration aceConfig = ACEConfiguration.fromSection(root);
+            
+            // Start the local stand-in, if enabled, and redirect all requests to it
+            if (MockConfiguration.isEnabled(root)) {
+                mock = new MockACEServer(MockConfiguration.fromSection(root));
+                mock.start();
+                aceConfig = aceConfig.withEndpoints(mock.getServiceURI(), mock.getKeycloakURI());
+                System.out.println(" - Started mock server at " + mock.getServiceURI() + "\n");
+            }
+            
+            // Authenticate
+            System.out.print("\r - Initialize authentication                      ");
+            ACETokenManager.getInstance().initialize(aceConfig);
+            System.out.println("\r - Initialize authentication\t\t\t\t\t[DONE]\n");
+            factory = new ACEConnectorFactory(aceConfig);
+            break;
+        case CONNECTOR_NOOP:
+            factory = new NoOpConnectorFactory();
+            break;
+        case CONNECTOR_MEMORY:
+            factory = new InMemoryConnectorFactory();
+            break;
+        default:
+            throw new IllegalStateException("Unknown connector '" + connector + "' at 'benchmark.connector', expected one of: " + CONNECTOR_ACE + ", " + CONNECTOR_NOOP + ", " + CONNECTOR_MEMORY);
+        }
+        
         // Execute
-        ConnectorFactory factory = new ACEConnectorFactory();
         for (Configuration config : configs) {
-            execute(config, factory);
+            execute(config, connector, factory);
+        }
+        
+        // Stop the local stand-in
+        if (mock != null) {
+            mock.stop();
         }
     }
     
@@ -106,16 +130,18 @@ public class Main {
      * Executes a configuration.
      * 
      * @param config The configuration object that should be used to run the benchmark
+     * @param connector Name of the connector
      * @param factory Connector factory
      * @throws IOException
-     * @throws URISyntaxException
      * @throws ConnectorException 
      */
     private static final void execute(Configuration config,
+                                      String connector,
                                       ConnectorFactory factory) throws IOException, ConnectorException {
         // Identifiers
         System.out.print("\r - Preparing benchmark: creating identifiers                      ");
-        Identifiers identifiers = new Identifiers();
+        Identifiers identifiers = new Identifiers(config.getKeyDistribution(), config.getMissRatio(), config.getAgentId(), config.getAgentCount(),
+                                                  config.getIdentifierFormat(), config.getIdentifierLength());
         System.out.println("\r - Preparing benchmark: creating identifiers\t\t\t[DONE]");
 
         // Statistics
@@ -123,16 +149,31 @@ public class Main {
         Statistics statistics = new Statistics(config);
         System.out.println("\r - Preparing benchmark: creating statistics\t\t\t[DONE]");
         
+        // Traces
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss"));
+        TraceReader replay = config.getReplayTrace() != null ? new TraceReader(new File(config.getReplayTrace())) : null;
+        TraceRecorder recorder = config.isRecordTrace() ? new TraceRecorder(new File(config.getName() + "_TRACE-" + timestamp + ".trace"),
+                                                                            replay != null ? replay.getInitialDBSize() : config.getInitialDBSize()) : null;
+        
+        // Access log, whose skew across domains is reproduced
+        AccessLogWorkload workload = null;
+        Domains domains = Domains.of(config.getDomainDistribution(), config.getDomainCount(), config.getAgentId(), config.getAgentCount());
+        if (config.getAccessLog() != null) {
+            System.out.print("\r - Preparing benchmark: analyzing access log                      ");
+            AccessLogProfile profile = AccessLogProfile.load(config.getAccessLog());
+            workload = new AccessLogWorkload(config.getAccessLog(), profile);
+            System.out.println("\r - Preparing benchmark: analyzing access log\t\t\t[DONE]");
+            System.out.println("   - Operations: " + profile.getNumOperations() + ", skipped lines: " + profile.getNumSkipped() + ", windows: " + profile.getWindows().size() + ", domains: " + profile.getDomains().size() + " (busiest: " + (int) (profile.getBusiestDomainShare() * 100d) + " %)");
+            if (config.getDomainCount() > 1 && !profile.getDomains().isEmpty()) {
+                domains = new Domains(profile.getDomainWeights(config.getDomainCount()), config.getAgentId(), config.getAgentCount());
+            }
+        }
+        
         // Provider
         System.out.print("\r - Preparing benchmark: creating work provider                      ");
-        WorkProvider provider = new WorkProvider(config, identifiers, statistics, factory);
+        WorkProvider provider = new WorkProvider(config, identifiers, statistics, factory, domains, recorder, replay, workload);
         System.out.println("\r - Preparing benchmark: creating work provider\t\t\t[DONE]");
         
-        // Authenticate
-        System.out.print("\r - Preparing benchmark: initialize authentication                      ");
-        ACETokenManager.getInstance().initialize();
-        System.out.println("\r - Preparing benchmark: initialize authentication\t\t[DONE]");
-        
         // Prepare
         System.out.print("\r - Preparing benchmark: purge database and re-initialize        ");
         provider.prepare();
@@ -144,17 +185,43 @@ public class Main {
         // Some logging
         System.out.println("\n - Executing configuration: " + config.getName());
         
+        // Flight recording, covering the measured run only
+        Recording recording = config.getFlightRecording() != null ? startFlightRecording(config.getFlightRecording(), new File(config.getName() + "_RECORDING-" + timestamp + ".jfr")) : null;
+        
         // Start workers
         statistics.start();
+        provider.start();
+        ACETokenMetrics authMetrics = CONNECTOR_ACE.equals(connector) ? ACETokenManager.getInstance().getMetrics() : null;
+        if (authMetrics != null) {
+            authMetrics.start(statistics.getStartTime());
+        }
+        HTTPPhaseMetrics httpMetrics = CONNECTOR_ACE.equals(connector) ? HTTPClientManager.getPhaseMetrics() : null;
+        if (httpMetrics != null) {
+            httpMetrics.start(statistics.getStartTime());
+        }
+        List<Worker> workers = new ArrayList<>();
         for (int i = 0; i < config.getNumThreads(); i++) {
-            new Worker(provider).start();
+            Worker worker = new Worker(provider);
+            workers.add(worker);
+            worker.start();
         }
         
         // Some logging
         System.out.println("   - Number of workers launched: " + config.getNumThreads());
+        System.out.println("   - Key distribution: " + config.getKeyDistribution().getName());
+        if (config.getArrivalRates() != null) {
+            System.out.println("   - Arrival rates: " + (int) config.getArrivalRates().getTotalRate() + " operations per second in total");
+        }
+        if (config.getDomainCount() > 1) {
+            System.out.println("   - Domains: " + domains.getCount() + " (busiest: " + (int) (domains.getShare(0) * 100d) + " %)");
+        }
+        System.out.println("   - Identifier format: " + config.getIdentifierFormat().getLabel() + " (length " + config.getIdentifierLength() + ")");
         
         // Files to write to
         BufferedWriter writer = new BufferedWriter(new FileWriter(new File(config.getName() + "-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss")) + ".csv")));
+        BufferedWriter authWriter = authMetrics != null ? new BufferedWriter(new FileWriter(new File(config.getName() + "_AUTH-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss")) + ".csv"))) : null;
+        BufferedWriter httpWriter = httpMetrics != null ? new BufferedWriter(new FileWriter(new File(config.getName() + "_HTTP-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss")) + ".csv"))) : null;
+        BufferedWriter domainWriter = config.getDomainCount() > 1 ? new BufferedWriter(new FileWriter(new File(config.getName() + "_DOMAINS-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss")) + ".csv"))) : null;
         BufferedWriter dbWriter = config.isReportDBSpace() ? new BufferedWriter(new FileWriter(new File(config.getName() + "_DB_STORAGE-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss")) + ".csv"))) : null;
         
         // Event and logging loop
@@ -162,14 +229,29 @@ public class Main {
             
             // Reporting
             if (System.currentTimeMillis() - statistics.getLastTime() >= config.getReportingInterval()) {
-                statistics.report(writer);
+                statistics.report(writer, workers);
                 writer.flush();
+                if (authMetrics != null) {
+                    authMetrics.report(authWriter);
+                    authWriter.flush();
+                }
+                if (httpMetrics != null) {
+                    httpMetrics.report(httpWriter);
+                    httpWriter.flush();
+                }
+                if (domainWriter != null) {
+                    statistics.reportDomains(domainWriter);
+                    domainWriter.flush();
+                }
                 
                 // Calculate Progress
                 double progress = (double)((int)(((double)(System.currentTimeMillis() - statistics.getStartTime())/(double)config.getMaxTime()) * 1000d))/10d;
                 
                 // Print progress
-                System.out.print("\r   - Progress: " + progress + " % (currently " + statistics.getLastOverallTPS() + " TPS)       ");
+                String health = statistics.getLastWorkersBlocked() > 0 || statistics.getLastWorkersAlive() < workers.size() ? 
+                                ", " + statistics.getLastWorkersBlocked() + " blocked and " + (workers.size() - statistics.getLastWorkersAlive()) + " dead workers" : "";
+                health += statistics.getTelemetry().isLastSaturated() ? ", client saturated" : "";
+                System.out.print("\r   - Progress: " + progress + " % (currently " + statistics.getLastOverallTPS() + " TPS, " + statistics.getLastOverallGoodput() + " goodput" + health + ")       ");
             }
             
             // Reporting DB storage size
@@ -184,6 +266,12 @@ public class Main {
                 break;
             }
             
+            // End of replayed trace or access log
+            if (provider.isExhausted()) {
+                System.out.println("\r   - Progress: end of trace                      ");
+                break;
+            }
+            
             // Sleep
             try {
                 Thread.sleep(100); // 0.1 second
@@ -197,8 +285,54 @@ public class Main {
             }
         }
         
+        // Report the driver's own overhead, while the workers are still alive
+        BufferedWriter overheadWriter = new BufferedWriter(new FileWriter(new File(config.getName() + "_OVERHEAD-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss")) + ".csv")));
+        statistics.reportClientOverhead(overheadWriter, connector, getCpuTime(workers));
+        overheadWriter.close();
+        if (statistics.getTelemetry().getNumSaturatedIntervals() > 0) {
+            System.out.println("   - Warning: the client was saturated in " + statistics.getTelemetry().getNumSaturatedIntervals() + " intervals, the results may be limited by the client");
+        }
+        
+        // Stop workers, so that they do not interfere with the next configuration
+        for (Worker worker : workers) {
+            worker.interrupt();
+        }
+        provider.stop();
+        for (Worker worker : workers) {
+            try {
+                worker.join(WORKER_SHUTDOWN_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        
+        // Stop the flight recording, which dumps it to its destination
+        if (recording != null) {
+            recording.stop();
+            recording.close();
+            System.out.println("   - Flight recording written to: " + recording.getDestination());
+        }
+        
+        // Close traces
+        if (recorder != null) {
+            recorder.close();
+        }
+        if (replay != null) {
+            replay.close();
+        }
+        
         // Close writer
         writer.close();
+        if (authWriter != null) {
+            authWriter.close();
+        }
+        if (httpWriter != null) {
+            httpWriter.close();
+        }
+        if (domainWriter != null) {
+            domainWriter.close();
+        }
         if (config.isReportDBSpace()) {
         	dbWriter.close();
         }
@@ -207,6 +341,50 @@ public class Main {
         factory.shutdown();
         
         // Some logging
+        System.out.println("   - Records at the end of the run: " + identifiers.getNumLive());
         System.out.println(" - Done\n");
     }
+    
+    /**
+     * Starts a flight recording.
+     * 
+     * @param settings predefined settings, e.g. "default" or "profile", or a path to a .jfc file
+     * @param destination file the recording is written to when stopped
+     * @return the started recording
+     * @throws IOException
+     */
+    private static Recording startFlightRecording(String settings, File destination) throws IOException {
+        try {
+            File file = new File(settings);
+            jdk.jfr.Configuration configuration = file.isFile() ? jdk.jfr.Configuration.create(file.toPath()) : jdk.jfr.Configuration.getConfiguration(settings);
+            Recording recording = new Recording(configuration);
+            recording.setName(destination.getName());
+            recording.setDestination(destination.toPath());
+            recording.start();
+            return recording;
+        } catch (ParseException e) {
+            throw new IOException("Unable to parse flight recorder settings: " + settings, e);
+        }
+    }
+    
+    /**
+     * Returns the CPU time consumed by the given threads.
+     * 
+     * @param workers
+     * @return CPU time in nanoseconds, 0 if not supported by the JVM
+     */
+    private static long getCpuTime(List<Worker> workers) {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!bean.isThreadCpuTimeSupported()) {
+            return 0L;
+        }
+        long total = 0L;
+        for (Worker worker : workers) {
+            long time = bean.getThreadCpuTime(worker.getId());
+            if (time > 0L) {
+                total += time;
+            }
+        }
+        return total;
+    }
 }
@@ -0,0 +1,71 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a single benchmark operation. The event starts when the first
+ * request is sent and ends when the operation completes, including retries. Allows to
+ * correlate slow operations with garbage collection, safepoints, socket reads, or lock
+ * contention. Costs next to nothing while no recording is running.
+ * 
+ * @author Armin Müller
+ */
+@Name("org.trustdeck.benchmark.Operation")
+@Label("Benchmark Operation")
+@Category({"ACE Benchmark"})
+@Description("An operation issued by a benchmark worker")
+@StackTrace(false)
+class OperationEvent extends Event {
+    
+    /** Type of work. */
+    @Label("Type")
+    String type;
+    
+    /** Hash of the identifier, 0 for pings and domain operations. */
+    @Label("Identifier Hash")
+    int identifierHash;
+    
+    /** Index of the domain, -1 for pings. */
+    @Label("Domain")
+    int domain;
+    
+    /** Outcome of the last attempt. */
+    @Label("Outcome")
+    String outcome;
+    
+    /** Status code of the last attempt, 0 if no response was received or the connector does not use HTTP. */
+    @Label("Status Code")
+    int statusCode;
+    
+    /** Number of requests sent. */
+    @Label("Attempts")
+    int attempts;
+    
+    /** Time between handing the operation to the worker, or when it was due if replayed, and sending the first request. */
+    @Label("Queue Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long queueTime;
+}
@@ -0,0 +1,197 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+import org.trustdeck.benchmark.connector.Outcome;
+
+import lombok.Getter;
+
+/**
+ * Policy for retrying failed requests, as clients of the service would. Between two
+ * attempts, the client backs off exponentially, with a random share of the delay
+ * removed (jitter) so that clients failing together do not retry together.
+ * 
+ * @author Armin Müller
+ */
+@Getter
+public class RetryPolicy {
+    
+    /** Policy that never retries. */
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0L, 0L, 1d, 0d, Collections.emptySet(), EnumSet.noneOf(Outcome.class));
+    
+    /** Failures retried if nothing else is configured. */
+    private static final List<String> DEFAULT_RETRY_ON = Arrays.asList("429", "5xx", "timeout", "connection error");
+    
+    /** Maximal number of attempts per operation, including the first one. */
+    private final int maxAttempts;
+    
+    /** Delay before the first retry in milliseconds. */
+    private final long initialBackoff;
+    
+    /** Maximal delay between two attempts in milliseconds. */
+    private final long maxBackoff;
+    
+    /** Factor by which the delay grows with each retry. */
+    private final double multiplier;
+    
+    /** Share of the delay that is randomly removed, in [0, 1]. */
+    private final double jitter;
+    
+    /** Status codes that are retried. */
+    private final Set<Integer> statusCodes;
+    
+    /** Outcomes that are retried, regardless of the status code. */
+    private final Set<Outcome> outcomes;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param maxAttempts maximal number of attempts, including the first one
+     * @param initialBackoff delay before the first retry in milliseconds
+     * @param maxBackoff maximal delay in milliseconds
+     * @param multiplier factor by which the delay grows
+     * @param jitter share of the delay that is randomly removed
+     * @param statusCodes status codes that are retried
+     * @param outcomes outcomes that are retried
+     */
+    public RetryPolicy(int maxAttempts, long initialBackoff, long maxBackoff, double multiplier, double jitter, 
+                       Set<Integer> statusCodes, Set<Outcome> outcomes) {
+        // Checks
+        if (maxAttempts < 1) {
+            throw new IllegalStateException("The maximal number of attempts must be at least one!");
+        }
+        if (initialBackoff < 0L || maxBackoff < initialBackoff) {
+            throw new IllegalStateException("Backoffs must be zero or positive and the maximal backoff at least the initial one!");
+        }
+        if (multiplier < 1d) {
+            throw new IllegalStateException("The backoff multiplier must be at least one!");
+        }
+        if (jitter < 0d || jitter > 1d) {
+            throw new IllegalStateException("Jitter must be between zero and one!");
+        }
+        if (outcomes.contains(Outcome.SUCCESS)) {
+            throw new IllegalStateException("Successful requests cannot be retried!");
+        }
+        
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.statusCodes = statusCodes;
+        this.outcomes = outcomes;
+    }
+    
+    /**
+     * Creates the policies per work type from a "retry" section. The section defines the policy
+     * of all types, optionally overridden by a subsection per type, e.g., "read" or "createDomain".
+     * 
+     * @param section the section
+     * @return the policies, indexed by the work types' ordinals
+     */
+    public static RetryPolicy[] fromSection(ConfigurationSection section) {
+        RetryPolicy defaults = fromSection(section, new RetryPolicy(3, 100L, 10000L, 2d, 1d, Collections.emptySet(), EnumSet.noneOf(Outcome.class)), DEFAULT_RETRY_ON);
+        WorkType[] types = WorkType.values();
+        RetryPolicy[] policies = new RetryPolicy[types.length];
+        for (int i = 0; i < types.length; i++) {
+            policies[i] = section.contains(types[i].getKey()) ? fromSection(section.getSection(types[i].getKey()), defaults, null) : defaults;
+        }
+        return policies;
+    }
+    
+    /**
+     * Creates a policy from a section, with missing values taken from the given policy.
+     * 
+     * @param section the section
+     * @param defaults the policy providing missing values
+     * @param retryOn failures to retry if none are configured, null to keep those of the defaults
+     * @return the policy
+     */
+    private static RetryPolicy fromSection(ConfigurationSection section, RetryPolicy defaults, List<String> retryOn) {
+        Set<Integer> statusCodes = defaults.statusCodes;
+        Set<Outcome> outcomes = defaults.outcomes;
+        List<String> failures = section.contains("retryOn") ? section.getStrings("retryOn") : retryOn;
+        if (failures != null) {
+            statusCodes = new HashSet<>();
+            outcomes = EnumSet.noneOf(Outcome.class);
+            for (String failure : failures) {
+                if (failure.matches("[0-9]+")) {
+                    statusCodes.add(Integer.parseInt(failure));
+                } else {
+                    outcomes.add(getOutcome(failure));
+                }
+            }
+        }
+        return new RetryPolicy(section.getInt("maxAttempts", defaults.maxAttempts),
+                               section.getLong("initialBackoff", defaults.initialBackoff),
+                               section.getLong("maxBackoff", defaults.maxBackoff),
+                               section.getDouble("multiplier", defaults.multiplier),
+                               section.getDouble("jitter", defaults.jitter),
+                               statusCodes,
+                               outcomes);
+    }
+    
+    /**
+     * Returns the outcome with the given label.
+     * 
+     * @param label
+     * @return the outcome
+     */
+    private static Outcome getOutcome(String label) {
+        for (Outcome outcome : Outcome.values()) {
+            if (outcome.getLabel().equals(label)) {
+                return outcome;
+            }
+        }
+        throw new IllegalStateException("Unknown failure to retry on: '" + label + "'!");
+    }
+    
+    /**
+     * Whether a failed attempt is retried.
+     * 
+     * @param outcome the outcome of the attempt
+     * @param statusCode the status code returned by the service, 0 if none was received
+     * @param attempt the number of the attempt, starting at one
+     * @return {@code true} if another attempt should be made
+     */
+    public boolean isRetried(Outcome outcome, int statusCode, int attempt) {
+        return attempt < maxAttempts && outcome != Outcome.SUCCESS && 
+               (outcomes.contains(outcome) || statusCodes.contains(statusCode));
+    }
+    
+    /**
+     * Returns the delay before the next attempt. Thread safe.
+     * 
+     * @param attempt the number of the failed attempt, starting at one
+     * @return the delay in nanoseconds
+     */
+    public long getBackoff(int attempt) {
+        double delay = Math.min((double) maxBackoff, initialBackoff * Math.pow(multiplier, attempt - 1));
+        delay *= 1d - jitter * ThreadLocalRandom.current().nextDouble();
+        return (long) (delay * 1000000d);
+    }
+}
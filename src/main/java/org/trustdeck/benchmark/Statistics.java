@@ -19,9 +19,13 @@ package org.trustdeck.benchmark;
 
 import java.io.IOException;
 import java.io.Writer;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
 import org.trustdeck.benchmark.connector.ConnectorException;
+import org.trustdeck.benchmark.connector.Outcome;
 
 import lombok.Getter;
 
@@ -32,27 +36,24 @@ import lombok.Getter;
  */
 public class Statistics {
 
+    /** Work types, in reporting order. */
+    private static final WorkType[] TYPES = WorkType.values();
+    
+    /** Outcomes, in reporting order. */
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
     /** The configuration object. */
     private final Configuration config;
+    
+    /** Work types with per-type columns, domain-management operations only if they are issued, so that the other columns keep their positions. */
+    private final WorkType[] reported;
 
     /** The start time of the benchmark run. */
     @Getter
     private long startTime;
 
-    /** Atomic number of creates. */
-    private final AtomicInteger creates = new AtomicInteger();
-    
-    /** Atomic number of reads. */
-    private final AtomicInteger reads   = new AtomicInteger();
-    
-    /** Atomic number of updates. */
-    private final AtomicInteger updates = new AtomicInteger();
-    
-    /** Atomic number of deletes. */
-    private final AtomicInteger deletes = new AtomicInteger();
-    
-    /** Atomic number of pings. */
-    private final AtomicInteger pings 	= new AtomicInteger();
+    /** Number of completed operations per work type and outcome. */
+    private final LongAdder[][] counters = new LongAdder[TYPES.length][OUTCOMES.length];
 
     /** Last time the statistics were gathered. */
     @Getter
@@ -62,27 +63,88 @@ public class Statistics {
     @Getter
     private long lastTimeDB = 0;
     
-    /** Number of creates from last statistic-gathering. */
-    private int lastCreates = 0;
+    /** Number of operations per work type and outcome from last statistic-gathering. */
+    private final long[][] lastCounters = new long[TYPES.length][OUTCOMES.length];
+    
+    /** Number of requests sent in addition to the first attempt of each operation, per work type. */
+    private final LongAdder[] retries = new LongAdder[TYPES.length];
+    
+    /** Number of retries per work type from last statistic-gathering. */
+    private final long[] lastRetries = new long[TYPES.length];
+    
+    /** Number of operations issued at an arrival rate that started after the next one of their type was due, per work type. */
+    private final LongAdder[] late = new LongAdder[TYPES.length];
+    
+    /** Number of late operations per work type from last statistic-gathering. */
+    private final long[] lastLate = new long[TYPES.length];
+    
+    /** Number of operations issued at an arrival rate that were dropped because too many were waiting for a worker, per work type. */
+    private final LongAdder[] missed = new LongAdder[TYPES.length];
+    
+    /** Number of missed operations per work type from last statistic-gathering. */
+    private final long[] lastMissed = new long[TYPES.length];
+    
+    /** Latencies of operations per work type in nanoseconds. */
+    private final Histogram[] latencies = new Histogram[TYPES.length];
     
-    /** Number of reads from last statistic-gathering */
-    private int lastReads = 0;
+    /** Latencies of operations per work type from last statistic-gathering. */
+    private final long[][] lastLatencies = new long[TYPES.length][];
     
-    /** Number of updates from last statistic-gathering */
-    private int lastUpdates = 0;
+    /** Durations of completed sessions in nanoseconds. */
+    private final Histogram sessions = new Histogram();
     
-    /** Number of deletes from last statistic-gathering */
-    private int lastDeletes = 0;
+    /** Time until operations timed out in nanoseconds, with a single stripe, as timeouts are rare. */
+    private final Histogram timeouts = new Histogram(1);
     
-    /** Number of pings from last statistic-gathering */
-    private int lastPings = 0;
+    /** Time until operations timed out from last statistic-gathering. */
+    private long[] lastTimeouts;
     
-    /** Number of combined creates, reads, updates, and deletes from last statistic-gathering */
-    private int lastCRUDs = 0;
+    /** Durations of completed sessions from last statistic-gathering. */
+    private long[] lastSessions;
+    
+    /** Number of completed operations per domain. */
+    private final LongAdder[] domainCounters;
+    
+    /** Number of operations per domain that succeeded or returned an expected 404. */
+    private final LongAdder[] domainGood;
+    
+    /** Latencies of operations per domain in nanoseconds. */
+    private final Histogram[] domainLatencies;
+    
+    /** Last time the domain statistics were gathered. */
+    private long lastTimeDomains = 0;
+    
+    /** Number of operations per domain from last domain statistic-gathering. */
+    private final long[] lastDomainCounters;
+    
+    /** Number of good operations per domain from last domain statistic-gathering. */
+    private final long[] lastDomainGood;
+    
+    /** Latencies of operations per domain from last domain statistic-gathering. */
+    private final long[][] lastDomainLatencies;
+    
+    /** Number of operations per work type from last database statistic-gathering. */
+    private final long[] lastCountersDB = new long[TYPES.length];
     
     /** Number of transactions per second in the last reporting step. */
     @Getter
     private int lastOverallTPS = 0;
+    
+    /** Number of transactions per second that succeeded or returned an expected 404 in the last reporting step. */
+    @Getter
+    private int lastOverallGoodput = 0;
+    
+    /** Resource consumption of the client. */
+    @Getter
+    private final ClientTelemetry telemetry = new ClientTelemetry();
+    
+    /** Number of workers alive in the last reporting step. */
+    @Getter
+    private int lastWorkersAlive = 0;
+    
+    /** Number of workers blocked in a single operation during the last reporting step. */
+    @Getter
+    private int lastWorkersBlocked = 0;
    
     /**
      * Creates a new instance.
@@ -91,66 +153,155 @@ public class Statistics {
      */
     public Statistics(Configuration configuration) {
         this.config = configuration;
+        this.reported = Arrays.stream(TYPES).filter(type -> !type.isDomainOperation() || configuration.isManagingDomains()).toArray(WorkType[]::new);
+        for (int type = 0; type < TYPES.length; type++) {
+            for (int outcome = 0; outcome < OUTCOMES.length; outcome++) {
+                this.counters[type][outcome] = new LongAdder();
+            }
+            this.retries[type] = new LongAdder();
+            this.late[type] = new LongAdder();
+            this.missed[type] = new LongAdder();
+            this.latencies[type] = new Histogram();
+            this.lastLatencies[type] = this.latencies[type].snapshot();
+        }
+        this.lastSessions = this.sessions.snapshot();
+        this.lastTimeouts = this.timeouts.snapshot();
+        
+        // Per domain, with one stripe each, as the domains already spread contention
+        int domains = configuration.getDomainCount();
+        this.domainCounters = new LongAdder[domains];
+        this.domainGood = new LongAdder[domains];
+        this.domainLatencies = new Histogram[domains];
+        this.lastDomainCounters = new long[domains];
+        this.lastDomainGood = new long[domains];
+        this.lastDomainLatencies = new long[domains][];
+        for (int domain = 0; domain < domains; domain++) {
+            this.domainCounters[domain] = new LongAdder();
+            this.domainGood[domain] = new LongAdder();
+            this.domainLatencies[domain] = new Histogram(1);
+            this.lastDomainLatencies[domain] = this.domainLatencies[domain].snapshot();
+        }
     }
     
     /**
      * Performance tracking. Thread safe.
+     * 
+     * @param type the type of the completed operation
+     * @param domain the index of the domain addressed, -1 for none
+     * @param outcome the classified result of the operation
+     * @param latency the latency of the operation in nanoseconds
      */
-    public void addCreate() {
-        this.creates.incrementAndGet();
+    public void add(WorkType type, int domain, Outcome outcome, long latency) {
+        this.counters[type.ordinal()][outcome.ordinal()].increment();
+        this.latencies[type.ordinal()].record(latency);
+        if (outcome == Outcome.TIMEOUT) {
+            this.timeouts.record(latency);
+        }
+        if (domain >= 0) {
+            this.domainCounters[domain].increment();
+            if (outcome.isGood(type)) {
+                this.domainGood[domain].increment();
+            }
+            this.domainLatencies[domain].record(latency);
+        }
     }
     
     /**
-     * Performance tracking. Thread safe.
+     * Retry tracking. Thread safe.
+     * 
+     * @param type the type of the operation
+     * @param retries the number of requests sent in addition to the first one
      */
-    public void addDelete() {
-        this.deletes.incrementAndGet();
+    public void addRetries(WorkType type, int retries) {
+        this.retries[type.ordinal()].add(retries);
     }
     
     /**
-     * Performance tracking. Thread safe.
+     * Tracking of operations issued at an arrival rate that started late. Thread safe.
+     * 
+     * @param type the type of the operation
      */
-    public void addRead() {
-        this.reads.incrementAndGet();
+    public void addLate(WorkType type) {
+        this.late[type.ordinal()].increment();
     }
     
     /**
-     * Performance tracking. Thread safe.
+     * Tracking of operations issued at an arrival rate that were dropped. Thread safe.
+     * 
+     * @param type the type of the operation
      */
-    public void addUpdate() {
-        this.updates.incrementAndGet();
+    public void addMissed(WorkType type) {
+        this.missed[type.ordinal()].increment();
     }
     
     /**
-     * Performance tracking. Thread safe.
+     * Session tracking. Thread safe.
+     * 
+     * @param duration the time from the start of the session to the completion of its last operation in nanoseconds
      */
-    public void addPing() {
-        this.pings.incrementAndGet();
+    public void addSession(long duration) {
+        this.sessions.record(duration);
     }
 
     /**
-     * Reporting. NOT thread safe.
+     * Reporting. NOT thread safe. Workers are reported as blocked if they have
+     * spent the whole reporting interval within a single operation.
      * 
+     * @param writer
+     * @param workers the workers launched
      * @throws IOException 
      */
-    public void report(Writer writer) throws IOException {
+    public void report(Writer writer, List<Worker> workers) throws IOException {
         
         // Collect data
         long currentTime = System.currentTimeMillis();
-        int currentCreates = creates.get();
-        int currentReads = reads.get(); 
-        int currentUpdates = updates.get();
-        int currentDeletes = deletes.get();
-        int currentPings = pings.get();
-        int currentCRUDs = currentCreates + currentReads + currentUpdates + currentDeletes + currentPings;
+        long[][] currentCounters = new long[TYPES.length][OUTCOMES.length];
+        for (int type = 0; type < TYPES.length; type++) {
+            for (int outcome = 0; outcome < OUTCOMES.length; outcome++) {
+                currentCounters[type][outcome] = counters[type][outcome].sum();
+            }
+        }
+        long[][] currentLatencies = new long[TYPES.length][];
+        for (int type = 0; type < TYPES.length; type++) {
+            currentLatencies[type] = latencies[type].snapshot();
+        }
+        long[] currentSessions = sessions.snapshot();
+        long[] currentTimeouts = timeouts.snapshot();
+        long[] currentRetries = new long[TYPES.length];
+        long[] currentLate = new long[TYPES.length];
+        long[] currentMissed = new long[TYPES.length];
+        for (int type = 0; type < TYPES.length; type++) {
+            currentRetries[type] = retries[type].sum();
+            currentLate[type] = late[type].sum();
+            currentMissed[type] = missed[type].sum();
+        }
+        int alive = 0;
+        int blocked = 0;
+        for (Worker worker : workers) {
+            alive += worker.isAlive() ? 1 : 0;
+            blocked += worker.isAlive() && worker.isBlocked(config.getReportingInterval() * 1000000L) ? 1 : 0;
+        }
         
         // Derive parameters
-        double tpsCreate = (double)(currentCreates - lastCreates) / (double)(currentTime - lastTime) * 1000d;
-        double tpsRead = (double)(currentReads - lastReads) / (double)(currentTime - lastTime) * 1000d;
-        double tpsUpdate = (double)(currentUpdates - lastUpdates) / (double)(currentTime - lastTime) * 1000d;
-        double tpsDelete = (double)(currentDeletes - lastDeletes) / (double)(currentTime - lastTime) * 1000d;
-        double tpsPing = (double)(currentPings - lastPings) / (double)(currentTime - lastTime) * 1000d;
-        double tpsOverall = (double)(currentCRUDs - lastCRUDs) / (double)(currentTime - lastTime) * 1000d;
+        long[] total = new long[TYPES.length];
+        double[] tps = new double[TYPES.length];
+        double[] goodput = new double[TYPES.length];
+        double tpsOverall = 0d;
+        double goodputOverall = 0d;
+        for (int type = 0; type < TYPES.length; type++) {
+            long completed = 0;
+            long good = 0;
+            for (int outcome = 0; outcome < OUTCOMES.length; outcome++) {
+                long delta = currentCounters[type][outcome] - lastCounters[type][outcome];
+                total[type] += currentCounters[type][outcome];
+                completed += delta;
+                good += OUTCOMES[outcome].isGood(TYPES[type]) ? delta : 0;
+            }
+            tps[type] = (double) completed / (double)(currentTime - lastTime) * 1000d;
+            goodput[type] = (double) good / (double)(currentTime - lastTime) * 1000d;
+            tpsOverall += tps[type];
+            goodputOverall += goodput[type];
+        }
         
         // Print header
         if (lastTime == 0) {
@@ -165,12 +316,42 @@ public class Statistics {
             builder.append("Num reads").append(";");
             builder.append("Num updates").append(";");
             builder.append("Num deletes").append(";");
-            builder.append("TPS create").append(";");
-            builder.append("TPS read").append(";");
-            builder.append("TPS update").append(";");
-            builder.append("TPS delete").append(";");
-            builder.append("TPS ping").append(";");
-            builder.append("TPS overall").append("\n");
+            for (WorkType type : reported) {
+                builder.append("TPS ").append(getLabel(type)).append(";");
+            }
+            builder.append("TPS overall").append(";");
+            for (WorkType type : reported) {
+                builder.append("Goodput ").append(getLabel(type)).append(";");
+            }
+            builder.append("Goodput overall");
+            for (WorkType type : reported) {
+                for (Outcome outcome : OUTCOMES) {
+                    builder.append(";").append("Num ").append(getLabel(type)).append(" ").append(outcome.getLabel());
+                }
+            }
+            for (WorkType type : reported) {
+                builder.append(";").append("P50 ").append(getLabel(type)).append(" us");
+                builder.append(";").append("P99 ").append(getLabel(type)).append(" us");
+            }
+            if (config.getSession() != null) {
+                builder.append(";").append("Num sessions");
+                builder.append(";").append("Session p50 ms");
+                builder.append(";").append("Session p99 ms");
+            }
+            builder.append(";").append("Timeout p50 ms");
+            builder.append(";").append("Timeout max ms");
+            builder.append(";").append("Workers alive");
+            builder.append(";").append("Workers blocked");
+            for (WorkType type : reported) {
+                builder.append(";").append("Retries ").append(getLabel(type));
+            }
+            builder.append(";").append("Retry amplification");
+            for (WorkType type : reported) {
+                builder.append(";").append("Late ").append(getLabel(type));
+                builder.append(";").append("Missed ").append(getLabel(type));
+            }
+            telemetry.appendHeader(builder);
+            builder.append("\n");
             writer.write(builder.toString());
         }
         
@@ -180,27 +361,136 @@ public class Statistics {
         builder.append(config.getNumThreads()).append(";");
         builder.append(config.getInitialDBSize()).append(";");
         builder.append(String.valueOf((double)(currentTime - startTime)/1000d).replace('.', ',')).append(";");
-        builder.append(currentCreates).append(";");
-        builder.append(currentReads).append(";");
-        builder.append(currentUpdates).append(";");
-        builder.append(currentDeletes).append(";");
-        builder.append((int)tpsCreate).append(";");
-        builder.append((int)tpsRead).append(";");
-        builder.append((int)tpsUpdate).append(";");
-        builder.append((int)tpsDelete).append(";");
-        builder.append((int)tpsPing).append(";");
-        builder.append((int)tpsOverall).append("\n");
+        builder.append(total[WorkType.CREATE.ordinal()]).append(";");
+        builder.append(total[WorkType.READ.ordinal()]).append(";");
+        builder.append(total[WorkType.UPDATE.ordinal()]).append(";");
+        builder.append(total[WorkType.DELETE.ordinal()]).append(";");
+        for (WorkType type : reported) {
+            builder.append((int)tps[type.ordinal()]).append(";");
+        }
+        builder.append((int)tpsOverall).append(";");
+        for (WorkType type : reported) {
+            builder.append((int)goodput[type.ordinal()]).append(";");
+        }
+        builder.append((int)goodputOverall);
+        for (WorkType type : reported) {
+            for (int outcome = 0; outcome < OUTCOMES.length; outcome++) {
+                builder.append(";").append(currentCounters[type.ordinal()][outcome] - lastCounters[type.ordinal()][outcome]);
+            }
+        }
+        for (WorkType type : reported) {
+            long[] interval = Histogram.delta(currentLatencies[type.ordinal()], lastLatencies[type.ordinal()]);
+            builder.append(";").append(Histogram.getPercentile(interval, 50d) / 1000L);
+            builder.append(";").append(Histogram.getPercentile(interval, 99d) / 1000L);
+        }
+        if (config.getSession() != null) {
+            long[] interval = Histogram.delta(currentSessions, lastSessions);
+            builder.append(";").append(Histogram.getCount(interval));
+            builder.append(";").append(Histogram.getPercentile(interval, 50d) / 1000000L);
+            builder.append(";").append(Histogram.getPercentile(interval, 99d) / 1000000L);
+        }
+        long[] timedOut = Histogram.delta(currentTimeouts, lastTimeouts);
+        builder.append(";").append(Histogram.getPercentile(timedOut, 50d) / 1000000L);
+        builder.append(";").append(Histogram.getMax(timedOut) / 1000000L);
+        builder.append(";").append(alive);
+        builder.append(";").append(blocked);
+        long operations = 0;
+        long requests = 0;
+        for (int type = 0; type < TYPES.length; type++) {
+            long delta = currentRetries[type] - lastRetries[type];
+            for (int outcome = 0; outcome < OUTCOMES.length; outcome++) {
+                operations += currentCounters[type][outcome] - lastCounters[type][outcome];
+            }
+            requests += delta;
+        }
+        for (WorkType type : reported) {
+            builder.append(";").append(currentRetries[type.ordinal()] - lastRetries[type.ordinal()]);
+        }
+        requests += operations;
+        builder.append(";").append(String.valueOf(operations == 0 ? 1d : (double) Math.round((double) requests / (double) operations * 1000d) / 1000d).replace('.', ','));
+        for (WorkType type : reported) {
+            builder.append(";").append(currentLate[type.ordinal()] - lastLate[type.ordinal()]);
+            builder.append(";").append(currentMissed[type.ordinal()] - lastMissed[type.ordinal()]);
+        }
+        telemetry.append(builder, workers);
+        builder.append("\n");
         writer.write(builder.toString());
         
         // Store
         this.lastTime = currentTime;
-        this.lastCreates = currentCreates;
-        this.lastReads = currentReads;
-        this.lastUpdates = currentUpdates;
-        this.lastDeletes = currentDeletes;
-        this.lastPings = currentPings;
-        this.lastCRUDs = currentCRUDs;
+        for (int type = 0; type < TYPES.length; type++) {
+            System.arraycopy(currentCounters[type], 0, lastCounters[type], 0, OUTCOMES.length);
+        }
+        System.arraycopy(currentLatencies, 0, lastLatencies, 0, TYPES.length);
+        this.lastSessions = currentSessions;
+        this.lastTimeouts = currentTimeouts;
+        System.arraycopy(currentRetries, 0, lastRetries, 0, TYPES.length);
+        System.arraycopy(currentLate, 0, lastLate, 0, TYPES.length);
+        System.arraycopy(currentMissed, 0, lastMissed, 0, TYPES.length);
+        this.lastWorkersAlive = alive;
+        this.lastWorkersBlocked = blocked;
         this.lastOverallTPS = (int) tpsOverall;
+        this.lastOverallGoodput = (int) goodputOverall;
+    }
+    
+    /**
+     * Returns the label of a work type used in reports.
+     * 
+     * @param type
+     * @return the label
+     */
+    private static String getLabel(WorkType type) {
+        return type.name().toLowerCase().replace('_', ' ');
+    }
+    
+    /**
+     * Reporting per domain. NOT thread safe.
+     * 
+     * @throws IOException 
+     */
+    public void reportDomains(Writer writer) throws IOException {
+        
+        // Collect data
+        long currentTime = System.currentTimeMillis();
+        double elapsed = Math.max(1L, currentTime - (lastTimeDomains == 0 ? startTime : lastTimeDomains));
+        
+        // Print header
+        if (lastTimeDomains == 0) {
+            StringBuilder builder = new StringBuilder();
+            builder.append("Name").append(";");
+            builder.append("Time").append(";");
+            builder.append("Domain").append(";");
+            builder.append("TPS").append(";");
+            builder.append("Goodput").append(";");
+            builder.append("P50 us").append(";");
+            builder.append("P99 us").append("\n");
+            writer.write(builder.toString());
+        }
+        
+        // Print parameters
+        StringBuilder builder = new StringBuilder();
+        for (int domain = 0; domain < domainCounters.length; domain++) {
+            long currentCounter = domainCounters[domain].sum();
+            long currentGood = domainGood[domain].sum();
+            long[] currentLatencies = domainLatencies[domain].snapshot();
+            long[] interval = Histogram.delta(currentLatencies, lastDomainLatencies[domain]);
+            builder.append(config.getName()).append(";");
+            builder.append(String.valueOf((double)(currentTime - startTime)/1000d).replace('.', ',')).append(";");
+            builder.append(domain).append(";");
+            builder.append((int) ((double) (currentCounter - lastDomainCounters[domain]) / elapsed * 1000d)).append(";");
+            builder.append((int) ((double) (currentGood - lastDomainGood[domain]) / elapsed * 1000d)).append(";");
+            builder.append(Histogram.getPercentile(interval, 50d) / 1000L).append(";");
+            builder.append(Histogram.getPercentile(interval, 99d) / 1000L).append("\n");
+            
+            // Store
+            this.lastDomainCounters[domain] = currentCounter;
+            this.lastDomainGood[domain] = currentGood;
+            this.lastDomainLatencies[domain] = currentLatencies;
+        }
+        writer.write(builder.toString());
+        
+        // Store
+        this.lastTimeDomains = currentTime;
     }
     
     /**
@@ -217,6 +507,12 @@ public class Statistics {
        String d = provider.getDBStorageMetrics("domain");
        String p = provider.getDBStorageMetrics("pseudonym");
        String a = provider.getDBStorageMetrics("auditevent");
+       long[] currentCounters = new long[TYPES.length];
+       for (int type = 0; type < TYPES.length; type++) {
+           for (int outcome = 0; outcome < OUTCOMES.length; outcome++) {
+               currentCounters[type] += counters[type][outcome].sum();
+           }
+       }
        
        // Derive parameters
        long domainSize, domainRecordCount, domainDBSize, pseudonymSize, pseudonymRecordCount, pseudonymDBSize, auditeventSize, auditeventRecordCount, auditeventDBSize;
@@ -241,53 +537,122 @@ public class Statistics {
     	   return;
        }
        
+       // Throughput since the last report, so that index growth can be related to the write rate
+       double elapsed = Math.max(1L, currentTime - (lastTimeDB == 0 ? startTime : lastTimeDB));
+       double tpsCreate = (double) (currentCounters[WorkType.CREATE.ordinal()] - lastCountersDB[WorkType.CREATE.ordinal()]) / elapsed * 1000d;
+       double tpsOverall = 0d;
+       for (int type = 0; type < TYPES.length; type++) {
+           tpsOverall += (double) (currentCounters[type] - lastCountersDB[type]) / elapsed * 1000d;
+       }
+       String prefix = String.valueOf((double)(currentTime - startTime)/1000d).replace('.', ',') + ";" +
+                       config.getIdentifierFormat().getLabel() + ";" + config.getIdentifierLength() + ";";
+       String suffix = ";" + (int) tpsCreate + ";" + (int) tpsOverall + "\n";
+       
        // Print header
        if (lastTimeDB == 0) {
            
            // Print parameters
            StringBuilder builder = new StringBuilder();
            builder.append("Time").append(";");
+           builder.append("Identifier format").append(";");
+           builder.append("Identifier length").append(";");
            builder.append("Table name").append(";");
            builder.append("Table size").append(";");
            builder.append("Number of records").append(";");
            builder.append("Bytes per record").append(";");
-           builder.append("Database size").append("\n");
+           builder.append("Database size").append(";");
+           builder.append("TPS create").append(";");
+           builder.append("TPS overall").append("\n");
            writer.write(builder.toString());
        }
        
        // Print parameters
        StringBuilder builder = new StringBuilder();
-       builder.append(String.valueOf((double)(currentTime - startTime)/1000d).replace('.', ',')).append(";");
+       builder.append(prefix);
        builder.append("domain").append(";");
        builder.append(domainSize).append(";");
        builder.append(domainRecordCount).append(";");
        builder.append(domainBytesPerRecord).append(";");
-       builder.append(domainDBSize).append("\n");
+       builder.append(domainDBSize).append(suffix);
        
-       builder.append(String.valueOf((double)(currentTime - startTime)/1000d).replace('.', ',')).append(";");
+       builder.append(prefix);
        builder.append("pseudonym").append(";");
        builder.append(pseudonymSize).append(";");
        builder.append(pseudonymRecordCount).append(";");
        builder.append(pseudonymBytesPerRecord).append(";");
-       builder.append(pseudonymDBSize).append("\n");
+       builder.append(pseudonymDBSize).append(suffix);
        
-       builder.append(String.valueOf((double)(currentTime - startTime)/1000d).replace('.', ',')).append(";");
+       builder.append(prefix);
        builder.append("auditevent").append(";");
        builder.append(auditeventSize).append(";");
        builder.append(auditeventRecordCount).append(";");
        builder.append(auditeventBytesPerRecord).append(";");
-       builder.append(auditeventDBSize).append("\n");
+       builder.append(auditeventDBSize).append(suffix);
        
        writer.write(builder.toString());
        
        // Store
        this.lastTimeDB = currentTime;
+       System.arraycopy(currentCounters, 0, lastCountersDB, 0, TYPES.length);
    }
 
+    /**
+     * Reporting of the benchmark driver's own overhead at the end of a run. NOT thread safe.
+     * With connectors that do not perform any work, this is the cost of generating and
+     * dispatching operations, i.e., the headroom of the client.
+     * 
+     * @param writer
+     * @param connector name of the connector used
+     * @param workerCpuTime CPU time consumed by all workers in nanoseconds
+     * @throws IOException
+     */
+    public void reportClientOverhead(Writer writer, String connector, long workerCpuTime) throws IOException {
+        
+        // Collect data
+        long currentTime = System.currentTimeMillis();
+        long operations = 0;
+        for (int type = 0; type < TYPES.length; type++) {
+            for (int outcome = 0; outcome < OUTCOMES.length; outcome++) {
+                operations += counters[type][outcome].sum();
+            }
+        }
+        
+        // Derive parameters
+        double cpuPerOperation = operations == 0 ? 0d : (double) workerCpuTime / (double) operations;
+        double maxRatePerCore = cpuPerOperation == 0d ? 0d : 1000000000d / cpuPerOperation;
+        double wallPerOperation = operations == 0 ? 0d : (double)(currentTime - startTime) * 1000000d * (double) config.getNumThreads() / (double) operations;
+        
+        // Print header and parameters
+        StringBuilder builder = new StringBuilder();
+        builder.append("Name").append(";");
+        builder.append("Connector").append(";");
+        builder.append("Threads").append(";");
+        builder.append("Time").append(";");
+        builder.append("Num operations").append(";");
+        builder.append("Worker CPU time ms").append(";");
+        builder.append("CPU ns per operation").append(";");
+        builder.append("Max TPS per core").append(";");
+        builder.append("Wall ns per operation and worker").append("\n");
+        builder.append(config.getName()).append(";");
+        builder.append(connector).append(";");
+        builder.append(config.getNumThreads()).append(";");
+        builder.append(String.valueOf((double)(currentTime - startTime)/1000d).replace('.', ',')).append(";");
+        builder.append(operations).append(";");
+        builder.append(workerCpuTime / 1000000L).append(";");
+        builder.append((long) cpuPerOperation).append(";");
+        builder.append((long) maxRatePerCore).append(";");
+        builder.append((long) wallPerOperation).append("\n");
+        writer.write(builder.toString());
+        
+        // Some logging
+        System.out.println("   - Client overhead: " + (long) cpuPerOperation + " ns CPU per operation, max. " + (long) maxRatePerCore + " TPS per core");
+    }
+
     /**
      * Stores the start time.
      */
     public void start() {
         this.startTime = System.currentTimeMillis();
+        this.telemetry.start();
     }
 }
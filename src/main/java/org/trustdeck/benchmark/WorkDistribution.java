@@ -37,23 +37,63 @@ public class WorkDistribution {
         READ,
         UPDATE,
         DELETE,
-        PING
+        PING,
+        CREATE_DOMAIN,
+        READ_DOMAIN,
+        UPDATE_DOMAIN,
+        DELETE_DOMAIN;
+        
+        /**
+         * Whether this is an operation on a domain rather than on a pseudonym.
+         * 
+         * @return {@code true} for domain-management operations
+         */
+        public boolean isDomainOperation() {
+            return this.ordinal() >= CREATE_DOMAIN.ordinal();
+        }
+        
+        /**
+         * Whether the addressed record may legitimately not exist, e.g., because it has been deleted concurrently.
+         * 
+         * @return {@code true} for reads, updates, and deletes of pseudonyms and domains
+         */
+        public boolean isNotFoundExpected() {
+            return this != CREATE && this != PING && this != CREATE_DOMAIN;
+        }
+        
+        /**
+         * Returns the key of this type in configuration files.
+         * 
+         * @return the name in camel case, e.g., "createDomain"
+         */
+        public String getKey() {
+            String[] words = name().toLowerCase().split("_");
+            StringBuilder key = new StringBuilder(words[0]);
+            for (int i = 1; i < words.length; i++) {
+                key.append(Character.toUpperCase(words[i].charAt(0))).append(words[i].substring(1));
+            }
+            return key.toString();
+        }
     }
     
-    /** Number of create operations. */
-    private final int c;
-    
-    /** Number of create and read operations. */
-    private final int cr;
-    
-    /** Number of create, read, and update operations. */
-    private final int cru;
+    /** Work types, in sampling order. */
+    private static final WorkType[] TYPES = WorkType.values();
     
-    /** Number of create, read, update, and delete operations. */
-    private final int crud;
+    /** Number of operations of each type and all types before it. */
+    private final int[] cumulative = new int[TYPES.length];
     
-    /** Number of create, read, update, delete, and ping operations. */
-    private final int crudp;
+    /**
+     * Creates a new instance without domain operations.
+     * 
+     * @param creates
+     * @param reads
+     * @param updates
+     * @param deletes
+     * @param pings
+     */
+    public WorkDistribution(int creates, int reads, int updates, int deletes, int pings) {
+        this(creates, reads, updates, deletes, pings, 0, 0, 0, 0);
+    }
     
     /**
      * Creates a new instance.
@@ -63,13 +103,19 @@ public class WorkDistribution {
      * @param updates
      * @param deletes
      * @param pings
+     * @param createDomains
+     * @param readDomains
+     * @param updateDomains
+     * @param deleteDomains
      */
-    public WorkDistribution(int creates, int reads, int updates, int deletes, int pings) {
-        this.c = creates;
-        this.cr = creates + reads;
-        this.cru = creates + reads + updates;
-        this.crud = creates + reads + updates + deletes;
-        this.crudp = creates + reads + updates + deletes + pings;
+    public WorkDistribution(int creates, int reads, int updates, int deletes, int pings,
+                            int createDomains, int readDomains, int updateDomains, int deleteDomains) {
+        int[] counts = {creates, reads, updates, deletes, pings, createDomains, readDomains, updateDomains, deleteDomains};
+        int sum = 0;
+        for (int i = 0; i < TYPES.length; i++) {
+            sum += counts[i];
+            this.cumulative[i] = sum;
+        }
     }
     
     /**
@@ -78,18 +124,13 @@ public class WorkDistribution {
      * @return a work type
      */
     public WorkType sample() {
-        int number = RANDOM.nextInt(crudp);
+        int number = RANDOM.nextInt(cumulative[TYPES.length - 1]);
         
-        if (number < c) {
-            return WorkType.CREATE;
-        } else if (number < cr) {
-            return WorkType.READ;
-        } else if (number < cru) {
-            return WorkType.UPDATE;
-        } else if (number < crud) {
-            return WorkType.DELETE;
-        } else {
-        	return WorkType.PING;
+        for (int i = 0; i < TYPES.length - 1; i++) {
+            if (number < cumulative[i]) {
+                return TYPES[i];
+            }
         }
+        return TYPES[TYPES.length - 1];
     }
 }
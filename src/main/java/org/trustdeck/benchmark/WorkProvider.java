@@ -17,9 +17,30 @@
 
 package org.trustdeck.benchmark;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
 import org.trustdeck.benchmark.connector.Connector;
 import org.trustdeck.benchmark.connector.ConnectorException;
 import org.trustdeck.benchmark.connector.ConnectorFactory;
+import org.trustdeck.benchmark.connector.Outcome;
+import org.trustdeck.benchmark.trace.TraceReader;
+import org.trustdeck.benchmark.trace.TraceRecord;
+import org.trustdeck.benchmark.trace.TraceRecorder;
+import org.trustdeck.benchmark.workload.AccessLogWorkload;
+import org.trustdeck.benchmark.workload.Arrival;
+import org.trustdeck.benchmark.workload.ArrivalRateWorkload;
+import org.trustdeck.benchmark.workload.SessionWorkload;
 
 /**
  * Class that provides the work for the worker threads.
@@ -40,9 +61,36 @@ public class WorkProvider {
     /** The statistics object. */
     private Statistics statistics;
 
+    /** Assignment of records to domains. */
+    private final Domains domains;
+
     /** Thread local connectors*/
     private ThreadLocal<Connector> threadLocalConnectors;
     
+    /** Records all issued operations, null if disabled. */
+    private final TraceRecorder recorder;
+    
+    /** Provides the operations to issue instead of the distribution, null if disabled. */
+    private final TraceReader replay;
+    
+    /** Provides the operations to issue following an access log instead of the distribution, null if disabled. */
+    private final AccessLogWorkload workload;
+    
+    /** Provides the operations to issue as sessions instead of the distribution, null if disabled. */
+    private final SessionWorkload sessions;
+    
+    /** Schedules the operations with absolute rates instead of sampling them without pause, null if disabled. */
+    private final ArrivalRateWorkload arrivals;
+    
+    /** Executes operations issued open loop, i.e., at their due time regardless of how many are outstanding, null if not needed. */
+    private final ExecutorService openLoop;
+    
+    /** Start of the run in nanoseconds, to which the offsets of replayed operations refer. */
+    private volatile long startTime;
+    
+    /** Whether the replayed trace or access log has been issued completely. */
+    private volatile boolean exhausted = false;
+    
     /**
      * Creates a new instance.
      * 
@@ -55,11 +103,45 @@ public class WorkProvider {
                         Identifiers identifiers, 
                         Statistics statistics,
                         ConnectorFactory factory) {
+        this(config, identifiers, statistics, factory, Domains.of(config.getDomainDistribution(), config.getDomainCount(), config.getAgentId(), config.getAgentCount()), null, null, null);
+    }
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param config
+     * @param identifiers
+     * @param statistics
+     * @param factory
+     * @param domains assignment of records to domains
+     * @param recorder records all issued operations, may be null
+     * @param replay trace to replay instead of sampling operations, may be null
+     * @param workload access log to follow instead of sampling operations, may be null
+     */
+    public WorkProvider(Configuration config, 
+                        Identifiers identifiers, 
+                        Statistics statistics,
+                        ConnectorFactory factory,
+                        Domains domains,
+                        TraceRecorder recorder,
+                        TraceReader replay,
+                        AccessLogWorkload workload) {
         
         // Store config
         this.config = config;
         this.identifiers = identifiers;
         this.statistics = statistics;
+        this.domains = domains;
+        this.recorder = recorder;
+        this.replay = replay;
+        this.workload = workload;
+        this.sessions = config.getSession() != null ? new SessionWorkload(config.getSession()) : null;
+        this.arrivals = config.getArrivalRates() != null ? new ArrivalRateWorkload(config.getArrivalRates()) : null;
+        this.openLoop = replay != null ? Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
 
         // Prepare thread-local instances 
         this.threadLocalConnectors =
@@ -76,7 +158,11 @@ public class WorkProvider {
                                                  config.getReadRate(),
                                                  config.getUpdateRate(),
                                                  config.getDeleteRate(),
-                                                 config.getPingRate());
+                                                 config.getPingRate(),
+                                                 config.getCreateDomainRate(),
+                                                 config.getReadDomainRate(),
+                                                 config.getUpdateDomainRate(),
+                                                 config.getDeleteDomainRate());
     }
     
     /**
@@ -86,12 +172,94 @@ public class WorkProvider {
      * @throws ConnectorException
      */
     public void prepare() throws ConnectorException {
-		// Remove old data and create benchmark table
-		threadLocalConnectors.get().prepare();
+		// Remove old data and create benchmark tables and domains, only once if several agents run against the same service
+		if (config.getAgentId() == 0) {
+		    threadLocalConnectors.get().prepare();
+		    prepareDomains();
+		}
 		
-        // Create initial pseudonym pool
-        for (int i = 0; i < config.getInitialDBSize(); i++) {
-            threadLocalConnectors.get().createPseudonym(identifiers.create());
+        // Create initial pseudonym pool, exactly like the recorded run when replaying
+        prepareRecords(replay != null ? replay.getInitialDBSize() : config.getInitialDBSize());
+    }
+    
+    /**
+     * Creates the initial records, in parallel with one thread per worker. Each thread creates the
+     * records of every n-th block of identifiers, so that the same identifiers are created as by a
+     * single thread.
+     * 
+     * @param count the number of records
+     * @throws ConnectorException
+     */
+    private void prepareRecords(long count) throws ConnectorException {
+        long firstBlock = identifiers.reserve(count);
+        long numBlocks = (count + Identifiers.getBlockSize() - 1) / Identifiers.getBlockSize();
+        int threads = (int) Math.max(1L, Math.min(config.getNumThreads(), numBlocks));
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            tasks.add(() -> {
+                Connector connector = threadLocalConnectors.get();
+                for (long block = thread; block < numBlocks; block += threads) {
+                    long end = Math.min(count, (block + 1) * Identifiers.getBlockSize());
+                    for (long index = block * Identifiers.getBlockSize(); index < end; index++) {
+                        String id = identifiers.getReserved(firstBlock, index);
+                        connector.createPseudonym(domains.of(id), id);
+                        identifiers.created(id);
+                    }
+                }
+                return null;
+            });
+        }
+        runInParallel(threads, tasks);
+    }
+    
+    /**
+     * Creates the domains, in parallel with up to one thread per worker.
+     * 
+     * @throws ConnectorException
+     */
+    private void prepareDomains() throws ConnectorException {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < domains.getCount(); i++) {
+            int domain = i;
+            tasks.add(() -> {
+                threadLocalConnectors.get().prepareDomain(domain);
+                return null;
+            });
+        }
+        runInParallel(Math.max(1, Math.min(config.getNumThreads(), domains.getCount())), tasks);
+    }
+    
+    /**
+     * Runs preparation tasks in parallel and waits for them.
+     * 
+     * @param threads the number of threads
+     * @param tasks the tasks
+     * @throws ConnectorException the first failure of a task
+     */
+    private void runInParallel(int threads, List<Callable<Void>> tasks) throws ConnectorException {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ConnectorException) {
+                throw (ConnectorException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectorException(e);
+        } finally {
+            executor.shutdownNow();
         }
     }
     
@@ -105,6 +273,46 @@ public class WorkProvider {
         return threadLocalConnectors.get().getStorageConsumption(storageIdentifier);
     }
     
+    /**
+     * Marks the start of the run.
+     */
+    public void start() {
+        this.startTime = System.nanoTime();
+        if (recorder != null) {
+            recorder.start(startTime);
+        }
+        if (workload != null) {
+            workload.start(startTime, statistics);
+        }
+        if (arrivals != null) {
+            arrivals.start(startTime, statistics);
+        }
+    }
+    
+    /**
+     * Stops executing operations issued open loop. Operations in progress are interrupted.
+     */
+    public void stop() {
+        if (openLoop != null) {
+            openLoop.shutdownNow();
+        }
+        if (arrivals != null) {
+            arrivals.stop();
+        }
+        if (workload != null) {
+            workload.stop();
+        }
+    }
+    
+    /**
+     * Whether all operations of the replayed trace or access log have been issued.
+     * 
+     * @return {@code true} if replaying and the end of the trace or log has been reached
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+    
     /**
      * Returns the next work item.
      * 
@@ -115,96 +323,367 @@ public class WorkProvider {
         // Obtain thread-local connector
         Connector connector = threadLocalConnectors.get();
         
-        // Get the template according to the defined distribution
-        switch(distribution.sample()) {
-	        case CREATE:
-	            return new Runnable() {
-	                @Override
-	                public void run() {
-	                    try {
-                            connector.createPseudonym(identifiers.create());
-                        } catch (ConnectorException e) {
-                        	if (System.currentTimeMillis() - statistics.getStartTime() >= config.getMaxTime()) {
-                        		// Work submitted shortly before the benchmark was terminated might still be processed.
-                        		// Exceptions thrown by those requests can be ignored.
-                        	} else {
-                        		throw new RuntimeException(e);
-                        	}
-                        }
-	                    statistics.addCreate();
-	                }
-	            };
-	        case READ:
-	            return new Runnable() {
-	                @Override
-	                public void run() {
-	                    try {
-                            connector.readPseudonym(identifiers.read());
-                        } catch (ConnectorException e) {
-                        	if (System.currentTimeMillis() - statistics.getStartTime() >= config.getMaxTime()) {
-                        		// Work submitted shortly before the benchmark was terminated might still be processed.
-                        		// Exceptions thrown by those requests can be ignored.
-                        	} else {
-                        		throw new RuntimeException(e);
-                        	}
-                        }
-	                    statistics.addRead();
-	                }
-	            };
-	        case UPDATE:
-	            return new Runnable() {
-	                @Override
-	                public void run() {
-	                    try {
-                            connector.updatePseudonym(identifiers.read());
-                        } catch (ConnectorException e) {
-                        	if (System.currentTimeMillis() - statistics.getStartTime() >= config.getMaxTime()) {
-                        		// Work submitted shortly before the benchmark was terminated might still be processed.
-                        		// Exceptions thrown by those requests can be ignored.
-                        	} else {
-                        		throw new RuntimeException(e);
-                        	}
-                        }
-	                    statistics.addUpdate();
-	                }
-	            };
-	        case DELETE:
-	            return new Runnable() {
-	                @Override
-	                public void run() {
-	                    try {
-                            connector.deletePseudonym(identifiers.read());
-                        } catch (ConnectorException e) {
-                        	if (System.currentTimeMillis() - statistics.getStartTime() >= config.getMaxTime()) {
-                        		// Work submitted shortly before the benchmark was terminated might still be processed.
-                        		// Exceptions thrown by those requests can be ignored.
-                        	} else {
-                        		throw new RuntimeException(e);
-                        	}
-                        }
-	                    statistics.addDelete();
-	                }
-	            };
-	        case PING:
-	            return new Runnable() {
-	                @Override
-	                public void run() {
-	                    try {
-                            connector.ping();
-                        } catch (ConnectorException e) {
-                        	if (System.currentTimeMillis() - statistics.getStartTime() >= config.getMaxTime()) {
-                        		// Work submitted shortly before the benchmark was terminated might still be processed.
-                        		// Exceptions thrown by those requests can be ignored.
-                        	} else {
-                        		throw new RuntimeException(e);
-                        	}
-                        }
-                        statistics.addPing();
-	                }
-	            };
-	    };
+        // Take the operation from the trace
+        if (replay != null) {
+            return getReplayedWork(connector);
+        }
+        
+        // Follow the access log
+        if (workload != null) {
+            return getAccessLogWork(connector);
+        }
+        
+        // Continue the worker's session
+        if (sessions != null) {
+            return getSessionWork(connector);
+        }
+        
+        // Take the next operation scheduled at an absolute rate
+        if (arrivals != null) {
+            return getArrivalWork(connector);
+        }
+        
+        // Sample the next operation according to the defined distribution
+        return getWork(connector, distribution.sample(), System.nanoTime(), false);
+    }
+    
+    /**
+     * Returns an operation of the given type.
+     * 
+     * @param connector
+     * @param type the type of work
+     * @param enqueued when the operation was handed to the worker, or was due if scheduled, in nanoseconds
+     * @param scheduled whether the operation was scheduled, so that its latency is measured from when it was due
+     * @return the work
+     */
+    private Runnable getWork(Connector connector, WorkType type, long enqueued, boolean scheduled) {
+        switch (type) {
+            case CREATE:
+                String created = identifiers.create();
+                return () -> execute(connector, type, created, enqueued, scheduled);
+            case READ:
+            case UPDATE:
+                String existing = identifiers.read();
+                return () -> execute(connector, type, existing, enqueued, scheduled);
+            case DELETE:
+                String deleted = identifiers.delete();
+                return () -> execute(connector, type, deleted, enqueued, scheduled);
+            case PING:
+                return () -> execute(connector, type, null, enqueued, scheduled);
+            case CREATE_DOMAIN:
+            case READ_DOMAIN:
+            case UPDATE_DOMAIN:
+                String domain = String.valueOf(type == WorkType.CREATE_DOMAIN ? domains.create() : domains.read());
+                return () -> execute(connector, type, domain, enqueued, scheduled);
+            case DELETE_DOMAIN:
+                String deletedDomain = String.valueOf(domains.delete());
+                return () -> execute(connector, type, deletedDomain, enqueued, scheduled);
+        };
         
         // Sanity check
         throw new IllegalStateException("No work can be provided.");
     }
+    
+    /**
+     * Returns the next operation scheduled at an absolute rate, once it is due. Its latency is measured
+     * from when it was due, so that waiting for a worker is not hidden (coordinated omission).
+     * 
+     * @param connector
+     * @return the work
+     */
+    private Runnable getArrivalWork(Connector connector) {
+        
+        // Next operation, none if the worker has been interrupted
+        Arrival arrival = arrivals.next();
+        if (arrival == null) {
+            return () -> {};
+        }
+        
+        // Started after the next one of its type was due
+        if (arrival.isLate(System.nanoTime())) {
+            statistics.addLate(arrival.getType());
+        }
+        return getWork(connector, arrival.getType(), arrival.getDue(), true);
+    }
+    
+    /**
+     * Returns the next operation of the replayed trace, once it is due. The operation is handed to
+     * the open-loop executor, so that it is issued on time even if operations issued before are
+     * still outstanding, and the worker can wait for the next one immediately.
+     * 
+     * @param connector
+     * @return the work
+     */
+    private Runnable getReplayedWork(Connector connector) {
+        
+        // Next operation
+        TraceRecord record;
+        try {
+            record = replay.next();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        // End of trace, wait for the run to end
+        if (record == null) {
+            exhausted = true;
+            return () -> LockSupport.parkNanos(100000000L);
+        }
+        
+        // Wait until the operation is due
+        long due = startTime + (long) (record.getOffset() * 1000d / config.getReplaySpeed());
+        for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        return () -> dispatch(() -> execute(threadLocalConnectors.get(), record.getType(), record.getId(), due));
+    }
+    
+    /**
+     * Hands an operation to the open-loop executor.
+     * 
+     * @param operation the operation, obtaining its connector when executed
+     */
+    private void dispatch(Runnable operation) {
+        try {
+            openLoop.execute(operation);
+        } catch (RejectedExecutionException e) {
+            // The run has ended
+        }
+    }
+    
+    /**
+     * Returns the next operation following the access log, once it is due. Like operations scheduled at
+     * arrival rates, its latency is measured from when it was due.
+     * 
+     * @param connector
+     * @return the work
+     */
+    private Runnable getAccessLogWork(Connector connector) {
+        
+        // Next operation
+        Arrival arrival = workload.next();
+        
+        // End of log, wait for the run to end
+        if (arrival == null) {
+            exhausted = !Thread.currentThread().isInterrupted();
+            return () -> LockSupport.parkNanos(100000000L);
+        }
+        
+        // Started after the next one was due
+        WorkType type = arrival.getType();
+        long enqueued = arrival.getDue();
+        if (arrival.isLate(System.nanoTime())) {
+            statistics.addLate(type);
+        }
+        
+        // Choose identifier
+        String id = null;
+        switch (type) {
+            case CREATE:
+                id = identifiers.create();
+                break;
+            case READ:
+            case UPDATE:
+                id = workload.getReusedIdentifier();
+                if (id == null) {
+                    id = identifiers.read();
+                }
+                workload.accessed(id);
+                break;
+            case DELETE:
+                id = workload.getReusedIdentifier();
+                if (id == null) {
+                    id = identifiers.delete();
+                } else {
+                    identifiers.deleted(id);
+                }
+                workload.accessed(id);
+                break;
+            case PING:
+                break;
+        }
+        String chosen = id;
+        return () -> execute(connector, type, chosen, enqueued, true);
+    }
+    
+    /**
+     * Returns the next operation of the worker's session, once the think time has passed.
+     * 
+     * @param connector
+     * @return the work
+     */
+    private Runnable getSessionWork(Connector connector) {
+        
+        // Next operation
+        WorkType type = sessions.next();
+        long enqueued = System.nanoTime();
+        
+        // The session's record, or a new one
+        String id;
+        if (type == WorkType.CREATE) {
+            id = identifiers.create();
+        } else {
+            id = sessions.getIdentifier();
+            if (type == WorkType.DELETE) {
+                identifiers.deleted(id);
+            }
+        }
+        return () -> {
+            Outcome outcome = execute(connector, type, id, enqueued);
+            long duration = sessions.completed(type, id, outcome);
+            if (duration >= 0) {
+                statistics.addSession(duration);
+            }
+        };
+    }
+    
+    /**
+     * Performs an operation, retrying it according to the type's policy, and tracks its outcome.
+     * The latency covers all attempts and the backoff between them, as observed by the client.
+     * 
+     * @param connector the connector
+     * @param type the type of work
+     * @param id the identifier, the index of the domain for domain operations, null for pings
+     * @param enqueued when the operation was handed to the worker, or was due if replayed, in nanoseconds
+     * @return the outcome of the last attempt
+     */
+    private Outcome execute(Connector connector, WorkType type, String id, long enqueued) {
+        return execute(connector, type, id, enqueued, false);
+    }
+    
+    /**
+     * Performs an operation, retrying it according to the type's policy, and tracks its outcome.
+     * The latency covers all attempts and the backoff between them, as observed by the client.
+     * 
+     * @param connector the connector
+     * @param type the type of work
+     * @param id the identifier, the index of the domain for domain operations, null for pings
+     * @param enqueued when the operation was handed to the worker, or was due if scheduled or replayed, in nanoseconds
+     * @param scheduled whether the operation was scheduled, so that its latency also covers the time since it was due
+     * @return the outcome of the last attempt
+     */
+    private Outcome execute(Connector connector, WorkType type, String id, long enqueued, boolean scheduled) {
+        RetryPolicy policy = config.getRetryPolicy(type);
+        int domain = id == null ? -1 : type.isDomainOperation() ? Integer.parseInt(id) : domains.of(id);
+        OperationEvent event = new OperationEvent();
+        event.begin();
+        long sequence = recorder != null ? recorder.issue() : 0L;
+        long issueTime = System.nanoTime();
+        Outcome outcome;
+        int statusCode;
+        int attempt = 1;
+        while (true) {
+            statusCode = 0;
+            try {
+                issue(connector, type, id, domain);
+                outcome = Outcome.SUCCESS;
+                statusCode = connector.getStatusCode();
+            } catch (ConnectorException e) {
+                // Failures are counted, not raised, so that workers never die
+                outcome = e.getOutcome() != null ? e.getOutcome().forType(type) : Outcome.OTHER_ERROR;
+                statusCode = e.getStatusCode();
+            } catch (RuntimeException e) {
+                // Unexpected failures as well, so that the operation is still recorded
+                outcome = Outcome.OTHER_ERROR;
+            }
+            
+            // Back off and retry
+            if (!policy.isRetried(outcome, statusCode, attempt) || !backOff(policy.getBackoff(attempt))) {
+                break;
+            }
+            attempt++;
+        }
+        long latency = System.nanoTime() - (scheduled ? Math.min(enqueued, issueTime) : issueTime);
+        
+        // The ID or domain has been taken from the live ones before, it still exists unless it was not found
+        if (outcome != Outcome.SUCCESS && outcome != Outcome.NOT_FOUND) {
+            if (type == WorkType.DELETE) {
+                identifiers.restore(id);
+            } else if (type == WorkType.DELETE_DOMAIN) {
+                domains.restore(domain);
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = type.getKey();
+            event.identifierHash = id == null || type.isDomainOperation() ? 0 : id.hashCode();
+            event.domain = domain;
+            event.outcome = outcome.getLabel();
+            event.statusCode = statusCode;
+            event.attempts = attempt;
+            event.queueTime = Math.max(0L, issueTime - enqueued);
+            event.commit();
+        }
+        statistics.add(type, type.isDomainOperation() ? -1 : domain, outcome, latency);
+        if (attempt > 1) {
+            statistics.addRetries(type, attempt - 1);
+        }
+        if (recorder != null) {
+            recorder.record(sequence, issueTime, type, id, outcome, latency);
+        }
+        return outcome;
+    }
+    
+    /**
+     * Waits before retrying an operation.
+     * 
+     * @param delay in nanoseconds
+     * @return {@code false} if the worker has been interrupted and should not retry
+     */
+    private boolean backOff(long delay) {
+        long due = System.nanoTime() + delay;
+        for (long wait = delay; wait > 0; wait = due - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+    
+    /**
+     * Sends a single request.
+     * 
+     * @param connector the connector
+     * @param type the type of work
+     * @param id the identifier, null for pings
+     * @param domain the index of the domain, -1 for pings
+     * @throws ConnectorException
+     */
+    private void issue(Connector connector, WorkType type, String id, int domain) throws ConnectorException {
+        switch (type) {
+            case CREATE:
+                connector.createPseudonym(domain, id);
+                identifiers.created(id);
+                break;
+            case READ:
+                connector.readPseudonym(domain, id);
+                break;
+            case UPDATE:
+                connector.updatePseudonym(domain, id);
+                break;
+            case DELETE:
+                connector.deletePseudonym(domain, id);
+                break;
+            case PING:
+                connector.ping();
+                break;
+            case CREATE_DOMAIN:
+                connector.createDomain(domain);
+                domains.created(domain);
+                break;
+            case READ_DOMAIN:
+                connector.readDomain(domain);
+                break;
+            case UPDATE_DOMAIN:
+                connector.updateDomain(domain);
+                break;
+            case DELETE_DOMAIN:
+                connector.deleteDomain(domain);
+                break;
+        }
+    }
 }
@@ -27,6 +27,9 @@ public class Worker extends Thread {
     /** Work provider. */
     private WorkProvider provider;
     
+    /** Start of the operation currently performed in nanoseconds, 0 if the worker is waiting for work. */
+    private volatile long busySince = 0L;
+    
     /**
      * Creates a new instance.
      * 
@@ -49,7 +52,9 @@ public class Worker extends Thread {
             Runnable work = this.provider.getWork();
             
             // Perform work
+            busySince = System.nanoTime() | 1L;
             work.run();
+            busySince = 0L;
             
             // See if it's time to stop
             if (Thread.interrupted()) {
@@ -57,4 +62,15 @@ public class Worker extends Thread {
             }
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Whether the worker has been stuck in a single operation for at least the given time.
+     * 
+     * @param threshold in nanoseconds
+     * @return {@code true} if the current operation started at least the threshold ago
+     */
+    public boolean isBlocked(long threshold) {
+        long since = busySince;
+        return since != 0L && System.nanoTime() - since >= threshold;
+    }
+}
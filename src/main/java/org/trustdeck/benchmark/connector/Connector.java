@@ -17,30 +17,51 @@
 package org.trustdeck.benchmark.connector;
 
 /**
- * Connector interface.
+ * Connector interface. Failures of operations that could be classified
+ * (see {@link Outcome}) are reported via {@link ConnectorException#getOutcome()}.
  * 
  * @author Fabian Prasser
  */
 public interface Connector {
 
-    /** Prepare benchmark. */
+    /** Prepare benchmark, i.e., remove the data of previous runs. */
     public void prepare() throws ConnectorException;
     
+    /** Create a domain for the benchmark, removing leftovers of previous runs. Domains are numbered from zero. */
+    public void prepareDomain(int domain) throws ConnectorException;
+    
     /** Create pseudonym. */
-    public void createPseudonym(String id) throws ConnectorException;
+    public void createPseudonym(int domain, String id) throws ConnectorException;
     
     /** Retrieve storage consumption. */
     public String getStorageConsumption(String storageID) throws ConnectorException;
     
     /** Read pseudonym. */
-    public void readPseudonym(String string) throws ConnectorException;
+    public void readPseudonym(int domain, String id) throws ConnectorException;
     
     /** Update pseudonym. */
-    public void updatePseudonym(String string) throws ConnectorException;
+    public void updatePseudonym(int domain, String id) throws ConnectorException;
     
     /** Delete pseudonym. */
-    public void deletePseudonym(String string) throws ConnectorException;
+    public void deletePseudonym(int domain, String id) throws ConnectorException;
+    
+    /** Create a domain during the benchmark. */
+    public void createDomain(int domain) throws ConnectorException;
+    
+    /** Read domain. */
+    public void readDomain(int domain) throws ConnectorException;
+    
+    /** Update domain. */
+    public void updateDomain(int domain) throws ConnectorException;
+    
+    /** Delete domain, including the roles created with it. */
+    public void deleteDomain(int domain) throws ConnectorException;
     
     /** Ping the service. */
     public void ping() throws ConnectorException;
+    
+    /** Status code of the last operation's response, 0 if none was received, e.g., by connectors without HTTP. */
+    public default int getStatusCode() {
+        return 0;
+    }
 }
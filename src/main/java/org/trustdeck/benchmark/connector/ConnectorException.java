@@ -23,13 +23,63 @@ package org.trustdeck.benchmark.connector;
  */
 public class ConnectorException extends Exception {
 
+    /** Classified outcome, null if the failure could not be classified. */
+    private final Outcome outcome;
+    
+    /** Status code returned by the service, 0 if none was received. */
+    private final int statusCode;
+
     /**
      * New instance.
      * 
      * @param e
      */
     public ConnectorException(Exception e) {
+        this(e, null, 0);
+    }
+
+    /**
+     * New instance for a classified failure.
+     * 
+     * @param e
+     * @param outcome the classified outcome
+     * @param statusCode the status code returned by the service, 0 if none was received
+     */
+    public ConnectorException(Exception e, Outcome outcome, int statusCode) {
         super(e);
+        this.outcome = outcome;
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * New instance for a classified failure without an underlying exception.
+     * 
+     * @param message
+     * @param outcome the classified outcome
+     * @param statusCode the status code returned by the service, 0 if none was received
+     */
+    public ConnectorException(String message, Outcome outcome, int statusCode) {
+        super(message);
+        this.outcome = outcome;
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Returns the classified outcome.
+     * 
+     * @return the outcome or null, if the failure could not be classified
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Returns the status code returned by the service.
+     * 
+     * @return the status code or 0, if none was received
+     */
+    public int getStatusCode() {
+        return statusCode;
     }
 
     /** SVUID */
@@ -0,0 +1,120 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector;
+
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+
+/**
+ * Classification of the result of a single operation.
+ * 
+ * @author Armin Müller
+ */
+public enum Outcome {
+    
+    /** The service processed the request successfully. */
+    SUCCESS("success"),
+    
+    /** The addressed record does not exist. Only expected for types that address existing records, e.g., reads of deleted records. */
+    NOT_FOUND("404"),
+    
+    /** The service rejected the request, e.g., due to authentication (401) or rate limiting (429). */
+    CLIENT_ERROR("4xx"),
+    
+    /** The service failed to process the request (5xx). */
+    SERVER_ERROR("5xx"),
+    
+    /** No response was received in time. */
+    TIMEOUT("timeout"),
+    
+    /** No connection could be established or it broke while being used. */
+    CONNECTION_ERROR("connection error"),
+    
+    /** The request failed for a reason that could not be classified, e.g., an unreadable response. */
+    OTHER_ERROR("other error");
+    
+    /** Label used in reports. */
+    private final String label;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param label
+     */
+    private Outcome(String label) {
+        this.label = label;
+    }
+    
+    /**
+     * Returns the label used in reports.
+     * 
+     * @return the label
+     */
+    public String getLabel() {
+        return label;
+    }
+    
+    /**
+     * Whether the operation counts towards goodput, i.e., the service answered as expected.
+     * 
+     * @param type the type of the operation
+     * @return {@code true} for successes and expected 404s
+     */
+    public boolean isGood(WorkType type) {
+        return this == SUCCESS || (this == NOT_FOUND && type.isNotFoundExpected());
+    }
+    
+    /**
+     * Returns the outcome as classified for the given type of operation. A 404 is only
+     * expected for operations addressing existing records, otherwise it is a client error.
+     * 
+     * @param type the type of the operation
+     * @return the outcome
+     */
+    public Outcome forType(WorkType type) {
+        return this == NOT_FOUND && !type.isNotFoundExpected() ? CLIENT_ERROR : this;
+    }
+    
+    /**
+     * Classifies an HTTP status code.
+     * 
+     * @param statusCode the status code
+     * @param type the type of the operation
+     * @return the outcome
+     */
+    public static Outcome fromStatusCode(int statusCode, WorkType type) {
+        return fromStatusCode(statusCode).forType(type);
+    }
+    
+    /**
+     * Classifies an HTTP status code, regardless of the type of the operation.
+     * 
+     * @param statusCode the status code
+     * @return the outcome, a 404 is reported as {@link #NOT_FOUND}
+     */
+    public static Outcome fromStatusCode(int statusCode) {
+        if (statusCode == 404) {
+            return NOT_FOUND;
+        } else if (statusCode >= 500) {
+            return SERVER_ERROR;
+        } else if (statusCode >= 400) {
+            return CLIENT_ERROR;
+        } else {
+            return SUCCESS;
+        }
+    }
+}
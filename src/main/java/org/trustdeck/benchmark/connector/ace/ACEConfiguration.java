@@ -0,0 +1,515 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.ace;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.trustdeck.benchmark.ConfigurationSection;
+
+import lombok.Getter;
+
+/**
+ * Immutable configuration of the ACE connector and its authentication.
+ * 
+ * @author Armin Müller
+ */
+@Getter
+public class ACEConfiguration {
+    
+    /** Name of the configuration section. */
+    private static final String SECTION = "ace";
+    
+    /** Name of the configuration section used by earlier versions. */
+    private static final String LEGACY_SECTION = "trustdeck";
+    
+    /** Default time to wait for a connection in milliseconds. */
+    private static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+    
+    /** Default time to wait for a response in milliseconds. */
+    private static final int DEFAULT_REQUEST_TIMEOUT = 60000;
+    
+    /** The URI of ACE's API. */
+    private final URI uri;
+    
+    /** The client ID used for authentication. */
+    private final String clientId;
+    
+    /** The client secret used for authentication. */
+    private final String clientSecret;
+    
+    /** The URI of the keycloak server. */
+    private final String keycloakAuthUri;
+    
+    /** The name of the keycloak realm. */
+    private final String keycloakRealmName;
+    
+    /** The primary user, used for preparing the benchmark. */
+    private final Credentials user;
+    
+    /** The pool of users the workers are assigned to. */
+    private final List<Credentials> identities;
+    
+    /** The name of the benchmark's domain. */
+    private final String domainName;
+    
+    /** Time to wait for a connection to be established in milliseconds, 0 waits forever. */
+    private final int connectTimeout;
+    
+    /** Maximal number of pooled connections to ACE, requests beyond wait for a connection, 0 for no limit. */
+    private final int maxConnections;
+    
+    /** Time to wait for the response to a create in milliseconds, 0 waits forever. */
+    private final int createTimeout;
+    
+    /** Time to wait for the response to a read in milliseconds, 0 waits forever. */
+    private final int readTimeout;
+    
+    /** Time to wait for the response to an update in milliseconds, 0 waits forever. */
+    private final int updateTimeout;
+    
+    /** Time to wait for the response to a delete in milliseconds, 0 waits forever. */
+    private final int deleteTimeout;
+    
+    /** Time to wait for the response to a ping in milliseconds, 0 waits forever. */
+    private final int pingTimeout;
+    
+    /** Time to wait for the response to a domain operation in milliseconds, 0 waits forever. */
+    private final int domainTimeout;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param uri
+     * @param clientId
+     * @param clientSecret
+     * @param keycloakAuthUri
+     * @param keycloakRealmName
+     * @param user
+     * @param identities
+     * @param domainName
+     * @param connectTimeout
+     * @param maxConnections
+     * @param createTimeout
+     * @param readTimeout
+     * @param updateTimeout
+     * @param deleteTimeout
+     * @param pingTimeout
+     * @param domainTimeout
+     */
+    private ACEConfiguration(URI uri,
+                             String clientId,
+                             String clientSecret,
+                             String keycloakAuthUri,
+                             String keycloakRealmName,
+                             Credentials user,
+                             List<Credentials> identities,
+                             String domainName,
+                             int connectTimeout,
+                             int maxConnections,
+                             int createTimeout,
+                             int readTimeout,
+                             int updateTimeout,
+                             int deleteTimeout,
+                             int pingTimeout,
+                             int domainTimeout) {
+        this.uri = uri;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.keycloakAuthUri = keycloakAuthUri;
+        this.keycloakRealmName = keycloakRealmName;
+        this.user = user;
+        this.identities = identities;
+        this.domainName = domainName;
+        this.connectTimeout = connectTimeout;
+        this.maxConnections = maxConnections;
+        this.createTimeout = createTimeout;
+        this.readTimeout = readTimeout;
+        this.updateTimeout = updateTimeout;
+        this.deleteTimeout = deleteTimeout;
+        this.pingTimeout = pingTimeout;
+        this.domainTimeout = domainTimeout;
+    }
+    
+    /**
+     * Return builder
+     * @return
+     */
+    public static ACEConfigurationBuilder builder() {
+        return new ACEConfigurationBuilder();
+    }
+    
+    /**
+     * Returns a copy of this configuration with different endpoints, e.g., those of a mock server.
+     * 
+     * @param uri the URI of the API
+     * @param keycloakAuthUri the URI of the keycloak server
+     * @return the new configuration
+     */
+    public ACEConfiguration withEndpoints(URI uri, String keycloakAuthUri) {
+        return new ACEConfiguration(uri, clientId, clientSecret, keycloakAuthUri, keycloakRealmName, user, identities, domainName, 
+                                    connectTimeout, maxConnections, createTimeout, readTimeout, updateTimeout, deleteTimeout, pingTimeout, domainTimeout);
+    }
+    
+    /**
+     * Creates the configuration from the configuration file's "ace" section.
+     * 
+     * @param root the root section of the configuration file
+     * @return the configuration
+     */
+    public static ACEConfiguration fromSection(ConfigurationSection root) {
+        ConfigurationSection section = root.contains(SECTION) ? root.getSection(SECTION) : root.getSection(LEGACY_SECTION);
+        ACEConfigurationBuilder builder = builder()
+                .setUri(section.getString("uri"))
+                .setClientId(section.getString("clientId"))
+                .setClientSecret(section.getString("clientSecret"))
+                .setKeycloakAuthUri(section.getString("keycloakAuthUri"))
+                .setKeycloakRealmName(section.getString("keycloakRealmName"))
+                .setUsername(section.getString("username"))
+                .setPassword(section.getString("password"))
+                .setDomainName(section.getString("domainName"))
+                .setGeneratedIdentities(section.getInt("generatedIdentities", 0))
+                .setConnectTimeout(section.getInt("connectTimeout", DEFAULT_CONNECT_TIMEOUT))
+                .setMaxConnections(section.getInt("maxConnections", 0))
+                .setRequestTimeout(section.getInt("requestTimeout", DEFAULT_REQUEST_TIMEOUT))
+                .setCreateTimeout(section.getInt("createTimeout", -1))
+                .setReadTimeout(section.getInt("readTimeout", -1))
+                .setUpdateTimeout(section.getInt("updateTimeout", -1))
+                .setDeleteTimeout(section.getInt("deleteTimeout", -1))
+                .setPingTimeout(section.getInt("pingTimeout", -1))
+                .setDomainTimeout(section.getInt("domainTimeout", -1));
+        if (section.contains("identities")) {
+            for (ConfigurationSection identity : section.getSections("identities")) {
+                builder.addIdentity(identity.getString("username"), identity.getString("password"));
+            }
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Credentials of a user.
+     */
+    @Getter
+    public static class Credentials {
+        
+        /** User name. */
+        private final String username;
+        
+        /** Password. */
+        private final String password;
+        
+        /**
+         * Creates a new instance.
+         * 
+         * @param username
+         * @param password
+         */
+        public Credentials(String username, String password) {
+            this.username = username;
+            this.password = password;
+        }
+    }
+    
+    /** 
+     * Builder for a configuration object.
+     */
+    public static class ACEConfigurationBuilder {
+        
+        /** The URI of ACE's API. */
+        private String uri;
+        
+        /** The client ID used for authentication. */
+        private String clientId;
+        
+        /** The client secret used for authentication. */
+        private String clientSecret;
+        
+        /** The URI of the keycloak server. */
+        private String keycloakAuthUri;
+        
+        /** The name of the keycloak realm. */
+        private String keycloakRealmName;
+        
+        /** The primary user's name. */
+        private String username;
+        
+        /** The primary user's password. */
+        private String password;
+        
+        /** Explicitly listed identities. */
+        private final List<Credentials> identities = new ArrayList<>();
+        
+        /** Number of identities to generate from the primary user. */
+        private int generatedIdentities;
+        
+        /** The name of the benchmark's domain. */
+        private String domainName;
+        
+        /** Time to wait for a connection in milliseconds. */
+        private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        
+        /** Maximal number of pooled connections, 0 for no limit. */
+        private int maxConnections = 0;
+        
+        /** Time to wait for a response in milliseconds, unless overridden per operation. */
+        private int requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+        
+        /** Time to wait for the response to a create, -1 for the request timeout. */
+        private int createTimeout = -1;
+        
+        /** Time to wait for the response to a read, -1 for the request timeout. */
+        private int readTimeout = -1;
+        
+        /** Time to wait for the response to an update, -1 for the request timeout. */
+        private int updateTimeout = -1;
+        
+        /** Time to wait for the response to a delete, -1 for the request timeout. */
+        private int deleteTimeout = -1;
+        
+        /** Time to wait for the response to a ping, -1 for the request timeout. */
+        private int pingTimeout = -1;
+        
+        /** Time to wait for the response to a domain operation, -1 for the request timeout. */
+        private int domainTimeout = -1;
+        
+        /**
+         * Build the configuration.
+         * 
+         * @return a configuration object
+         */
+        public ACEConfiguration build() {
+            // Checks
+            if (uri == null || clientId == null || keycloakAuthUri == null || keycloakRealmName == null || username == null || password == null || domainName == null) {
+                throw new IllegalStateException("URI, client ID, keycloak URI and realm, user name, password, and domain name must not be null!");
+            }
+            
+            if (generatedIdentities < 0) {
+                throw new IllegalStateException("The number of generated identities must be zero or positive!");
+            }
+            
+            if (generatedIdentities > 0 && !identities.isEmpty()) {
+                throw new IllegalStateException("Identities can either be listed or generated, but not both!");
+            }
+            
+            if (connectTimeout < 0 || requestTimeout < 0 || createTimeout < -1 || readTimeout < -1 || 
+                updateTimeout < -1 || deleteTimeout < -1 || pingTimeout < -1 || domainTimeout < -1) {
+                throw new IllegalStateException("Timeouts must be zero or positive!");
+            }
+            
+            if (maxConnections < 0) {
+                throw new IllegalStateException("The maximal number of connections must be zero or positive!");
+            }
+            
+            URI parsedUri;
+            try {
+                parsedUri = new URI(uri);
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException("Invalid URI: " + uri, e);
+            }
+            
+            // Resolve pool
+            Credentials user = new Credentials(username, password);
+            List<Credentials> pool = new ArrayList<>(identities);
+            for (int i = 1; i <= generatedIdentities; i++) {
+                pool.add(new Credentials(username + "-" + i, password));
+            }
+            if (pool.isEmpty()) {
+                pool.add(user);
+            }
+            
+            // Create object
+            return new ACEConfiguration(parsedUri, clientId, clientSecret, keycloakAuthUri, keycloakRealmName, user, Collections.unmodifiableList(pool), domainName,
+                                        connectTimeout, 
+                                        maxConnections, 
+                                        resolve(createTimeout), 
+                                        resolve(readTimeout), 
+                                        resolve(updateTimeout), 
+                                        resolve(deleteTimeout), 
+                                        resolve(pingTimeout), 
+                                        resolve(domainTimeout));
+        }
+        
+        /**
+         * Returns the timeout of an operation, falling back to the request timeout.
+         * 
+         * @param timeout the operation's timeout, -1 if not set
+         * @return the timeout in milliseconds
+         */
+        private int resolve(int timeout) {
+            return timeout == -1 ? requestTimeout : timeout;
+        }
+        
+        // SETTERS SECTION (these allow chaining).
+        
+        /**
+         * @param uri the URI of ACE's API
+         */
+        public ACEConfigurationBuilder setUri(String uri) {
+            this.uri = uri;
+            return this;
+        }
+        
+        /**
+         * @param clientId the clientId to set
+         */
+        public ACEConfigurationBuilder setClientId(String clientId) {
+            this.clientId = clientId;
+            return this;
+        }
+        
+        /**
+         * @param clientSecret the clientSecret to set
+         */
+        public ACEConfigurationBuilder setClientSecret(String clientSecret) {
+            this.clientSecret = clientSecret;
+            return this;
+        }
+        
+        /**
+         * @param keycloakAuthUri the URI of the keycloak server
+         */
+        public ACEConfigurationBuilder setKeycloakAuthUri(String keycloakAuthUri) {
+            this.keycloakAuthUri = keycloakAuthUri;
+            return this;
+        }
+        
+        /**
+         * @param keycloakRealmName the keycloakRealmName to set
+         */
+        public ACEConfigurationBuilder setKeycloakRealmName(String keycloakRealmName) {
+            this.keycloakRealmName = keycloakRealmName;
+            return this;
+        }
+        
+        /**
+         * @param username the primary user's name
+         */
+        public ACEConfigurationBuilder setUsername(String username) {
+            this.username = username;
+            return this;
+        }
+        
+        /**
+         * @param password the primary user's password
+         */
+        public ACEConfigurationBuilder setPassword(String password) {
+            this.password = password;
+            return this;
+        }
+        
+        /**
+         * @param username name of an additional identity
+         * @param password its password
+         */
+        public ACEConfigurationBuilder addIdentity(String username, String password) {
+            this.identities.add(new Credentials(username, password));
+            return this;
+        }
+        
+        /**
+         * @param generatedIdentities the number of identities "username-1" to "username-n" to generate
+         */
+        public ACEConfigurationBuilder setGeneratedIdentities(int generatedIdentities) {
+            this.generatedIdentities = generatedIdentities;
+            return this;
+        }
+        
+        /**
+         * @param domainName the domainName to set
+         */
+        public ACEConfigurationBuilder setDomainName(String domainName) {
+            this.domainName = domainName;
+            return this;
+        }
+        
+        /**
+         * @param connectTimeout time to wait for a connection in milliseconds, 0 waits forever
+         */
+        public ACEConfigurationBuilder setConnectTimeout(int connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+        
+        /**
+         * @param maxConnections maximal number of pooled connections, 0 for no limit
+         */
+        public ACEConfigurationBuilder setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+        
+        /**
+         * @param requestTimeout time to wait for a response in milliseconds, 0 waits forever
+         */
+        public ACEConfigurationBuilder setRequestTimeout(int requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+        
+        /**
+         * @param createTimeout time to wait for the response to a create, -1 for the request timeout
+         */
+        public ACEConfigurationBuilder setCreateTimeout(int createTimeout) {
+            this.createTimeout = createTimeout;
+            return this;
+        }
+        
+        /**
+         * @param readTimeout time to wait for the response to a read, -1 for the request timeout
+         */
+        public ACEConfigurationBuilder setReadTimeout(int readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+        
+        /**
+         * @param updateTimeout time to wait for the response to an update, -1 for the request timeout
+         */
+        public ACEConfigurationBuilder setUpdateTimeout(int updateTimeout) {
+            this.updateTimeout = updateTimeout;
+            return this;
+        }
+        
+        /**
+         * @param deleteTimeout time to wait for the response to a delete, -1 for the request timeout
+         */
+        public ACEConfigurationBuilder setDeleteTimeout(int deleteTimeout) {
+            this.deleteTimeout = deleteTimeout;
+            return this;
+        }
+        
+        /**
+         * @param pingTimeout time to wait for the response to a ping, -1 for the request timeout
+         */
+        public ACEConfigurationBuilder setPingTimeout(int pingTimeout) {
+            this.pingTimeout = pingTimeout;
+            return this;
+        }
+        
+        /**
+         * @param domainTimeout time to wait for the response to a domain operation, -1 for the request timeout
+         */
+        public ACEConfigurationBuilder setDomainTimeout(int domainTimeout) {
+            this.domainTimeout = domainTimeout;
+            return this;
+        }
+    }
+}
@@ -16,11 +16,20 @@
  */
 package org.trustdeck.benchmark.connector.ace;
 
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.concurrent.TimeoutException;
 
 import org.trustdeck.benchmark.connector.Connector;
 import org.trustdeck.benchmark.connector.ConnectorException;
+import org.trustdeck.benchmark.connector.Outcome;
+import org.trustdeck.benchmark.connector.ace.HTTPRequest.HTTPOperation;
 
 /**
  * Connector to ACE.
@@ -38,6 +47,9 @@ public class ACEConnector implements Connector {
     /** Default start time for the domain's validity period. */
     private static final String DEFAULT_DOMAIN_VALID_FROM = "2000-01-01T18:00:00";
     
+    /** Description set when updating domains. */
+    private static final String DEFAULT_DOMAIN_DESCRIPTION = "Updated by the benchmark";
+    
     /** Default start time for the pseudonym's validity period. */
     private static final String DEFAULT_PSEUDONYM_VALID_FROM = "2001-01-01T18:00:00";
 
@@ -47,8 +59,31 @@ public class ACEConnector implements Connector {
     /** Access token. */
     private ACEToken token;
     
-    /** Domain to use for the benchmarking in ACE. */
-    private ACEDomain domain;
+    /** Name of the first domain, further domains are numbered. */
+    private final String domainName;
+    
+    /** Domains to use for the benchmarking in ACE, by index, created on demand. */
+    private ACEDomain[] domains = new ACEDomain[0];
+    
+    /** Handle of the identity from the token pool used by this connector. */
+    private final int identity;
+    
+    /** Status code of the last operation's response, 0 if none was received. */
+    private int statusCode = 0;
+    
+    /**
+     * Requests sent to the service for an operation.
+     */
+    @FunctionalInterface
+    private interface ServiceCall {
+        
+        /**
+         * Sends the requests.
+         * 
+         * @throws Exception
+         */
+        void call() throws Exception;
+    }
     
     /**
      * Create a new instance of the connector.
@@ -56,20 +91,113 @@ public class ACEConnector implements Connector {
      * @throws URISyntaxException
      */
     public ACEConnector(String serviceURI, String serviceDomainName) throws URISyntaxException {
+        this(new ACEService(new URI(serviceURI)), serviceDomainName);
+    }
+    
+    /**
+     * Create a new instance of the connector.
+     * 
+     * @param config the configuration
+     */
+    public ACEConnector(ACEConfiguration config) {
+        this(new ACEService(config.getUri(), config), config.getDomainName());
+    }
+    
+    /**
+     * Create a new instance of the connector.
+     * 
+     * @param service
+     * @param serviceDomainName
+     */
+    private ACEConnector(ACEService service, String serviceDomainName) {
 
-        // Instantiate service
-        this.service = new ACEService(new URI(serviceURI));
+        // Store service
+        this.service = service;
+        
+        // Domains are prepared on demand
+        this.domainName = serviceDomainName;
         
-        // Prepare domain
-        this.domain = new ACEDomain(serviceDomainName, DEFAULT_DOMAIN_PREFIX);
-        this.domain.setValidFrom(DEFAULT_DOMAIN_VALID_FROM);
+        // Assign identity round-robin
+        this.identity = ACETokenManager.getInstance().assignIdentity();
     }
 
     /**
-     * Authentication mechanism. Retrieves an access token. 
+     * Returns the domain with the given index. The first domain has the configured name,
+     * further domains have the index appended.
+     * 
+     * @param index
+     * @return the domain
+     */
+    private ACEDomain getDomain(int index) {
+        if (index >= domains.length) {
+            domains = Arrays.copyOf(domains, Math.max(index + 1, domains.length * 2));
+        }
+        ACEDomain domain = domains[index];
+        if (domain == null) {
+            domain = newDomain(index);
+            domains[index] = domain;
+        }
+        return domain;
+    }
+    
+    /**
+     * Creates the representation of the domain with the given index, without caching it.
+     * Used for domains that are managed during the benchmark, as there are many of them.
+     * 
+     * @param index
+     * @return the domain
+     */
+    private ACEDomain newDomain(int index) {
+        ACEDomain domain = new ACEDomain(index == 0 ? domainName : domainName + index, DEFAULT_DOMAIN_PREFIX);
+        domain.setValidFrom(DEFAULT_DOMAIN_VALID_FROM);
+        return domain;
+    }
+
+    /**
+     * Authentication mechanism. Retrieves the current access token of the identity assigned
+     * to this connector, which is shared and refreshed in the background.
      */
     private void authenticate() {
-    	this.token = new ACEToken(ACETokenManager.getInstance().getToken());
+        long start = System.nanoTime();
+        ACETokenManager manager = ACETokenManager.getInstance();
+        this.token = manager.getAccessToken(identity);
+        manager.getMetrics().addAuthentication(System.nanoTime() - start);
+    }
+    
+    /**
+     * Authentication mechanism for administrative requests. Retrieves the current access token of the primary user.
+     */
+    private void authenticateAsAdministrator() {
+        this.token = ACETokenManager.getInstance().getAccessToken();
+    }
+    
+    /**
+     * Classifies a failure. HTTP errors are classified by their status code,
+     * transport errors by their cause. Everything else is left unclassified.
+     * 
+     * @param e the failure
+     * @return the exception to forward
+     */
+    private static ConnectorException classify(Exception e) {
+        // Service answered with an error
+        if (e instanceof HTTPException && ((HTTPException) e).getStatusCode() != 0) {
+            int statusCode = ((HTTPException) e).getStatusCode();
+            return new ConnectorException(e, Outcome.fromStatusCode(statusCode), statusCode);
+        }
+        
+        // Transport errors are wrapped by the client
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedIOException || cause instanceof TimeoutException) {
+                return new ConnectorException(e, Outcome.TIMEOUT, 0);
+            } else if (cause instanceof ConnectException || 
+                       cause instanceof NoRouteToHostException || 
+                       cause instanceof UnknownHostException || 
+                       cause instanceof SocketException) {
+                return new ConnectorException(e, Outcome.CONNECTION_ERROR, 0);
+            }
+        }
+        
+        return new ConnectorException(e);
     }
     
     /**
@@ -79,106 +207,143 @@ public class ACEConnector implements Connector {
     public void prepare() throws ConnectorException {
         try {
             // Authenticate
-            authenticate();
+            authenticateAsAdministrator();
     
             // Remove old data from ACE
             try {
                 service.clearTables(this.token);
-		Thread.sleep(15000);
-		service.deleteRoles(this.token, this.domain);
+                Thread.sleep(15000);
             } catch (HTTPException e) {
                 // Ignore
             } catch (InterruptedException f) {
-				// Ignore
-			}
-    
-            // Refresh access token (since the old-data-removal can take a while) and create the domain
-            authenticate();
-            service.createDomain(this.token, this.domain);
+                // Ignore
+            }
             
         // Catch and forward errors
         } catch (Exception e) {
-            throw new ConnectorException(e);
+            throw classify(e);
         }
     }
     
     /**
-     * Create a pseudonym.
+     * Create a domain for the benchmark.
+     * Remove the roles left over from previous runs and create the domain.
      * 
-     * @param id the identifier used for creating the pseudonym.
+     * @param domain the index of the domain
      */
-    public void createPseudonym(String id) throws ConnectorException {
+    @Override
+    public void prepareDomain(int domain) throws ConnectorException {
         try {
-            authenticate();
-            service.createPseudonym(this.token, this.domain, new ACEPseudonym(id, DEFAULT_ID_TYPE));
+            // Authenticate, refreshing the access token, since the old-data-removal can take a while
+            authenticateAsAdministrator();
+            
+            // Remove old roles
+            try {
+                service.deleteRoles(this.token, getDomain(domain));
+            } catch (HTTPException e) {
+                // Ignore
+            }
+    
+            // Create the domain
+            service.createDomain(this.token, getDomain(domain));
             
         // Catch and forward errors
         } catch (Exception e) {
-            throw new ConnectorException(e);
+            throw classify(e);
         }
     }
+    
+    /**
+     * Create a pseudonym.
+     * 
+     * @param domain the index of the domain
+     * @param id the identifier used for creating the pseudonym.
+     */
+    public void createPseudonym(int domain, String id) throws ConnectorException {
+        send(HTTPOperation.CREATE, domain, false, () -> service.createPseudonym(this.token, getDomain(domain), new ACEPseudonym(id, DEFAULT_ID_TYPE)));
+    }
 
     /**
-     * Read pseudonym.
+     * Read pseudonym. A 404 is reported as Outcome.NOT_FOUND.
      * 
+     * @param domain the index of the domain
      * @param id the identifier used for reading the pseudonym.
      */
     @Override
-    public void readPseudonym(String id) throws ConnectorException {
-		try {
-			// Authenticate
-		    authenticate();
-		    service.readPseudonym(this.token, this.domain, new ACEPseudonym(id, DEFAULT_ID_TYPE));
-		    
-		// Catch and forward errors
-		} catch (Exception e) {
-		    // It is ok if the pseudonym does not exist
-		    if (!(e instanceof HTTPException && ((HTTPException) e).getStatusCode() == 404)) {
-		        throw new ConnectorException(e);
-		    } 
-		}
+    public void readPseudonym(int domain, String id) throws ConnectorException {
+        send(HTTPOperation.READ, domain, false, () -> service.readPseudonym(this.token, getDomain(domain), new ACEPseudonym(id, DEFAULT_ID_TYPE)));
     }
 
     /**
-     * Update pseudonym.
+     * Update pseudonym. A 404 is reported as Outcome.NOT_FOUND.
      * 
+     * @param domain the index of the domain
      * @param id the identifier used for updating the pseudonym.
      */
     @Override
-    public void updatePseudonym(String id) throws ConnectorException {
-        try {
-        	// Authenticate
-            authenticate();
-            service.updatePseudonym(this.token, this.domain, new ACEPseudonym(id, DEFAULT_ID_TYPE).withValidFrom(DEFAULT_PSEUDONYM_VALID_FROM));
-            
-        // Catch and forward errors
-        } catch (Exception e) {
-            // It is ok if the pseudonym does not exist
-            if (!(e instanceof HTTPException && ((HTTPException) e).getStatusCode() == 404)) {
-                throw new ConnectorException(e);
-            } 
-        }
+    public void updatePseudonym(int domain, String id) throws ConnectorException {
+        send(HTTPOperation.UPDATE, domain, false, () -> service.updatePseudonym(this.token, getDomain(domain), new ACEPseudonym(id, DEFAULT_ID_TYPE).withValidFrom(DEFAULT_PSEUDONYM_VALID_FROM)));
     }
 
     /**
-     * Delete pseudonym.
+     * Delete pseudonym. A 404 is reported as Outcome.NOT_FOUND.
      * 
+     * @param domain the index of the domain
      * @param id the identifier used for deleting the pseudonym.
      */
     @Override
-    public void deletePseudonym(String id) throws ConnectorException {
-        try {
-        	// Authenticate
-            authenticate();
-            service.deletePseudonym(this.token, this.domain, new ACEPseudonym(id, DEFAULT_ID_TYPE));
-            
-        // Catch and forward errors
-        } catch (Exception e) {
-            // It is ok if the pseudonym does not exist
-            if (!(e instanceof HTTPException && ((HTTPException) e).getStatusCode() == 404)) {
-                throw new ConnectorException(e);
-            } 
-        }
+    public void deletePseudonym(int domain, String id) throws ConnectorException {
+        send(HTTPOperation.DELETE, domain, false, () -> service.deletePseudonym(this.token, getDomain(domain), new ACEPseudonym(id, DEFAULT_ID_TYPE)));
+    }
+
+    /**
+     * Create a domain. ACE also creates the domain's roles in Keycloak.
+     * Domain management requires administrative rights.
+     * 
+     * @param domain the index of the domain
+     */
+    @Override
+    public void createDomain(int domain) throws ConnectorException {
+        send(HTTPOperation.CREATE_DOMAIN, domain, true, () -> service.createDomain(this.token, newDomain(domain)));
+    }
+
+    /**
+     * Read domain. A 404 is reported as Outcome.NOT_FOUND.
+     * 
+     * @param domain the index of the domain
+     */
+    @Override
+    public void readDomain(int domain) throws ConnectorException {
+        send(HTTPOperation.READ_DOMAIN, domain, true, () -> service.readDomain(this.token, newDomain(domain)));
+    }
+
+    /**
+     * Update domain. A 404 is reported as Outcome.NOT_FOUND.
+     * 
+     * @param domain the index of the domain
+     */
+    @Override
+    public void updateDomain(int domain) throws ConnectorException {
+        send(HTTPOperation.UPDATE_DOMAIN, domain, true, () -> {
+            ACEDomain updated = newDomain(domain);
+            updated.setDescription(DEFAULT_DOMAIN_DESCRIPTION);
+            service.updateDomain(this.token, updated);
+        });
+    }
+
+    /**
+     * Delete domain and remove its roles, which ACE leaves behind in Keycloak.
+     * A 404 is reported as Outcome.NOT_FOUND.
+     * 
+     * @param domain the index of the domain
+     */
+    @Override
+    public void deleteDomain(int domain) throws ConnectorException {
+        send(HTTPOperation.DELETE_DOMAIN, domain, true, () -> {
+            ACEDomain deleted = newDomain(domain);
+            service.deleteDomain(this.token, deleted);
+            service.deleteRoles(this.token, deleted);
+        });
     }
 
     /**
@@ -186,20 +351,66 @@ public class ACEConnector implements Connector {
      */
     @Override
     public void ping() throws ConnectorException {
+        send(HTTPOperation.PING, -1, false, () -> service.ping(this.token));
+    }
+    
+    /**
+     * Sends the requests of an attempt of an operation, after obtaining the token. Each attempt is
+     * recorded as a flight recorder event, also if obtaining the token fails. The time spent waiting
+     * for the token is recorded with it, so that retries and waiting for the token can be told apart
+     * from the time the service takes.
+     * 
+     * @param operation the operation
+     * @param domain the index of the domain, -1 for none
+     * @param administrator whether the requests require administrative rights
+     * @param call the requests
+     * @throws ConnectorException the classified failure
+     */
+    private void send(HTTPOperation operation, int domain, boolean administrator, ServiceCall call) throws ConnectorException {
+        ACERequestEvent event = new ACERequestEvent();
+        statusCode = 0;
+        Outcome outcome = Outcome.SUCCESS;
+        event.begin();
+        long start = System.nanoTime();
         try {
-        	// Authenticate
-        	authenticate();
-        	
-            service.ping(this.token);
-        // Catch and forward errors
+            // Authenticate, also counting the time until it failed
+            try {
+                if (administrator) {
+                    authenticateAsAdministrator();
+                } else {
+                    authenticate();
+                }
+            } finally {
+                event.tokenWait = System.nanoTime() - start;
+            }
+            
+            // Send
+            call.call();
+            statusCode = HTTPRequest.getLastStatusCode();
+            
+        // Catch, classify and forward errors
         } catch (Exception e) {
-            // It is ok if the endpoint does not exist
-            if (!(e instanceof HTTPException && ((HTTPException) e).getStatusCode() == 404)) {
-                throw new ConnectorException(e);
+            ConnectorException classified = classify(e);
+            outcome = classified.getOutcome() != null ? classified.getOutcome() : Outcome.OTHER_ERROR;
+            statusCode = classified.getStatusCode();
+            throw classified;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation.getLabel();
+                event.domain = domain;
+                event.outcome = outcome.getLabel();
+                event.statusCode = statusCode;
+                event.commit();
             }
         }
     }
     
+    @Override
+    public int getStatusCode() {
+        return statusCode;
+    }
+    
     /**
      * Retrieve storage metrics.
      * 
@@ -209,7 +420,7 @@ public class ACEConnector implements Connector {
     public String getStorageConsumption(String storageIdentifier) throws ConnectorException {
         try {
             // Authenticate
-            authenticate();
+            authenticateAsAdministrator();
 
             // Gather storage information
             String response = "";
@@ -223,7 +434,7 @@ public class ACEConnector implements Connector {
             
         // Catch and forward errors
         } catch (Exception e) {
-            throw new ConnectorException(e);
+            throw classify(e);
         }
     }
 }
@@ -16,14 +16,7 @@
  */
 package org.trustdeck.benchmark.connector.ace;
 
-import java.io.InputStream;
-import java.net.URISyntaxException;
-import java.util.Map;
-
-import org.trustdeck.benchmark.Main;
-import org.trustdeck.benchmark.connector.ConnectorException;
 import org.trustdeck.benchmark.connector.ConnectorFactory;
-import org.yaml.snakeyaml.Yaml;
 
 /**
  * ACE connector factory.
@@ -31,34 +24,28 @@ import org.yaml.snakeyaml.Yaml;
  * @author Fabian Prasser, Armin Müller
  */
 public class ACEConnectorFactory implements ConnectorFactory {
+    
+    /** The configuration, shared by all connectors. */
+    private final ACEConfiguration config;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param config the configuration
+     */
+    public ACEConnectorFactory(ACEConfiguration config) {
+        this.config = config;
+        HTTPClientManager.setConnectTimeout(config.getConnectTimeout());
+        HTTPClientManager.setMaxConnections(config.getMaxConnections());
+    }
 
     /**
      * Creates a new connector.
      * 
      * @return the initialized connector
-     * @throws ConnectorException 
      */
-    public ACEConnector create() throws ConnectorException {
-
-        // Extract the tool configuration from the loaded configuration file
-        Yaml yaml = new Yaml();
-        InputStream inputStream = Main.class.getClassLoader().getResourceAsStream("config.yaml");
-        Map<String, Object> yamlConfig = yaml.load(inputStream);
-        @SuppressWarnings("unchecked")
-        Map<String, String> toolConfig = (Map<String, String>) yamlConfig.get("trustdeck");
- 
-        String serviceURI = toolConfig.get("uri");
-        String serviceDomainName = toolConfig.get("domainName");
-        
-        // Create connector
-        ACEConnector connector;
-        try {
-            connector = new ACEConnector(serviceURI, serviceDomainName);
-        } catch (URISyntaxException e) {
-            throw new ConnectorException(e);
-        }
-        
-        return connector;
+    public ACEConnector create() {
+        return new ACEConnector(config);
     }
 
     @Override
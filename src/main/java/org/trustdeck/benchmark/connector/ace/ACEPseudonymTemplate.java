@@ -0,0 +1,167 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.ace;
+
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Pre-serialized JSON payload for pseudonyms that only differ in their identifier.
+ * The payload is rendered once through Jackson with a placeholder identifier. Afterwards,
+ * requests are built by splicing the identifier between the constant prefix and suffix.
+ *
+ * @author Armin Müller
+ */
+public class ACEPseudonymTemplate {
+
+    /** Placeholder used for rendering the template. Contains no characters that need escaping. */
+    private static final String PLACEHOLDER = "__ACE_BENCHMARK_ID_PLACEHOLDER__";
+
+    /** Known templates. Copy-on-write, as there is only a handful of distinct payload shapes. */
+    private static volatile ACEPseudonymTemplate[] templates = new ACEPseudonymTemplate[0];
+
+    /** The pseudonym's identifier's type. */
+    private final String idType;
+
+    /** The pseudonym's start date of validity. */
+    private final String validFrom;
+
+    /** The pseudonym's validity time period. */
+    private final String validityTime;
+
+    /** Payload before the identifier, including the opening quote. */
+    private final String prefix;
+
+    /** Payload after the identifier, including the closing quote. */
+    private final String suffix;
+
+    /**
+     * Creates a new instance by rendering the payload shape once.
+     *
+     * @param pseudonym the pseudonym providing the constant part of the payload
+     * @param writer the writer used for rendering
+     * @throws JsonProcessingException
+     */
+    private ACEPseudonymTemplate(ACEPseudonym pseudonym, ObjectWriter writer) throws JsonProcessingException {
+        this.idType = pseudonym.getIdType();
+        this.validFrom = pseudonym.getValidFrom();
+        this.validityTime = pseudonym.getValidityTime();
+
+        // Render with placeholder and split
+        String rendered = writer.writeValueAsString(new ACEPseudonym(PLACEHOLDER, idType, validFrom, validityTime));
+        int index = rendered.indexOf(PLACEHOLDER);
+        if (index < 0 || rendered.indexOf(PLACEHOLDER, index + 1) >= 0) {
+            throw new IllegalStateException("Placeholder must occur exactly once in the rendered payload.");
+        }
+        this.prefix = rendered.substring(0, index);
+        this.suffix = rendered.substring(index + PLACEHOLDER.length());
+    }
+
+    /**
+     * Serializes the pseudonym, equivalent to {@code writer.writeValueAsString(pseudonym)}.
+     * Payloads without an identifier are delegated to the writer.
+     *
+     * @param pseudonym the pseudonym to serialize
+     * @param writer the writer used for rendering new templates
+     * @return the JSON payload
+     * @throws JsonProcessingException
+     */
+    public static String serialize(ACEPseudonym pseudonym, ObjectWriter writer) throws JsonProcessingException {
+        // Nothing to splice
+        if (pseudonym.getId() == null) {
+            return writer.writeValueAsString(pseudonym);
+        }
+
+        return getTemplate(pseudonym, writer).render(pseudonym.getId());
+    }
+
+    /**
+     * Returns the template matching the pseudonym's shape, creating it if necessary.
+     *
+     * @param pseudonym
+     * @param writer
+     * @return the template
+     * @throws JsonProcessingException
+     */
+    private static ACEPseudonymTemplate getTemplate(ACEPseudonym pseudonym, ObjectWriter writer) throws JsonProcessingException {
+        // Lock-free lookup
+        for (ACEPseudonymTemplate template : templates) {
+            if (template.matches(pseudonym)) {
+                return template;
+            }
+        }
+
+        // Register a new shape
+        synchronized (ACEPseudonymTemplate.class) {
+            ACEPseudonymTemplate[] current = templates;
+            for (ACEPseudonymTemplate template : current) {
+                if (template.matches(pseudonym)) {
+                    return template;
+                }
+            }
+
+            ACEPseudonymTemplate template = new ACEPseudonymTemplate(pseudonym, writer);
+            ACEPseudonymTemplate[] next = new ACEPseudonymTemplate[current.length + 1];
+            System.arraycopy(current, 0, next, 0, current.length);
+            next[current.length] = template;
+            templates = next;
+            return template;
+        }
+    }
+
+    /**
+     * Whether the pseudonym has the shape of this template.
+     *
+     * @param pseudonym
+     * @return {@code true} if all fields but the identifier are equal
+     */
+    private boolean matches(ACEPseudonym pseudonym) {
+        return Objects.equals(idType, pseudonym.getIdType()) &&
+               Objects.equals(validFrom, pseudonym.getValidFrom()) &&
+               Objects.equals(validityTime, pseudonym.getValidityTime());
+    }
+
+    /**
+     * Renders the payload for the given identifier.
+     *
+     * @param id the identifier, not null
+     * @return the JSON payload
+     */
+    String render(String id) {
+        return prefix + (needsEscaping(id) ? new String(JsonStringEncoder.getInstance().quoteAsString(id)) : id) + suffix;
+    }
+
+    /**
+     * Checks whether the identifier contains characters that must be escaped in a JSON string.
+     *
+     * @param id
+     * @return {@code true} if escaping is needed
+     */
+    private static boolean needsEscaping(String id) {
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
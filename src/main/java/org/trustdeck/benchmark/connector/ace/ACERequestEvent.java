@@ -0,0 +1,61 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.ace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a single attempt of an operation at ACE. The event covers obtaining
+ * the access token and the HTTP exchange, the time spent on the token is recorded separately.
+ * 
+ * @author Armin Müller
+ */
+@Name("org.trustdeck.benchmark.Request")
+@Label("ACE Request")
+@Category({"ACE Benchmark"})
+@Description("An attempt of an operation sent to ACE")
+@StackTrace(false)
+class ACERequestEvent extends Event {
+    
+    /** Operation the attempt belongs to. */
+    @Label("Operation")
+    String operation;
+    
+    /** Index of the domain, -1 for pings. */
+    @Label("Domain")
+    int domain;
+    
+    /** Outcome of the attempt. */
+    @Label("Outcome")
+    String outcome;
+    
+    /** Status code of the response, 0 if none was received. */
+    @Label("Status Code")
+    int statusCode;
+    
+    /** Time spent obtaining the access token before sending the request. */
+    @Label("Token Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    long tokenWait;
+}
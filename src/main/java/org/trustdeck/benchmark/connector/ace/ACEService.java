@@ -23,11 +23,13 @@ import java.util.HashMap;
 
 import org.trustdeck.benchmark.connector.PseudonymizationService;
 import org.trustdeck.benchmark.connector.ace.HTTPRequest.HTTPMediaType;
+import org.trustdeck.benchmark.connector.ace.HTTPRequest.HTTPOperation;
 import org.trustdeck.benchmark.connector.ace.HTTPRequest.HTTPRequestType;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
  * This class implements the requests against ACE's API.
@@ -39,16 +41,69 @@ public class ACEService implements PseudonymizationService<ACEToken, ACEDomain,
     /** Mapper. */
     private static final ObjectMapper MAPPER = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     
+    /** Writer. Immutable and thread-safe, hence created only once. */
+    private static final ObjectWriter WRITER = MAPPER.writer();
+    
     /** The service represented by it's base URI. */
     private final URI service;
     
+    /** Time to wait for the response to a create in milliseconds, 0 waits forever. */
+    private final int createTimeout;
+    
+    /** Time to wait for the response to a read in milliseconds, 0 waits forever. */
+    private final int readTimeout;
+    
+    /** Time to wait for the response to an update in milliseconds, 0 waits forever. */
+    private final int updateTimeout;
+    
+    /** Time to wait for the response to a delete in milliseconds, 0 waits forever. */
+    private final int deleteTimeout;
+    
+    /** Time to wait for the response to a ping in milliseconds, 0 waits forever. */
+    private final int pingTimeout;
+    
+    /** Time to wait for the response to a domain operation in milliseconds, 0 waits forever. */
+    private final int domainTimeout;
+    
     /**
-     * Creates a new instance.
+     * Creates a new instance without timeouts.
      * 
      * @param service
      */
     public ACEService(URI service) {
+        this(service, 0, 0, 0, 0, 0, 0);
+    }
+    
+    /**
+     * Creates a new instance with the timeouts of the configuration.
+     * 
+     * @param service
+     * @param config
+     */
+    public ACEService(URI service, ACEConfiguration config) {
+        this(service, config.getCreateTimeout(), config.getReadTimeout(), config.getUpdateTimeout(), 
+             config.getDeleteTimeout(), config.getPingTimeout(), config.getDomainTimeout());
+    }
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param service
+     * @param createTimeout
+     * @param readTimeout
+     * @param updateTimeout
+     * @param deleteTimeout
+     * @param pingTimeout
+     * @param domainTimeout
+     */
+    private ACEService(URI service, int createTimeout, int readTimeout, int updateTimeout, int deleteTimeout, int pingTimeout, int domainTimeout) {
         this.service = service;
+        this.createTimeout = createTimeout;
+        this.readTimeout = readTimeout;
+        this.updateTimeout = updateTimeout;
+        this.deleteTimeout = deleteTimeout;
+        this.pingTimeout = pingTimeout;
+        this.domainTimeout = domainTimeout;
     }
     
     /**
@@ -67,11 +122,11 @@ public class ACEService implements PseudonymizationService<ACEToken, ACEDomain,
                                               "/domain",
                                               HTTPRequestType.POST,
                                               token.getToken(),
-                                              MAPPER.writer().writeValueAsString(domain),
+                                              WRITER.writeValueAsString(domain),
                                               HTTPMediaType.APPLICATION_JSON);
         
         // Execute
-        request.execute();
+        request.withTimeout(domainTimeout).withOperation(HTTPOperation.CREATE_DOMAIN).execute();
     }
     
     /**
@@ -96,7 +151,7 @@ public class ACEService implements PseudonymizationService<ACEToken, ACEDomain,
                                               parameters);
         
         // Execute
-        request.execute();
+        request.withTimeout(domainTimeout).withOperation(HTTPOperation.READ_DOMAIN).execute();
     }
     
     /**
@@ -115,11 +170,11 @@ public class ACEService implements PseudonymizationService<ACEToken, ACEDomain,
                                               "/domain",
                                               HTTPRequestType.PUT,
                                               token.getToken(),
-                                              MAPPER.writer().writeValueAsString(domain),
+                                              WRITER.writeValueAsString(domain),
                                               HTTPMediaType.APPLICATION_JSON);
         
         // Execute
-        request.execute();
+        request.withTimeout(domainTimeout).withOperation(HTTPOperation.UPDATE_DOMAIN).execute();
     }
     
     /**
@@ -143,7 +198,7 @@ public class ACEService implements PseudonymizationService<ACEToken, ACEDomain,
                                               parameters);
         
         // Execute
-        request.execute();
+        request.withTimeout(domainTimeout).withOperation(HTTPOperation.DELETE_DOMAIN).execute();
     }
     
     /**
@@ -207,16 +262,26 @@ public class ACEService implements PseudonymizationService<ACEToken, ACEDomain,
      */
     @Override
     public void createPseudonym(ACEToken token, ACEDomain domain, ACEPseudonym pseudonym) throws URISyntaxException, HTTPException, JsonProcessingException {
-    	// Build the request
-    	HTTPRequest request = new HTTPRequest(service, 
-											  "/domains/" + domain.getName() + "/pseudonym", 
-											  HTTPRequestType.POST, 
-											  token.getToken(), 
-											  MAPPER.writer().writeValueAsString(pseudonym), 
-											  HTTPMediaType.APPLICATION_JSON);
-    	
-    	// Execute
-    	request.execute();
+        createPseudonymRequest(token, domain, pseudonym).execute();
+    }
+    
+    /**
+     * Build the request for {@link #createPseudonym(ACEToken, ACEDomain, ACEPseudonym)} without sending it.
+     * 
+     * @param token
+     * @param domain
+     * @param pseudonym
+     * @return the request
+     * @throws JsonProcessingException
+     */
+    HTTPRequest createPseudonymRequest(ACEToken token, ACEDomain domain, ACEPseudonym pseudonym) throws JsonProcessingException {
+        // Build the request
+        return new HTTPRequest(service, 
+                               "/domains/" + domain.getName() + "/pseudonym", 
+                               HTTPRequestType.POST, 
+                               token.getToken(), 
+                               ACEPseudonymTemplate.serialize(pseudonym, WRITER), 
+                               HTTPMediaType.APPLICATION_JSON).withTimeout(createTimeout).withOperation(HTTPOperation.CREATE);
     }
     
     /**
@@ -231,22 +296,31 @@ public class ACEService implements PseudonymizationService<ACEToken, ACEDomain,
      */
     @Override
     public void readPseudonym(ACEToken token, ACEDomain domain, ACEPseudonym pseudonym) throws URISyntaxException, HTTPException, JsonProcessingException {
+        readPseudonymRequest(token, domain, pseudonym).execute();
+    }
+    
+    /**
+     * Build the request for {@link #readPseudonym(ACEToken, ACEDomain, ACEPseudonym)} without sending it.
+     * 
+     * @param token
+     * @param domain
+     * @param pseudonym
+     * @return the request
+     */
+    HTTPRequest readPseudonymRequest(ACEToken token, ACEDomain domain, ACEPseudonym pseudonym) {
     	// Store query parameters
     	HashMap<String, String> parameters = new HashMap<>();
         parameters.put("id", pseudonym.getId());
         parameters.put("idType", pseudonym.getIdType());
         
         // Build the request
-        HTTPRequest request = new HTTPRequest(service, 
-											  "/domains/" + domain.getName() + "/pseudonym", 
-											  HTTPRequestType.GET, 
-											  token.getToken(),
-											  parameters);
-        
-        // Execute
-        request.execute();
+        return new HTTPRequest(service, 
+                               "/domains/" + domain.getName() + "/pseudonym", 
+                               HTTPRequestType.GET, 
+                               token.getToken(), 
+                               parameters).withTimeout(readTimeout).withOperation(HTTPOperation.READ);
     }
-
+    
     /**
      * Update pseudonym.
      * 
@@ -259,22 +333,32 @@ public class ACEService implements PseudonymizationService<ACEToken, ACEDomain,
      */
     @Override
     public void updatePseudonym(ACEToken token, ACEDomain domain, ACEPseudonym pseudonym) throws URISyntaxException, HTTPException, JsonProcessingException {
+        updatePseudonymRequest(token, domain, pseudonym).execute();
+    }
+    
+    /**
+     * Build the request for {@link #updatePseudonym(ACEToken, ACEDomain, ACEPseudonym)} without sending it.
+     * 
+     * @param token
+     * @param domain
+     * @param pseudonym
+     * @return the request
+     * @throws JsonProcessingException
+     */
+    HTTPRequest updatePseudonymRequest(ACEToken token, ACEDomain domain, ACEPseudonym pseudonym) throws JsonProcessingException {
     	// Store query parameters
     	HashMap<String, String> parameters = new HashMap<>();
         parameters.put("id", pseudonym.getId());
         parameters.put("idType", pseudonym.getIdType());
         
         // Build the request
-        HTTPRequest request = new HTTPRequest(service, 
-        									  "/domains/" + domain.getName() + "/pseudonym", 
-        									  HTTPRequestType.PUT, 
-        									  token.getToken(), 
-        									  MAPPER.writer().writeValueAsString(pseudonym), 
-        									  HTTPMediaType.APPLICATION_JSON,
-        									  parameters);
-        
-        // Execute
-        request.execute();
+        return new HTTPRequest(service, 
+                               "/domains/" + domain.getName() + "/pseudonym", 
+                               HTTPRequestType.PUT, 
+                               token.getToken(), 
+                               ACEPseudonymTemplate.serialize(pseudonym, WRITER), 
+                               HTTPMediaType.APPLICATION_JSON,
+                               parameters).withTimeout(updateTimeout).withOperation(HTTPOperation.UPDATE);
     }
     
     /**
@@ -289,20 +373,29 @@ public class ACEService implements PseudonymizationService<ACEToken, ACEDomain,
      */
     @Override
     public void deletePseudonym(ACEToken token, ACEDomain domain, ACEPseudonym pseudonym) throws URISyntaxException, HTTPException, JsonProcessingException {
+        deletePseudonymRequest(token, domain, pseudonym).execute();
+    }
+    
+    /**
+     * Build the request for {@link #deletePseudonym(ACEToken, ACEDomain, ACEPseudonym)} without sending it.
+     * 
+     * @param token
+     * @param domain
+     * @param pseudonym
+     * @return the request
+     */
+    HTTPRequest deletePseudonymRequest(ACEToken token, ACEDomain domain, ACEPseudonym pseudonym) {
     	// Store query parameters
     	HashMap<String, String> parameters = new HashMap<>();
         parameters.put("id", pseudonym.getId());
         parameters.put("idType", pseudonym.getIdType());
         
         // Build the request
-        HTTPRequest request = new HTTPRequest(service, 
-        									  "/domains/" + domain.getName() + "/pseudonym", 
-        									  HTTPRequestType.DELETE, 
-        									  token.getToken(),
-        									  parameters);
-        
-        // Execute
-        request.execute();
+        return new HTTPRequest(service, 
+                               "/domains/" + domain.getName() + "/pseudonym", 
+                               HTTPRequestType.DELETE, 
+                               token.getToken(), 
+                               parameters).withTimeout(deleteTimeout).withOperation(HTTPOperation.DELETE);
     }
     
     /**
@@ -315,10 +408,16 @@ public class ACEService implements PseudonymizationService<ACEToken, ACEDomain,
      */
     @Override
     public void ping(ACEToken token) throws URISyntaxException, HTTPException, JsonProcessingException {
-    	// Build the request
-    	HTTPRequest request = new HTTPRequest(service, "/ping", HTTPRequestType.GET, token.getToken(), null);
-        
-        // Execute
-        request.execute();
+        pingRequest(token).execute();
+    }
+    
+    /**
+     * Build the request for {@link #ping(ACEToken)} without sending it.
+     * 
+     * @param token
+     * @return the request
+     */
+    HTTPRequest pingRequest(ACEToken token) {
+        return new HTTPRequest(service, "/ping", HTTPRequestType.GET, token.getToken(), null).withTimeout(pingTimeout).withOperation(HTTPOperation.PING);
     }
 }
@@ -19,14 +19,17 @@ package org.trustdeck.benchmark.connector.ace;
 import org.trustdeck.benchmark.connector.Token;
 
 /**
- * Authentication token.
+ * Authentication token. Immutable, so that it can be shared between threads.
  * 
  * @author Fabian Prasser
  */
 public class ACEToken implements Token<String> {
    
     /** Authentication token. */
-    private String token;
+    private final String token;
+    
+    /** Expiry time of the token in Unix time (in milliseconds). */
+    private final long expiryTime;
     
     /**
      * Create a new instance.
@@ -34,11 +37,41 @@ public class ACEToken implements Token<String> {
      * @param token
      */
     public ACEToken(String token) {
+        this(token, Long.MAX_VALUE);
+    }
+    
+    /**
+     * Create a new instance.
+     * 
+     * @param token
+     * @param expiryTime expiry time in Unix time (in milliseconds)
+     */
+    public ACEToken(String token, long expiryTime) {
         this.token = token;
+        this.expiryTime = expiryTime;
     }
 
     @Override
     public String getToken() {
         return this.token;
     }
+    
+    /**
+     * Returns the expiry time.
+     * 
+     * @return the expiry time in Unix time (in milliseconds)
+     */
+    public long getExpiryTime() {
+        return this.expiryTime;
+    }
+    
+    /**
+     * Whether the token is still valid at the given time.
+     * 
+     * @param time Unix time (in milliseconds)
+     * @return {@code true} if the token has not yet expired
+     */
+    public boolean isValid(long time) {
+        return time < this.expiryTime;
+    }
 }
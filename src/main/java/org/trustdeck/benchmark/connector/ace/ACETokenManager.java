@@ -16,146 +16,335 @@
  */
 package org.trustdeck.benchmark.connector.ace;
 
-import java.io.InputStream;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.token.TokenManager;
 import org.keycloak.representations.AccessTokenResponse;
-import org.trustdeck.benchmark.Main;
-import org.yaml.snakeyaml.Yaml;
+import org.trustdeck.benchmark.connector.ace.ACEConfiguration.Credentials;
 
 /**
  * Singleton class that handles retrieving and refreshing access tokens from keycloak.
+ * Tokens are refreshed proactively by a background thread, well before they expire, and
+ * published as immutable {@link ACEToken} objects. Worker threads thus only perform a
+ * volatile read. They refresh synchronously only if the background refresh fell behind.
+ * <p>
+ * Besides the configured primary user, which is used for preparing the benchmark, a pool of
+ * identities can be configured to emulate many clients. Each identity has its own token, which
+ * is refreshed independently. Connectors are assigned to the identities round-robin.
  * 
  * @author Armin Müller
  */
 public class ACETokenManager {
 
-	/** Singleton instance of the ACE token manager. */
-    private static ACETokenManager instance;
+    /** Singleton instance of the ACE token manager. */
+    private static final ACETokenManager INSTANCE = new ACETokenManager();
     
-    /** Lock used to ensure that only one thread refreshes a token simultaneously. */
-    private static final ReentrantLock lock = new ReentrantLock();
-
-    /** Instance of the keycloak object used to handle communication with keycloak. */
-    private volatile Keycloak keycloakInstance;
+    /** Minimal time between the refresh and the expiry of a token in milliseconds. */
+    private static final long MIN_REFRESH_MARGIN = 10000L;
+    
+    /** Delay before retrying a failed background refresh in milliseconds. */
+    private static final long RETRY_DELAY = 1000L;
+    
+    /** Scheduler for proactive background refreshes. */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ace-token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    /** The currently valid access token. */
-    private volatile String accessToken;
+    /** Metrics about authentication overhead. */
+    private final ACETokenMetrics metrics = new ACETokenMetrics();
+    
+    /** Counter used for assigning identities round-robin. */
+    private final AtomicInteger assignments = new AtomicInteger();
 
-    /** Expiry time of the access token in Unix time (in milliseconds). */
-    private long tokenExpiryTime;
+    /** The primary identity, used for administrative requests. */
+    private volatile Identity primary;
+    
+    /** The pool of identities used by the workers. */
+    private volatile Identity[] pool;
 
     // Private constructor to prevent direct instantiation
     private ACETokenManager() {}
 
     /**
-     *  Get or create the singleton token manager instance.
+     *  Get the singleton token manager instance.
      *  @return the singleton instance
      */
     public static ACETokenManager getInstance() {
-    	// Double checked locking to ensure this will only be created once.
-        if (instance == null) {
-            synchronized (ACETokenManager.class) {
-                if (instance == null) {
-                    instance = new ACETokenManager();
-                }
-            }
-        }
-        
-        return instance;
+        return INSTANCE;
     }
 
     /**
-     * Initialize the token manager by creating a keycloak instance object.
-     * This is used to handle communication between the benchmark and the keycloak API.
+     * Initialize the token manager by creating keycloak instance objects.
+     * These are used to handle communication between the benchmark and the keycloak API.
+     * Retrieves the first tokens and schedules their refresh.
+     * 
+     * @param config the configuration
      */
-    public synchronized void initialize() {
+    public synchronized void initialize(ACEConfiguration config) {
     	// Check if keycloak was already initialized
-        if (this.keycloakInstance != null) {
+        if (this.primary != null) {
             throw new IllegalStateException("ACETokenManager is already initialized.");
         }
         
-        // Extract the configuration from the loaded configuration file
-        Yaml yaml = new Yaml();
-        InputStream inputStream = Main.class.getClassLoader().getResourceAsStream("config.yaml");
-        Map<String, Object> yamlConfig = yaml.load(inputStream);
-        @SuppressWarnings("unchecked")
-        Map<String, String> toolConfig = (Map<String, String>) yamlConfig.get("trustdeck");
+        // Create the identities and obtain the first tokens, which also schedules the next refreshes
+        Identity primary = new Identity(config, config.getUser());
+        primary.initialize();
+        List<Identity> pool = new ArrayList<>();
+        for (Credentials credentials : config.getIdentities()) {
+            if (credentials == config.getUser()) {
+                pool.add(primary);
+            } else {
+                Identity identity = new Identity(config, credentials);
+                identity.initialize();
+                pool.add(identity);
+            }
+        }
         
-        // Create the Keycloak instance
-        this.keycloakInstance = Keycloak.getInstance(
-        		toolConfig.get("keycloakAuthUri"),
-        		toolConfig.get("keycloakRealmName"),
-        		toolConfig.get("username"),
-        		toolConfig.get("password"),
-        		toolConfig.get("clientId"),
-        		toolConfig.get("clientSecret")
-        );
+        // Publish
+        this.pool = pool.toArray(new Identity[pool.size()]);
+        this.primary = primary;
+    }
+    
+    /**
+     * Whether the token manager has been initialized.
+     * 
+     * @return {@code true} if tokens are available
+     */
+    public boolean isInitialized() {
+        return this.primary != null;
+    }
+    
+    /**
+     * Assigns the next identity from the pool round-robin.
+     * 
+     * @return a handle to be passed to {@link #getAccessToken(int)}
+     */
+    public int assignIdentity() {
+        return assignments.getAndIncrement() & Integer.MAX_VALUE;
+    }
+    
+    /**
+     * Returns the number of identities in the pool.
+     * 
+     * @return the number of identities
+     */
+    public int getNumberOfIdentities() {
+        Identity[] pool = this.pool;
+        return pool == null ? 0 : pool.length;
     }
 
     /**
-     * Get a valid token.
+     * Get a valid token of the primary identity.
      * 
      * @return the access token as a String
      */
     public String getToken() {
-    	// Check if a keycloak instance object is available
-        if (keycloakInstance == null) {
-            throw new IllegalStateException("ACETokenManager is not initialized.");
-        }
+        return getAccessToken().getToken();
+    }
 
-        // Check if the current token is still valid
-        if (isTokenValid()) {
-            return accessToken;
+    /**
+     * Get a valid token of the primary identity.
+     * This is a single volatile read unless the background refresh fell behind.
+     * 
+     * @return the access token
+     */
+    public ACEToken getAccessToken() {
+        Identity primary = this.primary;
+        if (primary == null) {
+            throw new IllegalStateException("ACETokenManager is not initialized.");
         }
+        return primary.getAccessToken();
+    }
 
-        // Refresh the token in a thread-safe way
-        lock.lock();
-        try {
-        	// Double-check inside the lock
-            if (!isTokenValid()) {
-                refreshAccessToken();
-            }
-            
-            return accessToken;
-        } finally {
-            lock.unlock();
+    /**
+     * Get a valid token of an identity from the pool.
+     * This is a single volatile read unless the background refresh fell behind.
+     * 
+     * @param identity handle obtained from {@link #assignIdentity()}
+     * @return the access token
+     */
+    public ACEToken getAccessToken(int identity) {
+        Identity[] pool = this.pool;
+        if (pool == null) {
+            throw new IllegalStateException("ACETokenManager is not initialized.");
         }
+        return pool[identity % pool.length].getAccessToken();
     }
 
     /**
-     * Check if the current token is still valid if there is one.
+     * Returns the metrics about authentication overhead.
      * 
-     * @return {@code true} if there is an access token available and it's not yet expired, {@code false} otherwise
+     * @return the metrics
      */
-    private boolean isTokenValid() {
-        return accessToken != null && System.currentTimeMillis() < tokenExpiryTime;
+    public ACETokenMetrics getMetrics() {
+        return metrics;
     }
-
+    
     /**
-     * Refresh the access token or create a new one if necessary.
+     * A user with its own token, which is refreshed independently.
      */
-    private void refreshAccessToken() {
-        TokenManager tokenManager = keycloakInstance.tokenManager();
-        long expiresIn = 0;
+    private class Identity {
+        
+        /** Lock used to ensure that only one thread refreshes the token simultaneously. */
+        private final ReentrantLock lock = new ReentrantLock();
+        
+        /** Instance of the keycloak object used to handle communication with keycloak. */
+        private final Keycloak keycloakInstance;
+        
+        /** Name of the user. */
+        private final String username;
         
-    	try {
-            AccessTokenResponse response = tokenManager.refreshToken();
-            this.accessToken = response.getToken();
-            expiresIn = response.getExpiresIn();
-        } catch (NullPointerException e) {
-        	// The keycloak code contains a bug: we need to catch this NPE here when there was no token previously generated
-            AccessTokenResponse response = tokenManager.grantToken();
-            this.accessToken = response.getToken();
-            expiresIn = response.getExpiresIn();
-    	} catch (Exception f) {
-            throw new RuntimeException("Failed to refresh the token: " + f.getMessage(), f);
+        /** The next scheduled background refresh. Guarded by the lock. */
+        private ScheduledFuture<?> nextRefresh;
+
+        /** The currently valid access token. */
+        private volatile ACEToken accessToken;
+        
+        /**
+         * Creates a new instance.
+         * 
+         * @param config
+         * @param credentials
+         */
+        private Identity(ACEConfiguration config, Credentials credentials) {
+            this.username = credentials.getUsername();
+            this.keycloakInstance = Keycloak.getInstance(
+                    config.getKeycloakAuthUri(),
+                    config.getKeycloakRealmName(),
+                    credentials.getUsername(),
+                    credentials.getPassword(),
+                    config.getClientId(),
+                    config.getClientSecret()
+            );
+        }
+        
+        /**
+         * Obtains the first token, which also schedules the next refresh.
+         */
+        private void initialize() {
+            lock.lock();
+            try {
+                refreshAccessToken();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Get a valid token.
+         * 
+         * @return the access token
+         */
+        private ACEToken getAccessToken() {
+            // Fast path
+            ACEToken token = this.accessToken;
+            if (token != null && token.isValid(System.currentTimeMillis())) {
+                return token;
+            }
+    
+            // Refresh the token in a thread-safe way
+            long waitStart = System.nanoTime();
+            lock.lock();
+            metrics.addLockWait(System.nanoTime() - waitStart);
+            try {
+            	// Double-check inside the lock
+                token = this.accessToken;
+                if (token == null || !token.isValid(System.currentTimeMillis())) {
+                    token = refreshAccessToken();
+                }
+                
+                return token;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Background refresh. Retries shortly if the refresh failed.
+         */
+        private void refreshInBackground() {
+            lock.lock();
+            try {
+                refreshAccessToken();
+            } catch (RuntimeException e) {
+                // Keep the current token and try again. Workers refresh synchronously if it expires in the meantime.
+                nextRefresh = scheduler.schedule(this::refreshInBackground, RETRY_DELAY, TimeUnit.MILLISECONDS);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Refresh the access token or create a new one if necessary. Publishes the new
+         * token and schedules its proactive refresh. Must be called while holding the lock.
+         * 
+         * @return the new token
+         */
+        private ACEToken refreshAccessToken() {
+            TokenManager tokenManager = keycloakInstance.tokenManager();
+            AccessTokenResponse response;
+            long refreshStart = System.nanoTime();
+            ACETokenRefreshEvent event = new ACETokenRefreshEvent();
+            event.begin();
+            
+        	try {
+                response = tokenManager.refreshToken();
+            } catch (NullPointerException e) {
+            	// The keycloak code contains a bug: we need to catch this NPE here when there was no token previously generated
+                try {
+                    response = tokenManager.grantToken();
+                } catch (RuntimeException f) {
+                    metrics.addRefresh(System.nanoTime() - refreshStart, false);
+                    commit(event, false);
+                    throw new RuntimeException("Failed to grant a token: " + f.getMessage(), f);
+                }
+        	} catch (Exception f) {
+                metrics.addRefresh(System.nanoTime() - refreshStart, false);
+                commit(event, false);
+                throw new RuntimeException("Failed to refresh the token: " + f.getMessage(), f);
+            }
+            metrics.addRefresh(System.nanoTime() - refreshStart, true);
+            commit(event, true);
+        	
+        	// Reduce the validity by 10 seconds, so that tokens are never used right before they expire. Convert seconds to milliseconds.
+        	long now = System.currentTimeMillis();
+        	long lifetime = Math.max(0L, (response.getExpiresIn() - 10) * 1000L);
+            ACEToken token = new ACEToken(response.getToken(), now + lifetime);
+            this.accessToken = token;
+            
+            // Refresh well before expiry: after two thirds of the lifetime, but at least 10 seconds before
+            long delay = Math.max(RETRY_DELAY, Math.min(lifetime * 2 / 3, lifetime - MIN_REFRESH_MARGIN));
+            if (nextRefresh != null) {
+                nextRefresh.cancel(false);
+            }
+            nextRefresh = scheduler.schedule(this::refreshInBackground, delay, TimeUnit.MILLISECONDS);
+            
+            return token;
+        }
+        
+        /**
+         * Commits the flight recorder event of a refresh, if it is recorded.
+         * 
+         * @param event
+         * @param success
+         */
+        private void commit(ACETokenRefreshEvent event, boolean success) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.username = username;
+                event.success = success;
+                event.commit();
+            }
         }
-    	
-    	// Reduce time to next refresh by 10 seconds, so we always preemptively refresh. Convert seconds to milliseconds.
-        this.tokenExpiryTime = System.currentTimeMillis() + ((expiresIn - 10) * 1000L);
     }
 }
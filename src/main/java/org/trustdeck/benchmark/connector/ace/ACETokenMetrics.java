@@ -0,0 +1,183 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.ace;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics about the time spent on authentication, i.e., on retrieving tokens from
+ * keycloak rather than on requests against ACE. Recording is thread safe.
+ * 
+ * @author Armin Müller
+ */
+public class ACETokenMetrics {
+
+    /** Number of calls to authenticate. */
+    private final LongAdder authentications = new LongAdder();
+    
+    /** Time spent in authenticate in nanoseconds. */
+    private final LongAdder authenticationTime = new LongAdder();
+    
+    /** Number of token refreshes. */
+    private final LongAdder refreshes = new LongAdder();
+    
+    /** Number of failed token refreshes. */
+    private final LongAdder refreshFailures = new LongAdder();
+    
+    /** Time spent refreshing tokens in nanoseconds. */
+    private final LongAdder refreshTime = new LongAdder();
+    
+    /** Maximal refresh latency in nanoseconds since the last report. */
+    private final LongAccumulator maxRefreshTime = new LongAccumulator(Math::max, 0L);
+    
+    /** Number of times a worker waited for the refresh lock. */
+    private final LongAdder lockWaits = new LongAdder();
+    
+    /** Time workers spent waiting for the refresh lock in nanoseconds. */
+    private final LongAdder lockWaitTime = new LongAdder();
+    
+    /** Start time of the current benchmark run. */
+    private long startTime = 0;
+    
+    /** Last time the metrics were reported. */
+    private long lastTime = 0;
+    
+    /** Values from last report. */
+    private long lastAuthentications, lastAuthenticationTime, lastRefreshes, lastRefreshFailures, lastRefreshTime, lastLockWaits, lastLockWaitTime;
+
+    /**
+     * Performance tracking. Thread safe.
+     * 
+     * @param nanos time spent in authenticate
+     */
+    void addAuthentication(long nanos) {
+        this.authentications.increment();
+        this.authenticationTime.add(nanos);
+    }
+    
+    /**
+     * Performance tracking. Thread safe.
+     * 
+     * @param nanos time spent refreshing
+     * @param success whether the refresh succeeded
+     */
+    void addRefresh(long nanos, boolean success) {
+        this.refreshes.increment();
+        this.refreshTime.add(nanos);
+        this.maxRefreshTime.accumulate(nanos);
+        if (!success) {
+            this.refreshFailures.increment();
+        }
+    }
+    
+    /**
+     * Performance tracking. Thread safe.
+     * 
+     * @param nanos time a worker waited for the refresh lock
+     */
+    void addLockWait(long nanos) {
+        this.lockWaits.increment();
+        this.lockWaitTime.add(nanos);
+    }
+    
+    /**
+     * Starts reporting for a new benchmark run. NOT thread safe.
+     * 
+     * @param startTime start time of the run
+     */
+    public void start(long startTime) {
+        this.startTime = startTime;
+        this.lastTime = 0;
+        this.lastAuthentications = authentications.sum();
+        this.lastAuthenticationTime = authenticationTime.sum();
+        this.lastRefreshes = refreshes.sum();
+        this.lastRefreshFailures = refreshFailures.sum();
+        this.lastRefreshTime = refreshTime.sum();
+        this.lastLockWaits = lockWaits.sum();
+        this.lastLockWaitTime = lockWaitTime.sum();
+        this.maxRefreshTime.reset();
+    }
+
+    /**
+     * Reporting. NOT thread safe.
+     * 
+     * @param writer
+     * @throws IOException
+     */
+    public void report(Writer writer) throws IOException {
+        
+        // Collect data
+        long currentTime = System.currentTimeMillis();
+        long currentAuthentications = authentications.sum();
+        long currentAuthenticationTime = authenticationTime.sum();
+        long currentRefreshes = refreshes.sum();
+        long currentRefreshFailures = refreshFailures.sum();
+        long currentRefreshTime = refreshTime.sum();
+        long currentLockWaits = lockWaits.sum();
+        long currentLockWaitTime = lockWaitTime.sum();
+        long currentMaxRefreshTime = maxRefreshTime.getThenReset();
+        
+        // Derive parameters
+        long numAuthentications = currentAuthentications - lastAuthentications;
+        long numRefreshes = currentRefreshes - lastRefreshes;
+        double avgAuthentication = numAuthentications == 0 ? 0d : (double)(currentAuthenticationTime - lastAuthenticationTime) / (double) numAuthentications;
+        
+        // Print header
+        if (lastTime == 0) {
+            StringBuilder builder = new StringBuilder();
+            builder.append("Time").append(";");
+            builder.append("Num authentications").append(";");
+            builder.append("Avg authentication ns").append(";");
+            builder.append("Num refreshes").append(";");
+            builder.append("Num refresh failures").append(";");
+            builder.append("Refresh time ms").append(";");
+            builder.append("Max refresh ms").append(";");
+            builder.append("Num blocked workers").append(";");
+            builder.append("Blocked time ms").append(";");
+            builder.append("Refresh in interval").append("\n");
+            writer.write(builder.toString());
+        }
+        
+        // Print parameters
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.valueOf((double)(currentTime - startTime)/1000d).replace('.', ',')).append(";");
+        builder.append(numAuthentications).append(";");
+        builder.append((long) avgAuthentication).append(";");
+        builder.append(numRefreshes).append(";");
+        builder.append(currentRefreshFailures - lastRefreshFailures).append(";");
+        builder.append((currentRefreshTime - lastRefreshTime) / 1000000L).append(";");
+        builder.append(currentMaxRefreshTime / 1000000L).append(";");
+        builder.append(currentLockWaits - lastLockWaits).append(";");
+        builder.append((currentLockWaitTime - lastLockWaitTime) / 1000000L).append(";");
+        builder.append(numRefreshes > 0 ? "yes" : "no").append("\n");
+        writer.write(builder.toString());
+        
+        // Store
+        this.lastTime = currentTime;
+        this.lastAuthentications = currentAuthentications;
+        this.lastAuthenticationTime = currentAuthenticationTime;
+        this.lastRefreshes = currentRefreshes;
+        this.lastRefreshFailures = currentRefreshFailures;
+        this.lastRefreshTime = currentRefreshTime;
+        this.lastLockWaits = currentLockWaits;
+        this.lastLockWaitTime = currentLockWaitTime;
+    }
+}
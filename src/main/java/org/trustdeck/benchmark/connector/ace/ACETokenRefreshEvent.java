@@ -0,0 +1,44 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.ace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for refreshing or granting an access token at keycloak.
+ * 
+ * @author Armin Müller
+ */
+@Name("org.trustdeck.benchmark.TokenRefresh")
+@Label("Token Refresh")
+@Category({"ACE Benchmark"})
+@Description("An access token obtained from keycloak")
+class ACETokenRefreshEvent extends Event {
+    
+    /** Name of the user. */
+    @Label("User")
+    String username;
+    
+    /** Whether the refresh succeeded. */
+    @Label("Success")
+    boolean success;
+}
@@ -16,11 +16,22 @@
  */
 package org.trustdeck.benchmark.connector.ace;
 
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.apache.connector.ApacheHttpClientBuilderConfigurator;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 
 /**
  * Singleton class for managing the client object needed for generating requests.
+ * Requests are sent through a pool of persistent connections, instrumented to record
+ * the phases of each request.
  * 
  * @author Armin Müller
  */
@@ -28,6 +39,15 @@ public class HTTPClientManager {
     
 	/** The web client object needed to create requests. */
     private static volatile Client client;
+    
+    /** Time to wait for a connection to be established in milliseconds, 0 waits forever. */
+    private static volatile int connectTimeout = 0;
+    
+    /** Maximal number of pooled connections, 0 for no limit. */
+    private static volatile int maxConnections = 0;
+    
+    /** Phases of the requests sent by all clients. */
+    private static final HTTPPhaseMetrics PHASE_METRICS = new HTTPPhaseMetrics();
 
     /**
      *  Private constructor prevents instantiation.
@@ -45,7 +65,17 @@ public class HTTPClientManager {
     	if (client == null) {
             synchronized (HTTPClientManager.class) {
                 if (client == null) {
-                    client = ClientBuilder.newClient();
+                    // Instrumented pool and executor, and deadlines. Retries are left to the driver, so that they are counted.
+                    HTTPPhaseConnectionManager pool = new HTTPPhaseConnectionManager(PHASE_METRICS, maxConnections);
+                    PHASE_METRICS.setPool(pool);
+                    ClientConfig config = new ClientConfig()
+                            .connectorProvider(new ApacheConnectorProvider())
+                            .property(ApacheClientProperties.CONNECTION_MANAGER, pool)
+                            .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.BUFFERED)
+                            .register((ApacheHttpClientBuilderConfigurator) builder -> builder.setRequestExecutor(new HTTPPhaseRequestExecutor(PHASE_METRICS))
+                                                                                               .addInterceptorFirst(new HTTPDeadlineInterceptor())
+                                                                                               .disableAutomaticRetries());
+                    client = ClientBuilder.newBuilder().withConfig(config).connectTimeout(connectTimeout, TimeUnit.MILLISECONDS).build();
                 }
             }
         }
@@ -53,6 +83,34 @@ public class HTTPClientManager {
         return client;
     }
 
+    /**
+     * Sets the time to wait for a connection. Applies to clients created afterwards.
+     * 
+     * @param timeout in milliseconds, 0 waits forever
+     */
+    static void setConnectTimeout(int timeout) {
+        connectTimeout = timeout;
+    }
+
+    /**
+     * Sets the maximal number of pooled connections. Applies to clients created afterwards.
+     * 
+     * @param connections maximal number, 0 for no limit
+     */
+    static void setMaxConnections(int connections) {
+        maxConnections = connections;
+    }
+
+    
+    /**
+     * Returns the metrics about the phases of requests.
+     * 
+     * @return the metrics
+     */
+    public static HTTPPhaseMetrics getPhaseMetrics() {
+        return PHASE_METRICS;
+    }
+
     /**
      * Closes the client and unsets the class object.
      */
@@ -0,0 +1,128 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trustdeck.benchmark.connector.ace;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpRequestWrapper;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Enforces the deadline of the request sent by the current thread, which still sends it itself.
+ * Before a connection is requested from the pool, the time to wait for it is limited to the time
+ * left, and the request is scheduled to be aborted when the deadline passes, which closes its
+ * connection if the exchange is still in progress.
+ * 
+ * @author Armin Müller
+ */
+class HTTPDeadlineInterceptor implements HttpRequestInterceptor {
+    
+    /** Aborts requests whose deadline has passed. */
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "http-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /** Deadline of the request sent by the current thread, null if it has none. */
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    
+    /**
+     * Deadline of a single request.
+     */
+    private static class Deadline {
+        
+        /** When the deadline passes, in nanoseconds. */
+        private final long due;
+        
+        /** The scheduled abort, null until the request is sent. */
+        private ScheduledFuture<?> abort;
+        
+        /** Whether the request has been aborted. */
+        private volatile boolean expired;
+        
+        /**
+         * Creates a new instance.
+         * 
+         * @param due in nanoseconds
+         */
+        private Deadline(long due) {
+            this.due = due;
+        }
+    }
+    
+    /**
+     * Sets the deadline of the next request sent by the current thread.
+     * 
+     * @param timeout in milliseconds, 0 waits forever
+     */
+    static void begin(int timeout) {
+        CURRENT.set(timeout > 0 ? new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout)) : null);
+    }
+    
+    /**
+     * Clears the deadline of the request sent by the current thread, cancelling its abort.
+     * 
+     * @return {@code true} if the request has been aborted because its deadline passed
+     */
+    static boolean end() {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return false;
+        }
+        CURRENT.set(null);
+        if (deadline.abort != null) {
+            deadline.abort.cancel(false);
+        }
+        return deadline.expired;
+    }
+    
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null || deadline.abort != null) {
+            return;
+        }
+        long remaining = Math.max(1L, deadline.due - System.nanoTime());
+        
+        // Wait for a pooled connection at most until the deadline
+        HttpClientContext clientContext = HttpClientContext.adapt(context);
+        RequestConfig config = clientContext.getRequestConfig();
+        int limit = (int) Math.max(1L, TimeUnit.NANOSECONDS.toMillis(remaining));
+        if (config.getConnectionRequestTimeout() <= 0 || config.getConnectionRequestTimeout() > limit) {
+            clientContext.setRequestConfig(RequestConfig.copy(config).setConnectionRequestTimeout(limit).build());
+        }
+        
+        // Abort the exchange when the deadline passes, the original request is the one that can be aborted
+        HttpRequest original = request instanceof HttpRequestWrapper ? ((HttpRequestWrapper) request).getOriginal() : request;
+        if (original instanceof HttpUriRequest) {
+            HttpUriRequest abortable = (HttpUriRequest) original;
+            deadline.abort = SCHEDULER.schedule(() -> {
+                deadline.expired = true;
+                abortable.abort();
+            }, remaining, TimeUnit.NANOSECONDS);
+        }
+    }
+}
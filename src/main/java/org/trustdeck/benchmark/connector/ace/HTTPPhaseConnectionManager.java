@@ -0,0 +1,89 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.ace;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.trustdeck.benchmark.connector.ace.HTTPPhaseMetrics.Phase;
+
+/**
+ * Connection pool that measures how long requests wait for a pooled connection and how long
+ * it takes to establish new connections, including the TLS handshake.
+ * 
+ * @author Armin Müller
+ */
+class HTTPPhaseConnectionManager extends PoolingHttpClientConnectionManager {
+    
+    /** The metrics. */
+    private final HTTPPhaseMetrics metrics;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param metrics the metrics to record to
+     * @param maxConnections maximal number of connections, 0 for no limit
+     */
+    HTTPPhaseConnectionManager(HTTPPhaseMetrics metrics, int maxConnections) {
+        this.metrics = metrics;
+        
+        // All requests go to the same route, so that both limits are the same
+        int max = maxConnections > 0 ? maxConnections : Integer.MAX_VALUE;
+        setMaxTotal(max);
+        setDefaultMaxPerRoute(max);
+    }
+    
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest request = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return request.get(timeout, unit);
+                } finally {
+                    metrics.add(Phase.ACQUIRE, System.nanoTime() - start);
+                }
+            }
+            
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+    
+    @Override
+    public void connect(HttpClientConnection connection, HttpRoute route, int connectTimeout, HttpContext context) throws IOException {
+        long start = System.nanoTime();
+        try {
+            super.connect(connection, route, connectTimeout, context);
+        } finally {
+            metrics.add(Phase.CONNECT, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.ace;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.trustdeck.benchmark.Histogram;
+import org.trustdeck.benchmark.connector.ace.HTTPRequest.HTTPOperation;
+
+/**
+ * Metrics about where the time of requests against ACE is spent: waiting for a pooled connection,
+ * establishing a new connection (TCP and TLS), sending the request, waiting for the first byte of
+ * the response, and reading the response body. Phases are collected per thread while a request
+ * is executed and recorded per operation when it completes. Recording is thread safe.
+ * 
+ * @author Armin Müller
+ */
+public class HTTPPhaseMetrics {
+    
+    /**
+     * Phases of a request.
+     */
+    enum Phase {
+        ACQUIRE("Acquire"),
+        CONNECT("Connect"),
+        SEND("Send"),
+        WAIT("TTFB"),
+        READ("Read");
+        
+        /** Label used in the report. */
+        private final String label;
+        
+        /**
+         * Creates a new instance.
+         * 
+         * @param label
+         */
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+    
+    /** Phases. */
+    private static final Phase[] PHASES = Phase.values();
+    
+    /** Operations. */
+    private static final HTTPOperation[] OPERATIONS = HTTPOperation.values();
+    
+    /** Durations per operation and phase in nanoseconds. */
+    private final Histogram[][] phases = new Histogram[OPERATIONS.length][PHASES.length];
+    
+    /** Number of requests per operation. */
+    private final LongAdder[] requests = new LongAdder[OPERATIONS.length];
+    
+    /** Number of new connections per operation. */
+    private final LongAdder[] connections = new LongAdder[OPERATIONS.length];
+    
+    /** Durations of the phases of the request currently executed by a thread, -1 if a phase did not happen. */
+    private final ThreadLocal<long[]> current = ThreadLocal.withInitial(() -> new long[PHASES.length]);
+    
+    /** The pool whose usage is reported, null if unknown. */
+    private volatile PoolingHttpClientConnectionManager pool;
+    
+    /** Start time of the current benchmark run. */
+    private long startTime = 0;
+    
+    /** Last time the metrics were reported. */
+    private long lastTime = 0;
+    
+    /** Values from last report. */
+    private long[] lastRequests = new long[OPERATIONS.length];
+    
+    /** Values from last report. */
+    private long[] lastConnections = new long[OPERATIONS.length];
+    
+    /** Values from last report. */
+    private long[][][] lastPhases = new long[OPERATIONS.length][PHASES.length][];
+    
+    /**
+     * Creates a new instance.
+     */
+    HTTPPhaseMetrics() {
+        for (int operation = 0; operation < OPERATIONS.length; operation++) {
+            requests[operation] = new LongAdder();
+            connections[operation] = new LongAdder();
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                phases[operation][phase] = new Histogram();
+            }
+        }
+    }
+    
+    /**
+     * Sets the pool whose usage is reported.
+     * 
+     * @param pool
+     */
+    void setPool(PoolingHttpClientConnectionManager pool) {
+        this.pool = pool;
+    }
+    
+    /**
+     * Starts collecting the phases of a request executed by the current thread.
+     */
+    void begin() {
+        Arrays.fill(current.get(), -1L);
+    }
+    
+    /**
+     * Adds time to a phase of the request executed by the current thread.
+     * 
+     * @param phase
+     * @param nanos
+     */
+    void add(Phase phase, long nanos) {
+        long[] durations = current.get();
+        durations[phase.ordinal()] = Math.max(0L, durations[phase.ordinal()]) + nanos;
+    }
+    
+    /**
+     * Records the phases of the request executed by the current thread. Thread safe.
+     * 
+     * @param operation the operation the request belongs to
+     */
+    void end(HTTPOperation operation) {
+        long[] durations = current.get();
+        requests[operation.ordinal()].increment();
+        if (durations[Phase.CONNECT.ordinal()] >= 0L) {
+            connections[operation.ordinal()].increment();
+        }
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            if (durations[phase] >= 0L) {
+                phases[operation.ordinal()][phase].record(durations[phase]);
+            }
+        }
+    }
+    
+    /**
+     * Starts reporting for a new benchmark run. NOT thread safe.
+     * 
+     * @param startTime start time of the run
+     */
+    public void start(long startTime) {
+        this.startTime = startTime;
+        this.lastTime = 0;
+        for (int operation = 0; operation < OPERATIONS.length; operation++) {
+            this.lastRequests[operation] = requests[operation].sum();
+            this.lastConnections[operation] = connections[operation].sum();
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                this.lastPhases[operation][phase] = phases[operation][phase].snapshot();
+            }
+        }
+    }
+
+    /**
+     * Reporting. NOT thread safe.
+     * 
+     * @param writer
+     * @throws IOException
+     */
+    public void report(Writer writer) throws IOException {
+        
+        // Collect data
+        long currentTime = System.currentTimeMillis();
+        PoolingHttpClientConnectionManager pool = this.pool;
+        PoolStats stats = pool != null ? pool.getTotalStats() : null;
+        
+        // Print header
+        if (lastTime == 0) {
+            StringBuilder builder = new StringBuilder();
+            builder.append("Time").append(";");
+            builder.append("Operation").append(";");
+            builder.append("Requests").append(";");
+            builder.append("New connections").append(";");
+            for (Phase phase : PHASES) {
+                builder.append(phase.label).append(" p50 us").append(";");
+                builder.append(phase.label).append(" p99 us").append(";");
+            }
+            builder.append("Leased connections").append(";");
+            builder.append("Pending leases").append("\n");
+            writer.write(builder.toString());
+        }
+        
+        // Print parameters
+        StringBuilder builder = new StringBuilder();
+        for (int operation = 0; operation < OPERATIONS.length; operation++) {
+            long currentRequests = requests[operation].sum();
+            long currentConnections = connections[operation].sum();
+            builder.append(String.valueOf((double)(currentTime - startTime)/1000d).replace('.', ',')).append(";");
+            builder.append(OPERATIONS[operation].getLabel()).append(";");
+            builder.append(currentRequests - lastRequests[operation]).append(";");
+            builder.append(currentConnections - lastConnections[operation]).append(";");
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                long[] currentPhase = phases[operation][phase].snapshot();
+                long[] interval = Histogram.delta(currentPhase, lastPhases[operation][phase]);
+                builder.append(Histogram.getPercentile(interval, 50d) / 1000L).append(";");
+                builder.append(Histogram.getPercentile(interval, 99d) / 1000L).append(";");
+                this.lastPhases[operation][phase] = currentPhase;
+            }
+            builder.append(stats != null ? stats.getLeased() : 0).append(";");
+            builder.append(stats != null ? stats.getPending() : 0).append("\n");
+            
+            // Store
+            this.lastRequests[operation] = currentRequests;
+            this.lastConnections[operation] = currentConnections;
+        }
+        writer.write(builder.toString());
+        
+        // Store
+        this.lastTime = currentTime;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.ace;
+
+import java.io.IOException;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.trustdeck.benchmark.connector.ace.HTTPPhaseMetrics.Phase;
+
+/**
+ * Request executor that measures how long it takes to send a request and how long it takes
+ * until the head of the response has been received, i.e., the time to first byte.
+ * 
+ * @author Armin Müller
+ */
+class HTTPPhaseRequestExecutor extends HttpRequestExecutor {
+    
+    /** The metrics. */
+    private final HTTPPhaseMetrics metrics;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param metrics the metrics to record to
+     */
+    HTTPPhaseRequestExecutor(HTTPPhaseMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    @Override
+    protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection connection, HttpContext context) throws IOException, HttpException {
+        long start = System.nanoTime();
+        try {
+            return super.doSendRequest(request, connection, context);
+        } finally {
+            metrics.add(Phase.SEND, System.nanoTime() - start);
+        }
+    }
+    
+    @Override
+    protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection connection, HttpContext context) throws IOException, HttpException {
+        long start = System.nanoTime();
+        try {
+            return super.doReceiveResponse(request, connection, context);
+        } finally {
+            metrics.add(Phase.WAIT, System.nanoTime() - start);
+        }
+    }
+}
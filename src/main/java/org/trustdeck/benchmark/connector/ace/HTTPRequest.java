@@ -19,13 +19,20 @@ package org.trustdeck.benchmark.connector.ace;
 import java.net.URI;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeoutException;
 
+import org.glassfish.jersey.client.ClientProperties;
+import org.trustdeck.benchmark.connector.ace.HTTPPhaseMetrics.Phase;
+
+import jakarta.ws.rs.ProcessingException;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.Invocation;
 import jakarta.ws.rs.client.Invocation.Builder;
 import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import lombok.Getter;
 
 /**
  * This class is used to build and execute HTTP requests.
@@ -52,6 +59,38 @@ public class HTTPRequest {
         APPLICATION_JSON
     };
     
+    /**
+     * Operation a request belongs to, used for reporting its phases.
+     */
+    public enum HTTPOperation {
+        CREATE("create"),
+        READ("read"),
+        UPDATE("update"),
+        DELETE("delete"),
+        PING("ping"),
+        CREATE_DOMAIN("createDomain"),
+        READ_DOMAIN("readDomain"),
+        UPDATE_DOMAIN("updateDomain"),
+        DELETE_DOMAIN("deleteDomain"),
+        OTHER("other");
+        
+        /** Label used in reports. */
+        @Getter
+        private final String label;
+        
+        /**
+         * Creates a new instance.
+         * 
+         * @param label
+         */
+        HTTPOperation(String label) {
+            this.label = label;
+        }
+    };
+    
+    /** Status code of the last response received per thread, 0 if none was received. */
+    private static final ThreadLocal<int[]> LAST_STATUS_CODE = ThreadLocal.withInitial(() -> new int[1]);
+    
     /** The web client object needed to generate and send requests. */
     private final Client client;
     
@@ -76,6 +115,12 @@ public class HTTPRequest {
     /** Represents the request parameters. */
     private final Map<String, String> parameters;
     
+    /** Time until the response must have been received in milliseconds, 0 waits forever. */
+    private int timeout = 0;
+    
+    /** The operation the request belongs to. */
+    private HTTPOperation operation = HTTPOperation.OTHER;
+    
     /**
      * Creates a new instance
      * @param server
@@ -103,7 +148,7 @@ public class HTTPRequest {
      * @param bodyMediaType
      */
     public HTTPRequest(URI server, String path, HTTPRequestType requestType, String authToken, String body, HTTPMediaType bodyMediaType) {
-    	this(server, path, requestType, authToken, body, 
+        this(server, path, requestType, authToken, body, 
         		bodyMediaType != null ? bodyMediaType : 
         			(requestType == HTTPRequestType.POST || requestType == HTTPRequestType.PUT ? HTTPMediaType.APPLICATION_JSON : HTTPMediaType.TEXT_PLAIN),
         		null);
@@ -133,17 +178,95 @@ public class HTTPRequest {
         this.parameters = parameters;
     }
     
+    /**
+     * Sets the deadline of the request. It limits the time to wait for a pooled connection, the
+     * time the connection may be inactive, and the total time until the response has been received.
+     * If one of them passes, the request fails with a {@link java.io.InterruptedIOException} or a
+     * {@link TimeoutException} as its cause. The request is still sent by the calling thread, it is
+     * aborted when the deadline passes.
+     * 
+     * @param timeout in milliseconds, 0 waits forever
+     * @return this request
+     */
+    public HTTPRequest withTimeout(int timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+    
+    /**
+     * Sets the operation the request belongs to, used for reporting its phases.
+     * 
+     * @param operation
+     * @return this request
+     */
+    public HTTPRequest withOperation(HTTPOperation operation) {
+        this.operation = operation;
+        return this;
+    }
+    
+    /**
+     * Returns the status code of the last request executed successfully by the current thread.
+     * Failed requests report theirs with the {@link HTTPException}.
+     * 
+     * @return the status code, 0 if no response was received
+     */
+    static int getLastStatusCode() {
+        return LAST_STATUS_CODE.get()[0];
+    }
+    
     /**
      * Execute the request.
      * 
      * @return the request's response as a string
+     * @throws HTTPException if the service answered with a status code other than 2xx
      */
     public String execute() {
+        LAST_STATUS_CODE.get()[0] = 0;
+        
     	// Check if client is available. If not, the experiment might already be finished
     	if (client == null) {
     		return "";
     	}
-
+        
+        // Execute request, the transport records the phases up to the response's head and enforces the deadline
+        HTTPDeadlineInterceptor.begin(timeout);
+        HTTPPhaseMetrics metrics = HTTPClientManager.getPhaseMetrics();
+        metrics.begin();
+        try {
+            Response response = build().invoke();
+            long received = System.nanoTime();
+            int statusCode = response.getStatus();
+    
+            // Check status, read and return the response entity
+            try {
+                if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                    HTTPUtil.raiseException(response);
+                }
+                String entity = response.readEntity(String.class);
+                LAST_STATUS_CODE.get()[0] = statusCode;
+                return entity;
+            } finally {
+                response.close();
+                metrics.add(Phase.READ, System.nanoTime() - received);
+            }
+        } catch (ProcessingException e) {
+            // Aborted when the deadline passed
+            if (HTTPDeadlineInterceptor.end()) {
+                throw new ProcessingException("No response within " + timeout + " ms", new TimeoutException());
+            }
+            throw e;
+        } finally {
+            HTTPDeadlineInterceptor.end();
+            metrics.end(operation);
+        }
+    }
+    
+    /**
+     * Build the request without sending it.
+     * 
+     * @return the invocation
+     */
+    Invocation build() {
         WebTarget target = this.client.target(server).path(path);
 
         if (parameters != null && !parameters.isEmpty()) {
@@ -155,6 +278,9 @@ public class HTTPRequest {
         // Build request
         Builder builder = target.request();
         builder.header("Authorization", String.format("Bearer %s", authToken));
+        if (timeout > 0) {
+            builder.property(ClientProperties.READ_TIMEOUT, timeout);
+        }
 
         // Handle media type
         String type = null;
@@ -170,33 +296,24 @@ public class HTTPRequest {
             throw new IllegalStateException("Unknown media type");
         }
 
-        // Execute request
-        Response response = null;
-
+        // Build invocation
         switch (requestType) {
         case GET:
-            response = builder.get(Response.class);
-            break;
+            return builder.buildGet();
         case POST:
             if (body == null || type == null) {
                 throw new IllegalArgumentException("Body and media type must not be null.");
             }
-            response = builder.post(Entity.entity(body, type));
-            break;
+            return builder.buildPost(Entity.entity(body, type));
         case PUT:
             if (body == null || type == null) {
                 throw new IllegalArgumentException("Body and media type must not be null.");
             }
-            response = builder.put(Entity.entity(body, type));
-            break;
+            return builder.buildPut(Entity.entity(body, type));
         case DELETE:
-            response = builder.delete(Response.class);
-            break;
+            return builder.buildDelete();
         default:
             throw new IllegalStateException("Unknown request type.");
         }
-
-        // Read and return the response entity
-        return response.readEntity(String.class);
     }
 }
@@ -41,6 +41,6 @@ public class HTTPUtil {
         }
         
         throw new HTTPException(String.format("Error executing HTTP request with return code %s and body %s",
-                                response.getStatus(), body));
+                                response.getStatus(), body), response.getStatus());
     }
 }
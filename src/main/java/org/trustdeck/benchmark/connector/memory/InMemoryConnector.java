@@ -0,0 +1,169 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.memory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.trustdeck.benchmark.connector.Connector;
+import org.trustdeck.benchmark.connector.ConnectorException;
+import org.trustdeck.benchmark.connector.Outcome;
+
+/**
+ * Connector operating on an in-memory map shared by all connectors of a factory.
+ * Used for measuring the overhead of the benchmark driver, including realistic
+ * hits and misses, without any network.
+ * 
+ * @author Armin Müller
+ */
+public class InMemoryConnector implements Connector {
+    
+    /** Estimated storage overhead per record in bytes. */
+    private static final long RECORD_OVERHEAD = 100L;
+    
+    /** Pseudonyms by domain and identifier. */
+    private final ConcurrentHashMap<Integer, ConcurrentHashMap<String, Long>> domains;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param domains the shared storage
+     */
+    InMemoryConnector(ConcurrentHashMap<Integer, ConcurrentHashMap<String, Long>> domains) {
+        this.domains = domains;
+    }
+
+    @Override
+    public void prepare() {
+        domains.clear();
+    }
+
+    @Override
+    public void prepareDomain(int domain) {
+        domains.putIfAbsent(domain, new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public void createPseudonym(int domain, String id) throws ConnectorException {
+        getPseudonyms(domain).putIfAbsent(id, ThreadLocalRandom.current().nextLong());
+    }
+
+    @Override
+    public String getStorageConsumption(String storageID) {
+        long records = 0L;
+        if (storageID.equals("pseudonym")) {
+            for (ConcurrentHashMap<String, Long> pseudonyms : domains.values()) {
+                records += pseudonyms.mappingCount();
+            }
+        } else if (storageID.equals("domain")) {
+            records = domains.size();
+        }
+        long size = records * RECORD_OVERHEAD;
+        return "tableSize: " + size + ", recordCount: " + records + ", totalSize: " + size;
+    }
+
+    @Override
+    public void readPseudonym(int domain, String id) throws ConnectorException {
+        if (getPseudonyms(domain).get(id) == null) {
+            throw notFound(id);
+        }
+    }
+
+    @Override
+    public void updatePseudonym(int domain, String id) throws ConnectorException {
+        if (getPseudonyms(domain).computeIfPresent(id, (key, value) -> ThreadLocalRandom.current().nextLong()) == null) {
+            throw notFound(id);
+        }
+    }
+
+    @Override
+    public void deletePseudonym(int domain, String id) throws ConnectorException {
+        if (getPseudonyms(domain).remove(id) == null) {
+            throw notFound(id);
+        }
+    }
+
+    @Override
+    public void createDomain(int domain) throws ConnectorException {
+        if (domains.putIfAbsent(domain, new ConcurrentHashMap<>()) != null) {
+            throw new ConnectorException("Domain exists: " + domain, Outcome.CLIENT_ERROR, 409);
+        }
+    }
+
+    @Override
+    public void readDomain(int domain) throws ConnectorException {
+        getDomain(domain);
+    }
+
+    @Override
+    public void updateDomain(int domain) throws ConnectorException {
+        getDomain(domain);
+    }
+
+    @Override
+    public void deleteDomain(int domain) throws ConnectorException {
+        if (domains.remove(domain) == null) {
+            throw new ConnectorException("Domain not found: " + domain, Outcome.NOT_FOUND, 404);
+        }
+    }
+
+    @Override
+    public void ping() {
+        // Empty by design
+    }
+    
+    /**
+     * Returns the pseudonyms of a domain.
+     * 
+     * @param domain
+     * @return the pseudonyms
+     * @throws ConnectorException if the domain does not exist, reported like by ACE
+     */
+    private ConcurrentHashMap<String, Long> getDomain(int domain) throws ConnectorException {
+        ConcurrentHashMap<String, Long> pseudonyms = domains.get(domain);
+        if (pseudonyms == null) {
+            throw new ConnectorException("Domain not found: " + domain, Outcome.NOT_FOUND, 404);
+        }
+        return pseudonyms;
+    }
+    
+    /**
+     * Returns the pseudonyms of a domain addressed by a pseudonym operation.
+     * 
+     * @param domain
+     * @return the pseudonyms
+     * @throws ConnectorException if the domain does not exist, which is a failure of the operation rather than an expected 404
+     */
+    private ConcurrentHashMap<String, Long> getPseudonyms(int domain) throws ConnectorException {
+        ConcurrentHashMap<String, Long> pseudonyms = domains.get(domain);
+        if (pseudonyms == null) {
+            throw new ConnectorException("Domain not found: " + domain, Outcome.CLIENT_ERROR, 404);
+        }
+        return pseudonyms;
+    }
+    
+    /**
+     * Failure for non-existing records, reported like by ACE.
+     * 
+     * @param id
+     * @return the exception
+     */
+    private static ConnectorException notFound(String id) {
+        return new ConnectorException("Pseudonym not found: " + id, Outcome.NOT_FOUND, 404);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.memory;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.trustdeck.benchmark.connector.ConnectorFactory;
+
+/**
+ * Factory for connectors operating on a shared in-memory map.
+ * 
+ * @author Armin Müller
+ */
+public class InMemoryConnectorFactory implements ConnectorFactory {
+    
+    /** Storage shared by all connectors, pseudonyms by domain and identifier. */
+    private final ConcurrentHashMap<Integer, ConcurrentHashMap<String, Long>> domains = new ConcurrentHashMap<>();
+
+    @Override
+    public InMemoryConnector create() {
+        return new InMemoryConnector(domains);
+    }
+
+    @Override
+    public void shutdown() {
+        domains.clear();
+    }
+}
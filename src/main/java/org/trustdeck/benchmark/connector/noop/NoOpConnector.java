@@ -0,0 +1,92 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.connector.noop;
+
+import org.trustdeck.benchmark.connector.Connector;
+
+/**
+ * Connector that does nothing. Used as a probe for measuring the overhead
+ * of the benchmark driver itself, without any network or storage.
+ * 
+ * @author Armin Müller
+ */
+public class NoOpConnector implements Connector {
+
+    /** Storage consumption, in the format returned by ACE. */
+    private static final String EMPTY_STORAGE = "tableSize: 0, recordCount: 0, totalSize: 0";
+
+    @Override
+    public void prepare() {
+        // Empty by design
+    }
+
+    @Override
+    public void prepareDomain(int domain) {
+        // Empty by design
+    }
+
+    @Override
+    public void createPseudonym(int domain, String id) {
+        // Empty by design
+    }
+
+    @Override
+    public String getStorageConsumption(String storageID) {
+        return EMPTY_STORAGE;
+    }
+
+    @Override
+    public void readPseudonym(int domain, String id) {
+        // Empty by design
+    }
+
+    @Override
+    public void updatePseudonym(int domain, String id) {
+        // Empty by design
+    }
+
+    @Override
+    public void deletePseudonym(int domain, String id) {
+        // Empty by design
+    }
+
+    @Override
+    public void createDomain(int domain) {
+        // Empty by design
+    }
+
+    @Override
+    public void readDomain(int domain) {
+        // Empty by design
+    }
+
+    @Override
+    public void updateDomain(int domain) {
+        // Empty by design
+    }
+
+    @Override
+    public void deleteDomain(int domain) {
+        // Empty by design
+    }
+
+    @Override
+    public void ping() {
+        // Empty by design
+    }
+}
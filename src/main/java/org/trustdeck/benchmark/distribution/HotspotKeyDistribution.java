@@ -0,0 +1,74 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.distribution;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A fraction of the operations accesses a fraction of the identifiers, the hot set,
+ * which consists of the identifiers created first. Accesses within and outside of the
+ * hot set are uniformly distributed.
+ * 
+ * @author Armin Müller
+ */
+public class HotspotKeyDistribution implements KeyDistribution {
+    
+    /** Fraction of identifiers in the hot set. */
+    private final double hotSetFraction;
+    
+    /** Fraction of operations accessing the hot set. */
+    private final double hotOperationFraction;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param hotSetFraction fraction of identifiers in the hot set
+     * @param hotOperationFraction fraction of operations accessing the hot set
+     */
+    public HotspotKeyDistribution(double hotSetFraction, double hotOperationFraction) {
+        if (hotSetFraction <= 0d || hotSetFraction > 1d || hotOperationFraction < 0d || hotOperationFraction > 1d) {
+            throw new IllegalStateException("Hot set fraction must be in (0, 1], hot operation fraction in [0, 1]!");
+        }
+        this.hotSetFraction = hotSetFraction;
+        this.hotOperationFraction = hotOperationFraction;
+    }
+    
+    @Override
+    public long next(long size) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long hot = Math.max(1L, (long) (size * hotSetFraction));
+        if (hot >= size || random.nextDouble() < hotOperationFraction) {
+            return random.nextLong(hot);
+        }
+        return hot + random.nextLong(size - hot);
+    }
+    
+    @Override
+    public double getWeight(long index, long size) {
+        long hot = Math.max(1L, (long) (size * hotSetFraction));
+        if (hot >= size) {
+            return 1d / size;
+        }
+        return index < hot ? hotOperationFraction / hot : (1d - hotOperationFraction) / (size - hot);
+    }
+    
+    @Override
+    public String getName() {
+        return "hotspot(hotSetFraction=" + hotSetFraction + ", hotOperationFraction=" + hotOperationFraction + ")";
+    }
+}
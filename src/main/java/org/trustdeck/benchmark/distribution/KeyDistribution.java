@@ -0,0 +1,79 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.distribution;
+
+import org.trustdeck.benchmark.ConfigurationSection;
+
+/**
+ * Distribution of accesses over the identifiers created so far. Implementations must be
+ * thread safe, lock free, and sample in constant time, as they are used by all workers.
+ * 
+ * @author Armin Müller
+ */
+public interface KeyDistribution {
+    
+    /**
+     * Samples the index of the identifier to access.
+     * 
+     * @param size number of identifiers created so far, positive
+     * @return an index in [0, size), where 0 is the identifier created first
+     */
+    public long next(long size);
+    
+    /**
+     * Returns the probability with which an index is sampled.
+     * 
+     * @param index an index in [0, size)
+     * @param size number of identifiers, positive
+     * @return the probability
+     */
+    public double getWeight(long index, long size);
+    
+    /**
+     * Returns a short description for logging, e.g., "zipfian(theta=0.99)".
+     * 
+     * @return the description
+     */
+    public String getName();
+    
+    /**
+     * Creates a distribution from a "keyDistribution" section.
+     * 
+     * @param section the section, null for the uniform distribution
+     * @return the distribution
+     */
+    public static KeyDistribution fromSection(ConfigurationSection section) {
+        if (section == null) {
+            return new UniformKeyDistribution();
+        }
+        String type = section.getString("type", "uniform");
+        switch (type) {
+        case "uniform":
+            return new UniformKeyDistribution();
+        case "zipfian":
+            return new ZipfianKeyDistribution(section.getDouble("theta", ZipfianKeyDistribution.DEFAULT_THETA));
+        case "latest":
+            return new LatestKeyDistribution(section.getDouble("theta", ZipfianKeyDistribution.DEFAULT_THETA));
+        case "hotspot":
+            return new HotspotKeyDistribution(section.getDouble("hotSetFraction", 0.2d),
+                                              section.getDouble("hotOperationFraction", 0.8d));
+        default:
+            throw new IllegalStateException("Unknown key distribution '" + type + "' at '" + section.getPath() + ".type', expected one of: uniform, zipfian, latest, hotspot");
+        }
+    }
+}
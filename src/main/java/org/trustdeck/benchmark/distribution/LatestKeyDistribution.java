@@ -0,0 +1,54 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.distribution;
+
+/**
+ * Zipfian distribution, where the identifier created last is the most popular one.
+ * Models lookups concentrating on recently registered patients.
+ * 
+ * @author Armin Müller
+ */
+public class LatestKeyDistribution implements KeyDistribution {
+    
+    /** Distribution of the age of accessed identifiers. */
+    private final ZipfianKeyDistribution zipfian;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param theta skew in (0, 1), higher is more skewed
+     */
+    public LatestKeyDistribution(double theta) {
+        this.zipfian = new ZipfianKeyDistribution(theta);
+    }
+    
+    @Override
+    public long next(long size) {
+        return size - 1 - zipfian.next(size);
+    }
+    
+    @Override
+    public double getWeight(long index, long size) {
+        return zipfian.getWeight(size - 1 - index, size);
+    }
+    
+    @Override
+    public String getName() {
+        return "latest(" + zipfian.getName() + ")";
+    }
+}
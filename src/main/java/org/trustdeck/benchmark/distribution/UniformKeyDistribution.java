@@ -0,0 +1,43 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.distribution;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * All identifiers are accessed with the same probability.
+ * 
+ * @author Armin Müller
+ */
+public class UniformKeyDistribution implements KeyDistribution {
+    
+    @Override
+    public long next(long size) {
+        return ThreadLocalRandom.current().nextLong(size);
+    }
+    
+    @Override
+    public double getWeight(long index, long size) {
+        return 1d / size;
+    }
+    
+    @Override
+    public String getName() {
+        return "uniform";
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.distribution;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Zipfian distribution, where the identifier created first is the most popular one.
+ * Sampling follows Gray et al., "Quickly Generating Billion-Record Synthetic Databases".
+ * 
+ * The normalization constant zeta(n) changes whenever identifiers are created. Instead of
+ * summing n terms, it is computed exactly for small n and approximated for larger n by
+ * the Euler-Maclaurin formula, with a relative error below 1e-7. Parameters are cached
+ * in an immutable object and only recomputed once the size has grown by more than 1/1024,
+ * so that sampling is lock free and O(1) even while identifiers are created.
+ * 
+ * @author Armin Müller
+ */
+public class ZipfianKeyDistribution implements KeyDistribution {
+    
+    /** Default skew, as used by YCSB. */
+    public static final double DEFAULT_THETA = 0.99d;
+    
+    /** Size up to which zeta is computed exactly. */
+    private static final int EXACT = 1024;
+    
+    /**
+     * Parameters for a given size.
+     */
+    private static class Parameters {
+        
+        /** Size. */
+        private final long size;
+        
+        /** zeta(size). */
+        private final double zeta;
+        
+        /** Eta, see Gray et al. */
+        private final double eta;
+        
+        /**
+         * Creates a new instance.
+         * 
+         * @param size
+         * @param zeta
+         * @param eta
+         */
+        private Parameters(long size, double zeta, double eta) {
+            this.size = size;
+            this.zeta = zeta;
+            this.eta = eta;
+        }
+    }
+    
+    /** Skew. */
+    private final double theta;
+    
+    /** 1 / (1 - theta). */
+    private final double alpha;
+    
+    /** zeta(2). */
+    private final double zeta2;
+    
+    /** 1 + 0.5^theta. */
+    private final double threshold;
+    
+    /** zeta(i) for i in [0, EXACT]. */
+    private final double[] exact = new double[EXACT + 1];
+    
+    /** Parameters for the most recently used size. */
+    private volatile Parameters parameters;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param theta skew in (0, 1), higher is more skewed
+     */
+    public ZipfianKeyDistribution(double theta) {
+        if (theta <= 0d || theta >= 1d) {
+            throw new IllegalStateException("Theta must be in (0, 1)!");
+        }
+        this.theta = theta;
+        this.alpha = 1d / (1d - theta);
+        for (int i = 1; i <= EXACT; i++) {
+            exact[i] = exact[i - 1] + 1d / Math.pow(i, theta);
+        }
+        this.zeta2 = exact[2];
+        this.threshold = 1d + Math.pow(0.5d, theta);
+        this.parameters = getParameters(1L);
+    }
+    
+    @Override
+    public long next(long size) {
+        
+        // Parameters
+        Parameters parameters = this.parameters;
+        if (size < parameters.size || size > parameters.size + (parameters.size >> 10)) {
+            parameters = getParameters(size);
+            this.parameters = parameters;
+        }
+        
+        // Sample
+        double u = ThreadLocalRandom.current().nextDouble();
+        double uz = u * parameters.zeta;
+        if (uz < 1d) {
+            return 0L;
+        }
+        if (uz < threshold && size > 1) {
+            return 1L;
+        }
+        long result = (long) (size * Math.pow(parameters.eta * u - parameters.eta + 1d, alpha));
+        return Math.min(result, size - 1);
+    }
+    
+    @Override
+    public double getWeight(long index, long size) {
+        return 1d / Math.pow(index + 1, theta) / zeta(size);
+    }
+    
+    @Override
+    public String getName() {
+        return "zipfian(theta=" + theta + ")";
+    }
+    
+    /**
+     * Computes the parameters for the given size.
+     * 
+     * @param size
+     * @return the parameters
+     */
+    private Parameters getParameters(long size) {
+        double zeta = zeta(size);
+        double eta = (1d - Math.pow(2d / size, 1d - theta)) / (1d - zeta2 / zeta);
+        return new Parameters(size, zeta, eta);
+    }
+    
+    /**
+     * Computes the sum of 1 / i^theta for i in [1, n].
+     * 
+     * @param n
+     * @return zeta(n)
+     */
+    private double zeta(long n) {
+        if (n <= EXACT) {
+            return exact[(int) n];
+        }
+        
+        // Euler-Maclaurin: integral of the tail plus the trapezoidal correction
+        return exact[EXACT] + 
+               (Math.pow(n, 1d - theta) - Math.pow(EXACT, 1d - theta)) / (1d - theta) + 
+               (Math.pow(n, -theta) - Math.pow(EXACT, -theta)) / 2d;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.mock;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribution of the artificial latency added by the mock server.
+ * 
+ * @author Armin Müller
+ */
+public class LatencyDistribution {
+    
+    /**
+     * Types of distributions.
+     */
+    public static enum Type {
+        /** Always the mean. */
+        CONSTANT,
+        /** Uniform between mean - deviation and mean + deviation. */
+        UNIFORM,
+        /** Exponential with the given mean. */
+        EXPONENTIAL,
+        /** Log-normal with the given mean and standard deviation. */
+        LOGNORMAL
+    }
+    
+    /** Type. */
+    private final Type type;
+    
+    /** Mean in microseconds. */
+    private final double mean;
+    
+    /** Deviation in microseconds. */
+    private final double deviation;
+    
+    /** Location of the log-normal distribution. */
+    private final double mu;
+    
+    /** Scale of the log-normal distribution. */
+    private final double sigma;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param type the type
+     * @param mean the mean in microseconds
+     * @param deviation the standard deviation (log-normal) or half width (uniform) in microseconds
+     */
+    public LatencyDistribution(Type type, double mean, double deviation) {
+        if (mean < 0d || deviation < 0d) {
+            throw new IllegalArgumentException("Mean and deviation must be zero or positive!");
+        }
+        this.type = type;
+        this.mean = mean;
+        this.deviation = deviation;
+        
+        // Parameters of the underlying normal distribution
+        double variance = mean > 0d ? Math.log(1d + (deviation * deviation) / (mean * mean)) : 0d;
+        this.sigma = Math.sqrt(variance);
+        this.mu = mean > 0d ? Math.log(mean) - variance / 2d : 0d;
+    }
+    
+    /**
+     * Samples a latency. Thread safe.
+     * 
+     * @return the latency in microseconds
+     */
+    public long sample() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (type) {
+        case CONSTANT:
+            return (long) mean;
+        case UNIFORM:
+            return (long) Math.max(0d, mean - deviation + random.nextDouble() * 2d * deviation);
+        case EXPONENTIAL:
+            return (long) (-mean * Math.log(1d - random.nextDouble()));
+        case LOGNORMAL:
+            return mean > 0d ? (long) Math.exp(mu + sigma * random.nextGaussian()) : 0L;
+        default:
+            throw new IllegalStateException("Unknown latency distribution.");
+        }
+    }
+}
@@ -0,0 +1,512 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.mock;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.trustdeck.benchmark.ConfigurationLoader;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for ACE and its keycloak server. Implements the endpoints used by the
+ * benchmark on top of in-memory storage, with configurable latencies and error rates.
+ * It is used to determine the maximal throughput achievable by the benchmark driver
+ * itself and to run all scenarios offline.
+ * 
+ * @author Armin Müller
+ */
+public class MockACEServer {
+    
+    /** Mapper. */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    /** Prefix of issued access tokens. */
+    private static final String TOKEN_PREFIX = "mock-";
+    
+    /** Estimated storage overhead per record in bytes, e.g., for tuple headers and indexes. */
+    private static final long RECORD_OVERHEAD = 100L;
+    
+    /** The configuration. */
+    private final MockConfiguration config;
+    
+    /** Pseudonyms per domain and identifier. */
+    private final Map<String, Map<String, String>> domains = new ConcurrentHashMap<>();
+    
+    /** Number of audit events, i.e., handled API requests. */
+    private final LongAdder auditEvents = new LongAdder();
+    
+    /** Counter used for tokens and pseudonyms. */
+    private final AtomicLong counter = new AtomicLong();
+    
+    /** The HTTP server. */
+    private HttpServer server;
+    
+    /** The request handling threads. */
+    private ExecutorService executor;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param config the configuration
+     */
+    public MockACEServer(MockConfiguration config) {
+        this.config = config;
+    }
+    
+    /**
+     * Starts the server.
+     * 
+     * @throws IOException
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Mock server is already running.");
+        }
+        
+        // Daemon threads, so that the server never keeps the benchmark alive
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "mock-ace");
+            thread.setDaemon(true);
+            return thread;
+        };
+        // Disable Nagle's algorithm, which otherwise adds ~40 ms to small responses. Must be set before the first server is created.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        this.executor = config.getThreads() > 0 ? Executors.newFixedThreadPool(config.getThreads(), factory) : Executors.newCachedThreadPool(factory);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", config.getPort()), 1024);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+    
+    /**
+     * Stops the server.
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+    
+    /**
+     * Returns the URI of the pseudonymization API.
+     * 
+     * @return the URI
+     */
+    public URI getServiceURI() {
+        return URI.create(getKeycloakURI() + config.getBasePath());
+    }
+    
+    /**
+     * Returns the URI of the token endpoint's server.
+     * 
+     * @return the URI
+     */
+    public String getKeycloakURI() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+    
+    /**
+     * Handles a request.
+     * 
+     * @param exchange
+     * @throws IOException
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            // Consume the request body, so that the connection can be reused
+            byte[] body;
+            try (InputStream input = exchange.getRequestBody()) {
+                body = input.readAllBytes();
+            }
+            
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            
+            // Token endpoint
+            if (path.startsWith("/realms/") && path.endsWith("/protocol/openid-connect/token") && method.equals("POST")) {
+                delay(config.getTokenLatency());
+                handleToken(exchange);
+                return;
+            }
+            
+            // API
+            if (!path.startsWith(config.getBasePath() + "/")) {
+                send(exchange, 404, null);
+                return;
+            }
+            String resource = path.substring(config.getBasePath().length());
+            
+            // Authentication
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (authorization == null || !authorization.startsWith("Bearer " + TOKEN_PREFIX)) {
+                send(exchange, 401, null);
+                return;
+            }
+            
+            // Simulated processing time and failures
+            delay(config.getLatency());
+            double random = ThreadLocalRandom.current().nextDouble();
+            if (random < config.getServerErrorRate()) {
+                send(exchange, 503, null);
+                return;
+            } else if (random < config.getServerErrorRate() + config.getClientErrorRate()) {
+                send(exchange, 429, null);
+                return;
+            }
+            
+            // Process
+            auditEvents.increment();
+            handleAPI(exchange, method, resource, body);
+            
+        } catch (RuntimeException e) {
+            send(exchange, 500, null);
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    /**
+     * Issues a token. Grants and refreshes are handled alike.
+     * 
+     * @param exchange
+     * @throws IOException
+     */
+    private void handleToken(HttpExchange exchange) throws IOException {
+        long number = counter.incrementAndGet();
+        ObjectNode response = MAPPER.createObjectNode();
+        response.put("access_token", TOKEN_PREFIX + number);
+        response.put("expires_in", config.getTokenLifetime());
+        response.put("refresh_expires_in", config.getTokenLifetime() * 2);
+        response.put("refresh_token", TOKEN_PREFIX + "refresh-" + number);
+        response.put("token_type", "Bearer");
+        response.put("not-before-policy", 0);
+        response.put("scope", "profile email");
+        sendJSON(exchange, 200, response);
+    }
+    
+    /**
+     * Handles a request against the pseudonymization API.
+     * 
+     * @param exchange
+     * @param method
+     * @param resource path below the base path
+     * @param body
+     * @throws IOException
+     */
+    private void handleAPI(HttpExchange exchange, String method, String resource, byte[] body) throws IOException {
+        Map<String, String> parameters = getParameters(exchange.getRequestURI().getRawQuery());
+        String[] segments = resource.substring(1).split("/");
+        
+        // Ping
+        if (resource.equals("/ping")) {
+            send(exchange, 200, "pong");
+            
+        // Domains
+        } else if (resource.equals("/domain")) {
+            handleDomain(exchange, method, parameters, body);
+            
+        // Pseudonyms
+        } else if (segments.length == 3 && segments[0].equals("domains") && segments[2].equals("pseudonym")) {
+            handlePseudonym(exchange, method, segments[1], parameters, body);
+            
+        // Tables
+        } else if (segments.length == 2 && segments[0].equals("table") && method.equals("DELETE")) {
+            clearTable(segments[1]);
+            send(exchange, 200, null);
+        } else if (segments.length == 3 && segments[0].equals("table") && segments[2].equals("storage") && method.equals("GET")) {
+            send(exchange, 200, getStorage(segments[1]));
+            
+        // Roles
+        } else if (segments.length == 2 && segments[0].equals("roles") && method.equals("DELETE")) {
+            send(exchange, 200, null);
+            
+        } else {
+            send(exchange, 404, null);
+        }
+    }
+    
+    /**
+     * Handles requests against domains.
+     * 
+     * @param exchange
+     * @param method
+     * @param parameters
+     * @param body
+     * @throws IOException
+     */
+    private void handleDomain(HttpExchange exchange, String method, Map<String, String> parameters, byte[] body) throws IOException {
+        switch (method) {
+        case "POST":
+            String created = MAPPER.readTree(body).path("name").asText(null);
+            if (created == null) {
+                send(exchange, 400, null);
+            } else {
+                send(exchange, domains.putIfAbsent(created, new ConcurrentHashMap<>()) == null ? 201 : 409, null);
+            }
+            break;
+        case "GET":
+            send(exchange, domains.containsKey(parameters.get("name")) ? 200 : 404, null);
+            break;
+        case "PUT":
+            String updated = MAPPER.readTree(body).path("name").asText(null);
+            send(exchange, updated != null && domains.containsKey(updated) ? 200 : 404, null);
+            break;
+        case "DELETE":
+            String deleted = parameters.get("name");
+            send(exchange, deleted != null && domains.remove(deleted) != null ? 200 : 404, null);
+            break;
+        default:
+            send(exchange, 405, null);
+        }
+    }
+    
+    /**
+     * Handles requests against pseudonyms.
+     * 
+     * @param exchange
+     * @param method
+     * @param domainName
+     * @param parameters
+     * @param body
+     * @throws IOException
+     */
+    private void handlePseudonym(HttpExchange exchange, String method, String domainName, Map<String, String> parameters, byte[] body) throws IOException {
+        Map<String, String> domain = domains.get(domainName);
+        if (domain == null) {
+            send(exchange, 404, null);
+            return;
+        }
+        
+        // Identifier from the body (create) or the parameters (all others)
+        String id;
+        if (method.equals("POST")) {
+            JsonNode node = MAPPER.readTree(body);
+            id = node.path("id").asText(null);
+        } else {
+            id = parameters.get("id");
+        }
+        if (id == null) {
+            send(exchange, 400, null);
+            return;
+        }
+        
+        switch (method) {
+        case "POST":
+            String pseudonym = domain.computeIfAbsent(id, key -> Long.toHexString(ThreadLocalRandom.current().nextLong()));
+            sendPseudonym(exchange, 201, id, pseudonym);
+            break;
+        case "GET":
+            String read = domain.get(id);
+            if (read == null) {
+                send(exchange, 404, null);
+            } else {
+                sendPseudonym(exchange, 200, id, read);
+            }
+            break;
+        case "PUT":
+            String updated = domain.computeIfPresent(id, (key, value) -> Long.toHexString(ThreadLocalRandom.current().nextLong()));
+            if (updated == null) {
+                send(exchange, 404, null);
+            } else {
+                sendPseudonym(exchange, 200, id, updated);
+            }
+            break;
+        case "DELETE":
+            send(exchange, domain.remove(id) != null ? 204 : 404, null);
+            break;
+        default:
+            send(exchange, 405, null);
+        }
+    }
+    
+    /**
+     * Clears a table.
+     * 
+     * @param table
+     */
+    private void clearTable(String table) {
+        switch (table) {
+        case "pseudonym":
+            for (Map<String, String> domain : domains.values()) {
+                domain.clear();
+            }
+            break;
+        case "domain":
+            domains.clear();
+            break;
+        case "auditevent":
+            auditEvents.reset();
+            break;
+        default:
+            // Ignore
+        }
+    }
+    
+    /**
+     * Estimates the storage consumption of a table, in the format returned by ACE.
+     * 
+     * @param table
+     * @return the storage information
+     */
+    private String getStorage(String table) {
+        long records = 0;
+        long size = 0;
+        switch (table) {
+        case "pseudonym":
+            for (Map<String, String> domain : domains.values()) {
+                for (Map.Entry<String, String> entry : domain.entrySet()) {
+                    records++;
+                    size += entry.getKey().length() + entry.getValue().length() + RECORD_OVERHEAD;
+                }
+            }
+            break;
+        case "domain":
+            records = domains.size();
+            size = records * RECORD_OVERHEAD;
+            break;
+        case "auditevent":
+            records = auditEvents.sum();
+            size = records * RECORD_OVERHEAD;
+            break;
+        default:
+            // Empty table
+        }
+        return "tableSize: " + size + ", recordCount: " + records + ", totalSize: " + size;
+    }
+    
+    /**
+     * Waits for a sampled latency.
+     * 
+     * @param distribution
+     */
+    private static void delay(LatencyDistribution distribution) {
+        long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(distribution.sample());
+        for (long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+    
+    /**
+     * Parses query parameters.
+     * 
+     * @param query the raw query
+     * @return the parameters
+     */
+    private static Map<String, String> getParameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int index = parameter.indexOf('=');
+            if (index > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, index), StandardCharsets.UTF_8),
+                               URLDecoder.decode(parameter.substring(index + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+    
+    /**
+     * Sends a pseudonym record.
+     * 
+     * @param exchange
+     * @param status
+     * @param id
+     * @param pseudonym
+     * @throws IOException
+     */
+    private static void sendPseudonym(HttpExchange exchange, int status, String id, String pseudonym) throws IOException {
+        ObjectNode response = MAPPER.createObjectNode();
+        response.put("id", id);
+        response.put("idType", "ID");
+        response.put("psn", pseudonym);
+        sendJSON(exchange, status, response);
+    }
+    
+    /**
+     * Sends a JSON response.
+     * 
+     * @param exchange
+     * @param status
+     * @param node
+     * @throws IOException
+     */
+    private static void sendJSON(HttpExchange exchange, int status, JsonNode node) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        send(exchange, status, MAPPER.writeValueAsString(node));
+    }
+    
+    /**
+     * Sends a response.
+     * 
+     * @param exchange
+     * @param status
+     * @param body the body or null
+     * @throws IOException
+     */
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null || status == 204) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+    
+    /**
+     * Runs the mock server standalone, configured from the "mock" section of the configuration file.
+     * 
+     * @param args optional path to the configuration file, defaults to the config.yaml on the classpath
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        MockACEServer server = new MockACEServer(MockConfiguration.fromSection(ConfigurationLoader.load(args.length > 0 ? args[0] : null)));
+        server.start();
+        System.out.println("Mock ACE server listening at " + server.getServiceURI() + ", tokens issued at " + server.getKeycloakURI());
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.mock;
+
+import org.trustdeck.benchmark.ConfigurationSection;
+import org.trustdeck.benchmark.mock.LatencyDistribution.Type;
+
+import lombok.Getter;
+
+/**
+ * Immutable configuration of the mock server.
+ * 
+ * @author Armin Müller
+ */
+@Getter
+public class MockConfiguration {
+    
+    /** Port to listen on, 0 to pick a free port. */
+    private final int port;
+    
+    /** Number of request handling threads, 0 for an unbounded pool. */
+    private final int threads;
+    
+    /** Base path of the pseudonymization API. */
+    private final String basePath;
+    
+    /** Latency of requests against the API. */
+    private final LatencyDistribution latency;
+    
+    /** Latency of requests against the token endpoint. */
+    private final LatencyDistribution tokenLatency;
+    
+    /** Fraction of requests answered with a server error (503). */
+    private final double serverErrorRate;
+    
+    /** Fraction of requests answered with a client error (429). */
+    private final double clientErrorRate;
+    
+    /** Lifetime of issued tokens in seconds. */
+    private final int tokenLifetime;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param port
+     * @param threads
+     * @param basePath
+     * @param latency
+     * @param tokenLatency
+     * @param serverErrorRate
+     * @param clientErrorRate
+     * @param tokenLifetime
+     */
+    public MockConfiguration(int port,
+                             int threads,
+                             String basePath,
+                             LatencyDistribution latency,
+                             LatencyDistribution tokenLatency,
+                             double serverErrorRate,
+                             double clientErrorRate,
+                             int tokenLifetime) {
+        // Checks
+        if (port < 0 || threads < 0 || tokenLifetime <= 0) {
+            throw new IllegalStateException("Port and threads must be zero or positive, token lifetime must be positive!");
+        }
+        if (serverErrorRate < 0d || clientErrorRate < 0d || serverErrorRate + clientErrorRate > 1d) {
+            throw new IllegalStateException("Error rates must be between zero and one!");
+        }
+        if (basePath == null || !basePath.startsWith("/")) {
+            throw new IllegalStateException("Base path must start with a slash!");
+        }
+        
+        this.port = port;
+        this.threads = threads;
+        this.basePath = basePath.endsWith("/") ? basePath.substring(0, basePath.length() - 1) : basePath;
+        this.latency = latency;
+        this.tokenLatency = tokenLatency;
+        this.serverErrorRate = serverErrorRate;
+        this.clientErrorRate = clientErrorRate;
+        this.tokenLifetime = tokenLifetime;
+    }
+    
+    /**
+     * Whether the embedded mock server is enabled in the configuration file.
+     * 
+     * @param root the root section of the configuration file
+     * @return {@code true} if the "mock" section exists and is enabled
+     */
+    public static boolean isEnabled(ConfigurationSection root) {
+        return root.contains("mock") && root.getSection("mock").getBoolean("enabled", false);
+    }
+    
+    /**
+     * Creates the configuration from the configuration file's "mock" section.
+     * Missing values are set to their defaults.
+     * 
+     * @param root the root section of the configuration file
+     * @return the configuration
+     */
+    public static MockConfiguration fromSection(ConfigurationSection root) {
+        ConfigurationSection section = root.contains("mock") ? root.getSection("mock") : new ConfigurationSection("mock", null);
+        
+        // Latencies are configured in milliseconds
+        return new MockConfiguration(section.getInt("port", 0),
+                                     section.getInt("threads", 0),
+                                     section.getString("basePath", "/api/pseudonymization"),
+                                     new LatencyDistribution(Type.valueOf(section.getString("latencyDistribution", "constant").toUpperCase()),
+                                                             section.getDouble("latencyMean", 0d) * 1000d,
+                                                             section.getDouble("latencyDeviation", 0d) * 1000d),
+                                     new LatencyDistribution(Type.CONSTANT, section.getDouble("tokenLatency", 0d) * 1000d, 0d),
+                                     section.getDouble("serverErrorRate", 0d),
+                                     section.getDouble("clientErrorRate", 0d),
+                                     section.getInt("tokenLifetime", 300));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+import org.trustdeck.benchmark.connector.Outcome;
+
+import lombok.Getter;
+
+/**
+ * Reads traces written by {@link TraceRecorder}. The file is streamed, so traces of
+ * arbitrary length can be replayed.
+ * 
+ * @author Armin Müller
+ */
+public class TraceReader implements Closeable {
+    
+    /** Size of the read buffer. */
+    private static final int BUFFER_SIZE = 1 << 20;
+    
+    /** Input. */
+    private final DataInputStream input;
+    
+    /** Wall-clock time at which the recorded run started, in milliseconds. */
+    @Getter
+    private final long startTime;
+    
+    /** Number of records created while preparing the recorded run. */
+    @Getter
+    private final long initialDBSize;
+    
+    /** Work types by their index in the file. */
+    private final WorkType[] types;
+    
+    /** Outcomes by their index in the file. */
+    private final Outcome[] outcomes;
+    
+    /**
+     * Creates a new instance and reads the header.
+     * 
+     * @param file the file to read from
+     * @throws IOException if the file is not a trace or cannot be read
+     */
+    public TraceReader(File file) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+        try {
+            // Header
+            if (input.readInt() != TraceRecorder.MAGIC) {
+                throw new IOException(file + " is not a trace file.");
+            }
+            short version = input.readShort();
+            if (version != TraceRecorder.VERSION) {
+                throw new IOException("Unsupported trace version " + version + " in " + file);
+            }
+            this.startTime = input.readLong();
+            this.initialDBSize = input.readLong();
+            this.types = new WorkType[input.readUnsignedByte()];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = WorkType.valueOf(input.readUTF());
+            }
+            this.outcomes = new Outcome[input.readUnsignedByte()];
+            for (int i = 0; i < outcomes.length; i++) {
+                outcomes[i] = Outcome.valueOf(input.readUTF());
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            input.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("Trace " + file + " contains unknown types", e);
+        }
+    }
+    
+    /**
+     * Reads the next record. Thread safe.
+     * 
+     * @return the record, null at the end of the trace
+     * @throws IOException
+     */
+    public synchronized TraceRecord next() throws IOException {
+        long offset;
+        try {
+            offset = input.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+        WorkType type = types[input.readUnsignedByte()];
+        Outcome outcome = outcomes[input.readUnsignedByte()];
+        int latency = input.readInt();
+        String id = input.readUTF();
+        return new TraceRecord(offset, type, id.isEmpty() ? null : id, outcome, latency);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+    
+    /**
+     * Prints a trace as CSV, e.g., to compare the outcomes and latencies of two runs.
+     * 
+     * @param args path of the trace file
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: TraceReader <trace file>");
+            System.exit(1);
+        }
+        try (TraceReader reader = new TraceReader(new File(args[0]));
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(System.out))) {
+            writer.write("Offset us;Type;Id;Outcome;Latency us\n");
+            for (TraceRecord record = reader.next(); record != null; record = reader.next()) {
+                writer.write(record.getOffset() + ";" + record.getType() + ";" + (record.getId() != null ? record.getId() : "") + ";" + record.getOutcome().getLabel() + ";" + record.getLatency() + "\n");
+            }
+        }
+    }
+}
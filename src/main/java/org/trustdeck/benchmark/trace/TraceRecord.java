@@ -0,0 +1,64 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.trace;
+
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+import org.trustdeck.benchmark.connector.Outcome;
+
+import lombok.Getter;
+
+/**
+ * An operation issued during a benchmark run, as stored in a trace.
+ * 
+ * @author Armin Müller
+ */
+@Getter
+public class TraceRecord {
+    
+    /** Time at which the operation was issued, in microseconds since the start of the run. */
+    private final long offset;
+    
+    /** Type of the operation. */
+    private final WorkType type;
+    
+    /** Identifier used by the operation, null if none. */
+    private final String id;
+    
+    /** Outcome of the operation. */
+    private final Outcome outcome;
+    
+    /** Latency of the operation in microseconds. */
+    private final int latency;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param offset
+     * @param type
+     * @param id
+     * @param outcome
+     * @param latency
+     */
+    public TraceRecord(long offset, WorkType type, String id, Outcome outcome, int latency) {
+        this.offset = offset;
+        this.type = type;
+        this.id = id;
+        this.outcome = outcome;
+        this.latency = latency;
+    }
+}
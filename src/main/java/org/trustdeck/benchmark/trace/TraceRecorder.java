@@ -0,0 +1,222 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.trace;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+import org.trustdeck.benchmark.connector.Outcome;
+
+/**
+ * Records all operations issued during a benchmark run to a compact binary file.
+ * 
+ * The file starts with a header (magic number, version, start time, number of records
+ * created while preparing, and the names of all work types and outcomes). Each record
+ * consists of the offset since the start in microseconds (8 bytes), the type and
+ * outcome (1 byte each), the latency in microseconds (4 bytes), and the identifier
+ * (modified UTF-8, empty if none).
+ * 
+ * Records are written in the order in which operations were issued, so that a replay
+ * reproduces the request stream. Operations that complete before operations issued earlier
+ * are held back until those have completed, but only up to a limited number of records, so
+ * that a slow or lost operation does not hold back the trace. Such an operation is written
+ * once it completes, slightly out of order. Writes go through a large buffer and are
+ * serialized by a short critical section.
+ * 
+ * @author Armin Müller
+ */
+public class TraceRecorder implements Closeable {
+    
+    /** Magic number, "ACET". */
+    static final int MAGIC = 0x41434554;
+    
+    /** Version of the file format. */
+    static final short VERSION = 1;
+    
+    /** Size of the write buffer. */
+    private static final int BUFFER_SIZE = 1 << 20;
+    
+    /** Maximal number of records held back for operations issued earlier. */
+    private static final int MAX_PENDING = 1 << 16;
+    
+    /** Output. */
+    private final DataOutputStream output;
+    
+    /** Start of the run in nanoseconds, see {@link System#nanoTime()}. */
+    private volatile long startTime;
+    
+    /** First error that occurred while writing, raised when closing. */
+    private IOException error;
+    
+    /** Sequence number of the next issued operation. */
+    private final AtomicLong issued = new AtomicLong();
+    
+    /** Sequence number of the next record to write. Guarded by the output. */
+    private long next = 0L;
+    
+    /** Completed operations waiting for operations issued earlier, by sequence number. Guarded by the output. */
+    private final TreeMap<Long, TraceRecord> pending = new TreeMap<>();
+    
+    /**
+     * Creates a new instance and writes the header.
+     * 
+     * @param file the file to write to
+     * @param initialDBSize number of records created while preparing the run
+     * @throws IOException
+     */
+    public TraceRecorder(File file, long initialDBSize) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+        this.startTime = System.nanoTime();
+        
+        // Header
+        output.writeInt(MAGIC);
+        output.writeShort(VERSION);
+        output.writeLong(System.currentTimeMillis());
+        output.writeLong(initialDBSize);
+        output.writeByte(WorkType.values().length);
+        for (WorkType type : WorkType.values()) {
+            output.writeUTF(type.name());
+        }
+        output.writeByte(Outcome.values().length);
+        for (Outcome outcome : Outcome.values()) {
+            output.writeUTF(outcome.name());
+        }
+    }
+    
+    /**
+     * Sets the start of the run, to which all offsets refer.
+     * 
+     * @param startTime start in nanoseconds, see {@link System#nanoTime()}
+     */
+    public void start(long startTime) {
+        this.startTime = startTime;
+    }
+    
+    /**
+     * Registers an operation that is about to be issued. Thread safe.
+     * 
+     * @return the sequence number of the operation, to be passed to {@link #record(long, long, WorkType, String, Outcome, long)}
+     */
+    public long issue() {
+        return issued.getAndIncrement();
+    }
+    
+    /**
+     * Records a completed operation. It is written once all operations issued before it have been recorded,
+     * or once too many records are held back. Thread safe.
+     * 
+     * @param sequence sequence number obtained from {@link #issue()}
+     * @param issueTime time at which the operation was issued in nanoseconds, see {@link System#nanoTime()}
+     * @param type type of the operation
+     * @param id identifier used by the operation, null if none
+     * @param outcome outcome of the operation
+     * @param latency latency of the operation in nanoseconds
+     */
+    public void record(long sequence, long issueTime, WorkType type, String id, Outcome outcome, long latency) {
+        TraceRecord record = new TraceRecord(Math.max(0L, (issueTime - startTime) / 1000L), type, id, outcome,
+                                             (int) Math.min(Integer.MAX_VALUE, latency / 1000L));
+        synchronized (output) {
+            if (error != null) {
+                return;
+            }
+            
+            // Records given up waiting for are written right away
+            if (sequence < next) {
+                write(record);
+                return;
+            }
+            
+            // Wait for operations issued earlier, until too many records are held back
+            if (sequence != next) {
+                pending.put(sequence, record);
+                if (pending.size() <= MAX_PENDING) {
+                    return;
+                }
+                Entry<Long, TraceRecord> first = pending.pollFirstEntry();
+                record = first.getValue();
+                next = first.getKey();
+            }
+            
+            // Write, followed by all records that have been waiting for this one
+            write(record);
+            next++;
+            for (record = pending.remove(next); record != null; record = pending.remove(next)) {
+                write(record);
+                next++;
+            }
+        }
+    }
+    
+    /**
+     * Returns the number of records held back for operations issued earlier.
+     * 
+     * @return the number
+     */
+    int getNumPending() {
+        synchronized (output) {
+            return pending.size();
+        }
+    }
+    
+    /**
+     * Writes a record. Must be called while holding the lock on the output.
+     * 
+     * @param record
+     */
+    private void write(TraceRecord record) {
+        if (error != null) {
+            return;
+        }
+        try {
+            output.writeLong(record.getOffset());
+            output.writeByte(record.getType().ordinal());
+            output.writeByte(record.getOutcome().ordinal());
+            output.writeInt(record.getLatency());
+            output.writeUTF(record.getId() != null ? record.getId() : "");
+        } catch (IOException e) {
+            // Stop recording, but do not disturb the run
+            error = e;
+        }
+    }
+    
+    /**
+     * Flushes and closes the file. Records still waiting for operations that never completed are written in the order of issue.
+     * 
+     * @throws IOException if writing any record failed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (output) {
+            for (Entry<Long, TraceRecord> entry = pending.pollFirstEntry(); entry != null; entry = pending.pollFirstEntry()) {
+                write(entry.getValue());
+            }
+            output.close();
+            if (error != null) {
+                throw new IOException("Trace is incomplete", error);
+            }
+        }
+    }
+}
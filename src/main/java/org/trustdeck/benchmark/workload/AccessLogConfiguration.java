@@ -0,0 +1,128 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.workload;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.trustdeck.benchmark.ConfigurationSection;
+
+import lombok.Getter;
+
+/**
+ * Configuration of a workload derived from an access log.
+ * 
+ * @author Armin Müller
+ */
+@Getter
+public class AccessLogConfiguration {
+    
+    /** Default line format: the common/combined log format of nginx and Apache. */
+    public static final String DEFAULT_LINE_FORMAT = "^\\S+ \\S+ \\S+ \\[(?<time>[^\\]]+)\\] \"(?<method>[A-Z]+) (?<path>\\S+)[^\"]*\"";
+    
+    /** Default time format, matching the default line format. */
+    public static final String DEFAULT_TIME_FORMAT = "dd/MMM/yyyy:HH:mm:ss Z";
+    
+    /** Time format for seconds since the epoch, possibly with fraction. */
+    public static final String TIME_FORMAT_EPOCH = "epoch";
+    
+    /** Time format for milliseconds since the epoch. */
+    public static final String TIME_FORMAT_EPOCH_MILLIS = "epochMillis";
+    
+    /** Path of the log file. */
+    private final String path;
+    
+    /** Format of a line, with the named groups "time", "method", and "path". */
+    private final Pattern lineFormat;
+    
+    /** Format of the time, a {@link java.time.format.DateTimeFormatter} pattern, "epoch", or "epochMillis". */
+    private final String timeFormat;
+    
+    /** Length of the windows in which the mix of operations is derived, in milliseconds. */
+    private final long window;
+    
+    /** Factor applied to the request rate. */
+    private final double scale;
+    
+    /** Factor applied to the passing of time, e.g., 60 replays an hour of traffic in a minute. */
+    private final double speed;
+    
+    /** Number of most recently accessed identifiers considered when deriving and emulating key reuse. */
+    private final int reuseHorizon;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param path
+     * @param lineFormat
+     * @param timeFormat
+     * @param window
+     * @param scale
+     * @param speed
+     * @param reuseHorizon
+     */
+    public AccessLogConfiguration(String path,
+                                  String lineFormat,
+                                  String timeFormat,
+                                  long window,
+                                  double scale,
+                                  double speed,
+                                  int reuseHorizon) {
+        // Checks
+        if (path == null || timeFormat == null) {
+            throw new IllegalStateException("Path and time format of the access log must not be null!");
+        }
+        if (window <= 0 || scale <= 0d || speed <= 0d || reuseHorizon <= 0) {
+            throw new IllegalStateException("Window, scale, speed, and reuse horizon must be positive!");
+        }
+        try {
+            this.lineFormat = Pattern.compile(lineFormat);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalStateException("Invalid line format: " + lineFormat, e);
+        }
+        for (String group : new String[] {"time", "method", "path"}) {
+            if (!lineFormat.contains("(?<" + group + ">")) {
+                throw new IllegalStateException("Line format must contain the named group '" + group + "'!");
+            }
+        }
+        
+        this.path = path;
+        this.timeFormat = timeFormat;
+        this.window = window;
+        this.scale = scale;
+        this.speed = speed;
+        this.reuseHorizon = reuseHorizon;
+    }
+    
+    /**
+     * Creates the configuration from a scenario's "accessLog" section.
+     * Missing values are set to their defaults.
+     * 
+     * @param section the section
+     * @return the configuration
+     */
+    public static AccessLogConfiguration fromSection(ConfigurationSection section) {
+        return new AccessLogConfiguration(section.getString("path"),
+                                          section.getString("lineFormat", DEFAULT_LINE_FORMAT),
+                                          section.getString("timeFormat", DEFAULT_TIME_FORMAT),
+                                          section.getLong("window", 60000L),
+                                          section.getDouble("scale", 1d),
+                                          section.getDouble("speed", 1d),
+                                          section.getInt("reuseHorizon", 10000));
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.workload;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+
+import lombok.Getter;
+
+/**
+ * Traffic characteristics derived from an access log: the number of operations of each
+ * type per time window, the share of requests re-accessing a recently used identifier,
+ * and the share of each domain. The log is streamed once; memory is proportional to the
+ * number of windows and the reuse horizon, not to the size of the log.
+ * 
+ * @author Armin Müller
+ */
+public class AccessLogProfile {
+    
+    /** Paths of requests addressing a single pseudonym. */
+    private static final Pattern PSEUDONYM_PATH = Pattern.compile("/domains/(?<domain>[^/?]+)/pseudonym(?:\\?(?<query>.*))?$");
+    
+    /** Paths of pings. */
+    private static final Pattern PING_PATH = Pattern.compile("/ping(?:\\?.*)?$");
+    
+    /**
+     * Operations within one window.
+     */
+    @Getter
+    public static class Window {
+        
+        /** Number of operations by type. */
+        private final long[] counts = new long[WorkType.values().length];
+        
+        /** Number of operations addressing an identifier. */
+        private long keyed;
+        
+        /** Number of operations addressing an identifier within the reuse horizon. */
+        private long reused;
+        
+        /** Duration in milliseconds. */
+        private long duration;
+        
+        /**
+         * Number of operations of the given type.
+         * 
+         * @param type
+         * @return the count
+         */
+        public long getCount(WorkType type) {
+            return counts[type.ordinal()];
+        }
+        
+        /**
+         * Total number of operations.
+         * 
+         * @return the count
+         */
+        public long getTotal() {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+        
+        /**
+         * Share of operations addressing an identifier that re-access a recently used one.
+         * 
+         * @return the share between zero and one
+         */
+        public double getReuse() {
+            return keyed == 0 ? 0d : (double) reused / (double) keyed;
+        }
+    }
+    
+    /** Windows in chronological order. */
+    @Getter
+    private final List<Window> windows;
+    
+    /** Number of operations by domain. */
+    @Getter
+    private final Map<String, Long> domains;
+    
+    /** Number of lines converted into operations. */
+    @Getter
+    private final long numOperations;
+    
+    /** Number of lines skipped, as they did not match the format or do not address a pseudonym operation. */
+    @Getter
+    private final long numSkipped;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param windows
+     * @param domains
+     * @param numOperations
+     * @param numSkipped
+     */
+    private AccessLogProfile(List<Window> windows, Map<String, Long> domains, long numOperations, long numSkipped) {
+        this.windows = Collections.unmodifiableList(windows);
+        this.domains = Collections.unmodifiableMap(domains);
+        this.numOperations = numOperations;
+        this.numSkipped = numSkipped;
+    }
+    
+    /**
+     * Share of the operations addressing the busiest domain.
+     * 
+     * @return the share between zero and one, zero if no operation addressed a domain
+     */
+    public double getBusiestDomainShare() {
+        long total = 0;
+        long max = 0;
+        for (long count : domains.values()) {
+            total += count;
+            max = Math.max(max, count);
+        }
+        return total == 0 ? 0d : (double) max / (double) total;
+    }
+    
+    /**
+     * Number of operations of the busiest domains, in descending order. Used for spreading the
+     * load across the benchmark's domains with the skew observed in the log.
+     * 
+     * @param count the number of domains
+     * @return the numbers of operations, zero for domains beyond those found in the log
+     */
+    public double[] getDomainWeights(int count) {
+        List<Long> counts = new ArrayList<>(domains.values());
+        counts.sort(Collections.reverseOrder());
+        double[] weights = new double[count];
+        for (int i = 0; i < count && i < counts.size(); i++) {
+            weights[i] = counts.get(i);
+        }
+        return weights;
+    }
+    
+    /**
+     * Streams the access log and derives its profile. Logs ending with ".gz" are decompressed.
+     * 
+     * @param config the configuration
+     * @return the profile
+     * @throws IOException if the log cannot be read or contains no operations
+     */
+    public static AccessLogProfile load(AccessLogConfiguration config) throws IOException {
+        
+        // Prepare
+        DateTimeFormatter formatter = isEpoch(config.getTimeFormat()) ? null : DateTimeFormatter.ofPattern(config.getTimeFormat(), Locale.ENGLISH);
+        Matcher line = config.getLineFormat().matcher("");
+        Matcher pseudonym = PSEUDONYM_PATH.matcher("");
+        Matcher ping = PING_PATH.matcher("");
+        Map<String, Boolean> recent = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > config.getReuseHorizon();
+            }
+        };
+        List<Window> windows = new ArrayList<>();
+        Map<String, Long> domains = new HashMap<>();
+        long numOperations = 0;
+        long numSkipped = 0;
+        long firstTime = Long.MIN_VALUE;
+        long lastTime = Long.MIN_VALUE;
+        String lastTimeText = null;
+        long lastTimeValue = 0;
+        
+        // Stream lines
+        try (BufferedReader reader = open(config.getPath())) {
+            for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+                
+                // Parse line
+                if (!line.reset(text).find()) {
+                    numSkipped++;
+                    continue;
+                }
+                String method = line.group("method");
+                String path = line.group("path");
+                
+                // Classify request
+                WorkType type;
+                String domain = null;
+                String id = null;
+                if (pseudonym.reset(path).find()) {
+                    domain = pseudonym.group("domain");
+                    try {
+                        id = getParameter(pseudonym.group("query"), "id");
+                    } catch (IllegalArgumentException e) {
+                        // Malformed escape
+                        numSkipped++;
+                        continue;
+                    }
+                    switch (method) {
+                    case "POST":
+                        type = WorkType.CREATE;
+                        break;
+                    case "GET":
+                        type = WorkType.READ;
+                        break;
+                    case "PUT":
+                        type = WorkType.UPDATE;
+                        break;
+                    case "DELETE":
+                        type = WorkType.DELETE;
+                        break;
+                    default:
+                        numSkipped++;
+                        continue;
+                    }
+                } else if (ping.reset(path).find()) {
+                    type = WorkType.PING;
+                } else {
+                    numSkipped++;
+                    continue;
+                }
+                
+                // Parse time, which often repeats in consecutive lines
+                String timeText = line.group("time");
+                long time;
+                if (timeText.equals(lastTimeText)) {
+                    time = lastTimeValue;
+                } else {
+                    try {
+                        time = parseTime(timeText, config.getTimeFormat(), formatter);
+                    } catch (DateTimeParseException | NumberFormatException e) {
+                        numSkipped++;
+                        continue;
+                    }
+                    lastTimeText = timeText;
+                    lastTimeValue = time;
+                }
+                if (firstTime == Long.MIN_VALUE) {
+                    firstTime = time;
+                }
+                lastTime = Math.max(lastTime, time);
+                
+                // Find window, slightly out-of-order lines before the first one are assigned to it
+                int index = (int) (Math.max(0L, time - firstTime) / config.getWindow());
+                while (windows.size() <= index) {
+                    windows.add(new Window());
+                }
+                Window window = windows.get(index);
+                
+                // Count
+                window.counts[type.ordinal()]++;
+                if (id != null) {
+                    window.keyed++;
+                    if (recent.put(id, Boolean.TRUE) != null) {
+                        window.reused++;
+                    }
+                }
+                if (domain != null) {
+                    domains.merge(domain, 1L, Long::sum);
+                }
+                numOperations++;
+            }
+        }
+        
+        // Check
+        if (numOperations == 0) {
+            throw new IOException("No operations found in " + config.getPath() + ", " + numSkipped + " lines skipped. Check the line and time format.");
+        }
+        
+        // Durations, the last window ends with the last request
+        for (int i = 0; i < windows.size(); i++) {
+            windows.get(i).duration = i < windows.size() - 1 ? config.getWindow() : Math.max(1L, lastTime - firstTime - i * config.getWindow() + 1L);
+        }
+        
+        // Done
+        return new AccessLogProfile(windows, domains, numOperations, numSkipped);
+    }
+    
+    /**
+     * Opens the log.
+     * 
+     * @param path
+     * @return the reader
+     * @throws IOException
+     */
+    private static BufferedReader open(String path) throws IOException {
+        InputStream input = new FileInputStream(path);
+        try {
+            if (path.endsWith(".gz")) {
+                input = new GZIPInputStream(input, 1 << 16);
+            }
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+        return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+    }
+    
+    /**
+     * Whether the time format is one of the epoch-based formats.
+     * 
+     * @param format
+     * @return
+     */
+    private static boolean isEpoch(String format) {
+        return AccessLogConfiguration.TIME_FORMAT_EPOCH.equals(format) || AccessLogConfiguration.TIME_FORMAT_EPOCH_MILLIS.equals(format);
+    }
+    
+    /**
+     * Parses a time.
+     * 
+     * @param text
+     * @param format
+     * @param formatter the formatter, null for epoch-based formats
+     * @return milliseconds since the epoch
+     */
+    private static long parseTime(String text, String format, DateTimeFormatter formatter) {
+        if (AccessLogConfiguration.TIME_FORMAT_EPOCH.equals(format)) {
+            return (long) (Double.parseDouble(text) * 1000d);
+        } else if (AccessLogConfiguration.TIME_FORMAT_EPOCH_MILLIS.equals(format)) {
+            return Long.parseLong(text);
+        }
+        
+        // Times without zone are interpreted as UTC, which does not affect the derived windows
+        TemporalAccessor parsed = formatter.parse(text);
+        if (parsed.isSupported(ChronoField.OFFSET_SECONDS)) {
+            return Instant.from(parsed).toEpochMilli();
+        }
+        return LocalDateTime.from(parsed).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+    
+    /**
+     * Extracts a parameter from a query string.
+     * 
+     * @param query the query string, may be null
+     * @param name the parameter's name
+     * @return the decoded value, null if not present
+     * @throws IllegalArgumentException if the value contains a malformed escape
+     */
+    private static String getParameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith(name) && parameter.length() > name.length() && parameter.charAt(name.length()) == '=') {
+                return URLDecoder.decode(parameter.substring(name.length() + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.workload;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.trustdeck.benchmark.Statistics;
+import org.trustdeck.benchmark.WorkDistribution;
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+import org.trustdeck.benchmark.workload.AccessLogProfile.Window;
+
+/**
+ * Synthetic workload following an access log's profile. Windows are replayed one after
+ * another; within each window, operations are issued at the window's (scaled) rate with
+ * its mix of operation types, and identifiers are re-accessed with the window's share.
+ * A single scheduler thread queues the operations open loop.
+ * 
+ * @author Armin Müller
+ */
+public class AccessLogWorkload extends OpenLoopWorkload {
+    
+    /** The configuration. */
+    private final AccessLogConfiguration config;
+    
+    /** The windows. */
+    private final Window[] windows;
+    
+    /** Mix of operations for each window. */
+    private final WorkDistribution[] distributions;
+    
+    /** Interval between two operations for each window in nanoseconds. */
+    private final long[] intervals;
+    
+    /** Start of each window in nanoseconds relative to the start of the run, plus the end of the last one. */
+    private final long[] starts;
+    
+    /** Recently accessed identifiers. */
+    private final AtomicReferenceArray<String> recent;
+    
+    /** Number of identifiers added to the recently accessed ones. */
+    private final AtomicLong numRecent = new AtomicLong();
+    
+    /** Start of the run in nanoseconds. */
+    private volatile long startTime;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param config
+     * @param profile
+     */
+    public AccessLogWorkload(AccessLogConfiguration config, AccessLogProfile profile) {
+        this.config = config;
+        List<Window> list = profile.getWindows();
+        this.windows = list.toArray(new Window[list.size()]);
+        this.distributions = new WorkDistribution[windows.length];
+        this.intervals = new long[windows.length];
+        this.starts = new long[windows.length + 1];
+        this.recent = new AtomicReferenceArray<>(config.getReuseHorizon());
+        
+        // Derive parameters of each window
+        long start = 0L;
+        for (int i = 0; i < windows.length; i++) {
+            Window window = windows[i];
+            long duration = (long) (window.getDuration() * 1000000d / config.getSpeed());
+            long total = window.getTotal();
+            if (total > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Too many operations in a single window, use shorter windows.");
+            }
+            starts[i] = start;
+            intervals[i] = total == 0 ? 0L : Math.max(1L, (long) (duration / (total * config.getScale())));
+            distributions[i] = total == 0 ? null : new WorkDistribution((int) (window.getCount(WorkType.CREATE)),
+                                                                        (int) (window.getCount(WorkType.READ)),
+                                                                        (int) (window.getCount(WorkType.UPDATE)),
+                                                                        (int) (window.getCount(WorkType.DELETE)),
+                                                                        (int) (window.getCount(WorkType.PING)));
+            start += duration;
+        }
+        starts[windows.length] = start;
+    }
+    
+    /**
+     * Marks the start of the run and starts scheduling operations.
+     * 
+     * @param startTime start in nanoseconds, see {@link System#nanoTime()}
+     * @param statistics to which missed operations are reported
+     */
+    public void start(long startTime, Statistics statistics) {
+        this.startTime = startTime;
+        startScheduler("access-log", () -> schedule(startTime, statistics));
+    }
+    
+    /**
+     * Queues the operations of all windows when they are due, until the end of the log or until interrupted.
+     * 
+     * @param startTime start of the run in nanoseconds
+     * @param statistics to which missed operations are reported
+     */
+    private void schedule(long startTime, Statistics statistics) {
+        for (int i = 0; i < windows.length; i++) {
+            
+            // Windows without traffic are skipped
+            if (distributions[i] == null) {
+                continue;
+            }
+            long end = startTime + starts[i + 1];
+            for (long due = startTime + starts[i]; due - end < 0; due += intervals[i]) {
+                if (!awaitDue(due)) {
+                    return;
+                }
+                schedule(new Arrival(distributions[i].sample(), due, due + intervals[i]), statistics);
+            }
+        }
+        
+        // The log ends with its last window
+        if (awaitDue(startTime + starts[windows.length])) {
+            finish();
+        }
+    }
+    
+    /**
+     * Returns a recently accessed identifier with the probability at which identifiers
+     * were re-accessed in the current window of the log.
+     * 
+     * @return the identifier, or null if a new one should be chosen
+     */
+    public String getReusedIdentifier() {
+        int index = getWindow(System.nanoTime() - startTime);
+        if (index >= windows.length) {
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long available = Math.min(numRecent.get(), recent.length());
+        if (available == 0 || random.nextDouble() >= windows[index].getReuse()) {
+            return null;
+        }
+        return recent.get(random.nextInt((int) available));
+    }
+    
+    /**
+     * Remembers an accessed identifier.
+     * 
+     * @param id
+     */
+    public void accessed(String id) {
+        recent.lazySet((int) (numRecent.getAndIncrement() % recent.length()), id);
+    }
+    
+    /**
+     * Returns the window at the given time.
+     * 
+     * @param elapsed time since the start of the run in nanoseconds
+     * @return the index, the number of windows after the end of the log
+     */
+    private int getWindow(long elapsed) {
+        if (elapsed >= starts[windows.length]) {
+            return windows.length;
+        }
+        
+        // Windows are of equal length except for the last one
+        int index = starts.length > 2 && starts[1] > 0 ? (int) (Math.max(0L, elapsed) / starts[1]) : 0;
+        return Math.min(index, windows.length - 1);
+    }
+}
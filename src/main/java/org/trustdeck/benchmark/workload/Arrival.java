@@ -0,0 +1,63 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.workload;
+
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+
+import lombok.Getter;
+
+/**
+ * An operation scheduled at an absolute rate, waiting for a worker.
+ * 
+ * @author Armin Müller
+ */
+@Getter
+public class Arrival {
+    
+    /** Type of the operation. */
+    private final WorkType type;
+    
+    /** Time at which the operation was intended to start in nanoseconds, see {@link System#nanoTime()}. */
+    private final long due;
+    
+    /** Time at which the next operation of the type is due in nanoseconds. */
+    private final long next;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param type
+     * @param due
+     * @param next
+     */
+    public Arrival(WorkType type, long due, long next) {
+        this.type = type;
+        this.due = due;
+        this.next = next;
+    }
+    
+    /**
+     * Whether the operation starts late, i.e., not before the next operation of its type is due.
+     * 
+     * @param now the current time in nanoseconds
+     * @return {@code true} if the operation is late
+     */
+    public boolean isLate(long now) {
+        return now - next >= 0;
+    }
+}
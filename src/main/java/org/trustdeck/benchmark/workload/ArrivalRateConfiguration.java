@@ -0,0 +1,98 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.workload;
+
+import org.trustdeck.benchmark.ConfigurationSection;
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+
+/**
+ * Configuration of a workload with absolute arrival rates. Each type of operation is
+ * issued at its own fixed rate, independent of how fast the other types complete, as
+ * long as there are enough workers to keep up with all of them.
+ * 
+ * @author Armin Müller
+ */
+public class ArrivalRateConfiguration {
+    
+    /** Operations per second, per work type. */
+    private final double[] rates;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param rates operations per second, indexed by the work types' ordinals
+     */
+    public ArrivalRateConfiguration(double[] rates) {
+        // Checks
+        if (rates.length != WorkType.values().length) {
+            throw new IllegalStateException("Arrival rates must be defined for all types of work!");
+        }
+        double sum = 0d;
+        for (double rate : rates) {
+            if (rate < 0d) {
+                throw new IllegalStateException("Arrival rates must be zero or positive!");
+            }
+            sum += rate;
+        }
+        if (sum <= 0d) {
+            throw new IllegalStateException("At least one arrival rate must be positive!");
+        }
+        
+        this.rates = rates;
+    }
+    
+    /**
+     * Creates the configuration from a scenario's "arrivalRates" section, containing the
+     * operations per second for "create", "read", "update", "delete", "ping", "createDomain",
+     * "readDomain", "updateDomain", and "deleteDomain". Missing rates are zero.
+     * 
+     * @param section the section
+     * @return the configuration
+     */
+    public static ArrivalRateConfiguration fromSection(ConfigurationSection section) {
+        WorkType[] types = WorkType.values();
+        double[] rates = new double[types.length];
+        for (int i = 0; i < types.length; i++) {
+            rates[i] = section.getDouble(types[i].getKey(), 0d);
+        }
+        return new ArrivalRateConfiguration(rates);
+    }
+    
+    /**
+     * Returns the rate of a type of work.
+     * 
+     * @param type the type
+     * @return operations per second
+     */
+    public double getRate(WorkType type) {
+        return rates[type.ordinal()];
+    }
+    
+    /**
+     * Returns the sum of all rates.
+     * 
+     * @return operations per second
+     */
+    public double getTotalRate() {
+        double sum = 0d;
+        for (double rate : rates) {
+            sum += rate;
+        }
+        return sum;
+    }
+}
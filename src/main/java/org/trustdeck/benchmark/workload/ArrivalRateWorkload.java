@@ -0,0 +1,83 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.workload;
+
+import org.trustdeck.benchmark.Statistics;
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+
+/**
+ * Workload issuing each type of operation at its own arrival rate. Every type has its own
+ * scheduler thread, which queues the operations open loop, so that the rate of, e.g., creates
+ * does not depend on the latency of reads.
+ * 
+ * @author Armin Müller
+ */
+public class ArrivalRateWorkload extends OpenLoopWorkload {
+    
+    /** Types with a positive rate. */
+    private final WorkType[] types;
+    
+    /** Interval between two operations per type in nanoseconds. */
+    private final long[] intervals;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param config
+     */
+    public ArrivalRateWorkload(ArrivalRateConfiguration config) {
+        
+        // Count active types
+        int count = 0;
+        for (WorkType type : WorkType.values()) {
+            if (config.getRate(type) > 0d) {
+                count++;
+            }
+        }
+        
+        // Prepare intervals
+        this.types = new WorkType[count];
+        this.intervals = new long[count];
+        int index = 0;
+        for (WorkType type : WorkType.values()) {
+            if (config.getRate(type) > 0d) {
+                types[index] = type;
+                intervals[index] = Math.max(1L, (long) (1000000000d / config.getRate(type)));
+                index++;
+            }
+        }
+    }
+    
+    /**
+     * Starts scheduling operations.
+     * 
+     * @param startTime start of the run in nanoseconds, at which the first operation of each type is due
+     * @param statistics to which missed operations are reported
+     */
+    public void start(long startTime, Statistics statistics) {
+        for (int i = 0; i < types.length; i++) {
+            WorkType type = types[i];
+            long interval = intervals[i];
+            startScheduler("arrivals-" + type.getKey(), () -> {
+                for (long due = startTime; awaitDue(due); due += interval) {
+                    schedule(new Arrival(type, due, due + interval), statistics);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.workload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.trustdeck.benchmark.Statistics;
+
+/**
+ * Base class for workloads that schedule operations open loop. Scheduler threads queue each
+ * operation when it is due, regardless of how many are outstanding, and the workers serve the
+ * queue in order. Operations are thus never skipped: if the workers fall behind, operations start
+ * late, and their latency covers the time since they were due. Operations that do not fit into
+ * the queue anymore are reported as missed.
+ * 
+ * @author Armin Müller
+ */
+public abstract class OpenLoopWorkload {
+    
+    /** Maximal number of operations waiting for a worker. */
+    private static final int QUEUE_CAPACITY = 1 << 16;
+    
+    /** Time a worker waits for an operation before checking whether the schedule has ended, in nanoseconds. */
+    private static final long POLL_INTERVAL = 100000000L;
+    
+    /** Operations that are due, in the order they were due. */
+    private final BlockingQueue<Arrival> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    
+    /** Scheduler threads. */
+    private final List<Thread> schedulers = new ArrayList<>();
+    
+    /** Whether all operations have been scheduled. */
+    private volatile boolean finished = false;
+    
+    /**
+     * Starts a scheduler thread.
+     * 
+     * @param name the name of the thread
+     * @param scheduler the scheduler, returning when interrupted
+     */
+    protected void startScheduler(String name, Runnable scheduler) {
+        Thread thread = new Thread(scheduler, name);
+        thread.setDaemon(true);
+        schedulers.add(thread);
+        thread.start();
+    }
+    
+    /**
+     * Stops scheduling operations and drops those waiting for a worker.
+     */
+    public void stop() {
+        for (Thread scheduler : schedulers) {
+            scheduler.interrupt();
+        }
+        schedulers.clear();
+        queue.clear();
+    }
+    
+    /**
+     * Queues an operation without waiting for the workers.
+     * 
+     * @param arrival the operation
+     * @param statistics to which the operation is reported if it is missed
+     */
+    protected void schedule(Arrival arrival, Statistics statistics) {
+        if (!queue.offer(arrival)) {
+            statistics.addMissed(arrival.getType());
+        }
+    }
+    
+    /**
+     * Marks that all operations have been scheduled.
+     */
+    protected void finish() {
+        finished = true;
+    }
+    
+    /**
+     * Waits until an operation is due. Operations in the past are due right away.
+     * 
+     * @param due the time in nanoseconds, see {@link System#nanoTime()}
+     * @return {@code false} if the scheduler has been interrupted
+     */
+    protected static boolean awaitDue(long due) {
+        for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+    
+    /**
+     * Waits until an operation is due and returns it. Thread safe.
+     * 
+     * @return the operation, null if all operations have been served or the worker has been interrupted
+     */
+    public Arrival next() {
+        try {
+            while (true) {
+                Arrival arrival = queue.poll(POLL_INTERVAL, TimeUnit.NANOSECONDS);
+                if (arrival != null) {
+                    return arrival;
+                }
+                if (finished && queue.isEmpty()) {
+                    return null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
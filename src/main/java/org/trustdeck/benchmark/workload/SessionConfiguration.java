@@ -0,0 +1,116 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.workload;
+
+import org.trustdeck.benchmark.ConfigurationSection;
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+
+import lombok.Getter;
+
+/**
+ * Configuration of a session-based workload. Each session follows the lifecycle of one
+ * simulated patient: its pseudonym is created, then read and updated a number of times,
+ * and finally deleted or left in place. After each operation, the next one is chosen
+ * with the transition probabilities of the state the session is in.
+ * 
+ * @author Armin Müller
+ */
+@Getter
+public class SessionConfiguration {
+    
+    /** States in which a transition is chosen, in the order of the rows of the transition matrix. */
+    static final WorkType[] STATES = {WorkType.CREATE, WorkType.READ, WorkType.UPDATE};
+    
+    /** Operations that can follow, in the order of the columns of the transition matrix. */
+    static final WorkType[] TARGETS = {WorkType.READ, WorkType.UPDATE, WorkType.DELETE};
+    
+    /** Probabilities of the next operation, per state. The remainder ends the session without deleting the record. */
+    private final double[][] transitions;
+    
+    /** Mean time between two operations of a session, in milliseconds. Think times are exponentially distributed. */
+    private final double thinkTime;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param transitions per state (create, read, update) the probabilities of a read, update, and delete to follow
+     * @param thinkTime mean time between two operations of a session in milliseconds
+     */
+    public SessionConfiguration(double[][] transitions, double thinkTime) {
+        // Checks
+        if (transitions.length != STATES.length) {
+            throw new IllegalStateException("Transitions must be defined for create, read, and update!");
+        }
+        for (int state = 0; state < STATES.length; state++) {
+            double sum = 0d;
+            for (double probability : transitions[state]) {
+                if (probability < 0d) {
+                    throw new IllegalStateException("Transition probabilities must be zero or positive!");
+                }
+                sum += probability;
+            }
+            if (transitions[state].length != TARGETS.length || sum > 1d) {
+                throw new IllegalStateException("Transition probabilities after a " + STATES[state].name().toLowerCase() + " must add up to at most one!");
+            }
+            if (transitions[state][0] + transitions[state][1] >= 1d) {
+                throw new IllegalStateException("Sessions must end: after a " + STATES[state].name().toLowerCase() + ", a read or update must not be certain!");
+            }
+        }
+        if (thinkTime < 0d) {
+            throw new IllegalStateException("Think time must be zero or positive!");
+        }
+        
+        this.transitions = transitions;
+        this.thinkTime = thinkTime;
+    }
+    
+    /**
+     * Creates the configuration from a scenario's "session" section, with the subsections
+     * "afterCreate", "afterRead", and "afterUpdate" each containing the probabilities "read",
+     * "update", and "delete". Missing values are set to their defaults.
+     * 
+     * @param section the section
+     * @return the configuration
+     */
+    public static SessionConfiguration fromSection(ConfigurationSection section) {
+        double[][] transitions = new double[][] {
+            getTransitions(section, "afterCreate", 0.8d, 0.1d, 0.05d),
+            getTransitions(section, "afterRead", 0.5d, 0.1d, 0.1d),
+            getTransitions(section, "afterUpdate", 0.6d, 0.1d, 0.1d)
+        };
+        return new SessionConfiguration(transitions, section.getDouble("thinkTime", 0d));
+    }
+    
+    /**
+     * Reads the transition probabilities of a state.
+     * 
+     * @param section the session section
+     * @param key the key of the state's subsection
+     * @param read default probability of a read
+     * @param update default probability of an update
+     * @param delete default probability of a delete
+     * @return the probabilities of a read, update, and delete
+     */
+    private static double[] getTransitions(ConfigurationSection section, String key, double read, double update, double delete) {
+        if (!section.contains(key)) {
+            return new double[] {read, update, delete};
+        }
+        ConfigurationSection state = section.getSection(key);
+        return new double[] {state.getDouble("read", 0d), state.getDouble("update", 0d), state.getDouble("delete", 0d)};
+    }
+}
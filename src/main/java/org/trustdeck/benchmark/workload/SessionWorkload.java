@@ -0,0 +1,149 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.workload;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+import org.trustdeck.benchmark.connector.Outcome;
+
+/**
+ * Session-based workload. Every worker runs one session at a time, whose state is kept
+ * per thread: a session starts with a create, continues according to the transition
+ * probabilities, and ends with a delete or when no further operation is chosen.
+ * All methods refer to the session of the calling thread.
+ * 
+ * @author Armin Müller
+ */
+public class SessionWorkload {
+    
+    /**
+     * State of a session.
+     */
+    private static class Session {
+        
+        /** The next operation, a create starts a new session. */
+        private WorkType next = WorkType.CREATE;
+        
+        /** Identifier of the session's record, null until it has been created. */
+        private String id;
+        
+        /** Start of the session in nanoseconds. */
+        private long start;
+    }
+    
+    /** The configuration. */
+    private final SessionConfiguration config;
+    
+    /** The session of each worker. */
+    private final ThreadLocal<Session> sessions = ThreadLocal.withInitial(Session::new);
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param config
+     */
+    public SessionWorkload(SessionConfiguration config) {
+        this.config = config;
+    }
+    
+    /**
+     * Returns the next operation of the session, once the think time has passed.
+     * 
+     * @return the operation, a create for the first operation of a new session
+     */
+    public WorkType next() {
+        Session session = sessions.get();
+        if (session.next == WorkType.CREATE) {
+            session.start = System.nanoTime();
+        } else if (config.getThinkTime() > 0d) {
+            // Exponentially distributed think time
+            double thinkTime = -Math.log(1d - ThreadLocalRandom.current().nextDouble()) * config.getThinkTime();
+            LockSupport.parkNanos((long) (thinkTime * 1000000d));
+        }
+        return session.next;
+    }
+    
+    /**
+     * Returns the identifier of the session's record.
+     * 
+     * @return the identifier, null before it has been created
+     */
+    public String getIdentifier() {
+        return sessions.get().id;
+    }
+    
+    /**
+     * Advances the session after an operation has completed.
+     * 
+     * @param type the type of the operation
+     * @param id the identifier addressed
+     * @param outcome the outcome of the operation
+     * @return the duration of the session in nanoseconds, if it has been completed by this operation, -1 otherwise
+     */
+    public long completed(WorkType type, String id, Outcome outcome) {
+        Session session = sessions.get();
+        
+        // Sessions whose record could not be created are abandoned
+        if (type == WorkType.CREATE) {
+            if (outcome != Outcome.SUCCESS) {
+                session.next = WorkType.CREATE;
+                return -1L;
+            }
+            session.id = id;
+        }
+        
+        // Choose the next operation
+        WorkType next = null;
+        if (type != WorkType.DELETE) {
+            double[] transitions = config.getTransitions()[state(type)];
+            double random = ThreadLocalRandom.current().nextDouble();
+            for (int target = 0; target < transitions.length && next == null; target++) {
+                random -= transitions[target];
+                if (random < 0d) {
+                    next = SessionConfiguration.TARGETS[target];
+                }
+            }
+        }
+        if (next != null) {
+            session.next = next;
+            return -1L;
+        }
+        
+        // End of session
+        session.next = WorkType.CREATE;
+        session.id = null;
+        return System.nanoTime() - session.start;
+    }
+    
+    /**
+     * Returns the row of the transition matrix for a state.
+     * 
+     * @param type
+     * @return the row
+     */
+    private static int state(WorkType type) {
+        for (int state = 0; state < SessionConfiguration.STATES.length; state++) {
+            if (SessionConfiguration.STATES[state] == type) {
+                return state;
+            }
+        }
+        throw new IllegalStateException("No transitions after a " + type.name().toLowerCase() + "!");
+    }
+}
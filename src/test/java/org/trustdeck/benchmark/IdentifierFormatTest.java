@@ -0,0 +1,100 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trustdeck.benchmark;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests that every format maps numbers to identifiers and back without collisions, for all lengths.
+ * 
+ * @author Armin Müller
+ */
+public class IdentifierFormatTest {
+    
+    /** Largest length tested. */
+    private static final int MAX_LENGTH = 64;
+    
+    /** Number of consecutive numbers checked for collisions. */
+    private static final int COUNT = 100000;
+    
+    /**
+     * Returns numbers to test: small ones, block boundaries, those of IDs that never exist, and random ones.
+     * 
+     * @return the numbers
+     */
+    private static long[] getNumbers() {
+        long[] numbers = new long[1000];
+        int index = 0;
+        for (long number : new long[] { 0L, 1L, 2L, 1023L, 1024L, 1025L, 1L << 32, (1L << 62) - 1, 1L << 62, Long.MAX_VALUE - 1, Long.MAX_VALUE }) {
+            numbers[index++] = number;
+        }
+        Random random = new Random(42);
+        while (index < numbers.length) {
+            numbers[index++] = random.nextLong() & Long.MAX_VALUE;
+        }
+        return numbers;
+    }
+    
+    /**
+     * Parsing must recover the number for every length from the minimal one.
+     */
+    @Test
+    public void testRoundTrip() {
+        for (IdentifierFormat format : IdentifierFormat.values()) {
+            for (int length = format.getMinLength(); length <= MAX_LENGTH; length++) {
+                for (long number : getNumbers()) {
+                    String id = format.format(number, length);
+                    assertEquals(format.getLabel() + " with length " + length + ": " + id, number, format.parse(id));
+                }
+            }
+        }
+    }
+    
+    /**
+     * With the default length, identifiers must have exactly that length, also for the largest numbers.
+     */
+    @Test
+    public void testDefaultLength() {
+        for (IdentifierFormat format : IdentifierFormat.values()) {
+            for (long number : getNumbers()) {
+                assertEquals(format.getLabel(), format.getDefaultLength(), format.format(number, format.getDefaultLength()).length());
+            }
+        }
+    }
+    
+    /**
+     * Distinct numbers must render distinct identifiers, also with the minimal length.
+     */
+    @Test
+    public void testNoCollisions() {
+        for (IdentifierFormat format : IdentifierFormat.values()) {
+            for (int length : new int[] { format.getMinLength(), format.getDefaultLength() }) {
+                Set<String> ids = new HashSet<>();
+                for (long number = 1; number <= COUNT; number++) {
+                    ids.add(format.format(number, length));
+                }
+                assertEquals(format.getLabel() + " with length " + length, COUNT, ids.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.trustdeck.benchmark.distribution.HotspotKeyDistribution;
+import org.trustdeck.benchmark.distribution.KeyDistribution;
+import org.trustdeck.benchmark.distribution.UniformKeyDistribution;
+
+/**
+ * Tests that accesses follow the key distribution over the existing identifiers, also after deletes.
+ * 
+ * @author Armin Müller
+ */
+public class IdentifiersTest {
+    
+    /** Number of identifiers created. */
+    private static final int SIZE = 10000;
+    
+    /** Number of accesses sampled. */
+    private static final int SAMPLES = 500000;
+    
+    /**
+     * Creates {@link #SIZE} identifiers of an agent.
+     * 
+     * @param distribution
+     * @param agentId
+     * @param agentCount
+     * @return the identifiers
+     */
+    private static Identifiers createForAgent(KeyDistribution distribution, int agentId, int agentCount) {
+        IdentifierFormat format = IdentifierFormat.SEQUENTIAL;
+        Identifiers identifiers = new Identifiers(distribution, 0d, agentId, agentCount, format, format.getDefaultLength());
+        for (int i = 0; i < SIZE; i++) {
+            identifiers.created(identifiers.create());
+        }
+        return identifiers;
+    }
+    
+    /**
+     * Creates identifiers 1 to {@link #SIZE} and deletes the given range.
+     * 
+     * @param distribution
+     * @param from first number to delete
+     * @param to last number to delete
+     * @return the identifiers
+     */
+    private static Identifiers create(KeyDistribution distribution, long from, long to) {
+        IdentifierFormat format = IdentifierFormat.SEQUENTIAL;
+        Identifiers identifiers = createForAgent(distribution, 0, 1);
+        for (long number = from; number <= to; number++) {
+            identifiers.deleted(format.format(number, format.getDefaultLength()));
+        }
+        return identifiers;
+    }
+    
+    /**
+     * Counts the accesses per number.
+     * 
+     * @param identifiers
+     * @return the counts
+     */
+    private static Map<Long, Integer> sample(Identifiers identifiers) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < SAMPLES; i++) {
+            counts.merge(IdentifierFormat.SEQUENTIAL.parse(identifiers.read()), 1, Integer::sum);
+        }
+        return counts;
+    }
+    
+    /**
+     * Identifiers after a gap must not receive the accesses to the deleted identifiers.
+     */
+    @Test
+    public void testUniformAfterDeletes() {
+        Identifiers identifiers = create(new UniformKeyDistribution(), 1001, 5000);
+        Map<Long, Integer> counts = sample(identifiers);
+        
+        // Only existing identifiers, each about equally often
+        double expected = (double) SAMPLES / (SIZE - 4000);
+        assertEquals(SIZE - 4000, counts.size());
+        for (Map.Entry<Long, Integer> entry : counts.entrySet()) {
+            assertTrue("Deleted identifier " + entry.getKey() + " accessed", entry.getKey() <= 1000 || entry.getKey() > 5000);
+            assertTrue("Identifier " + entry.getKey() + " accessed " + entry.getValue() + " times, expected about " + expected,
+                       entry.getValue() < 2d * expected);
+        }
+    }
+    
+    /**
+     * The skew must be preserved for the identifiers that still exist.
+     */
+    @Test
+    public void testHotspotAfterDeletes() {
+        // The hot set are the first 2000 identifiers, only 10 of them remain
+        Identifiers identifiers = create(new HotspotKeyDistribution(0.2d, 0.8d), 1, 1990);
+        Map<Long, Integer> counts = sample(identifiers);
+        
+        // Hot: 10 * 0.8 / 2000, cold: 8000 * 0.2 / 8000, hence a share of about 2 %
+        long hot = 0;
+        for (Map.Entry<Long, Integer> entry : counts.entrySet()) {
+            hot += entry.getKey() <= 2000 ? entry.getValue() : 0;
+        }
+        double share = (double) hot / SAMPLES;
+        assertTrue("Share of the hot set is " + share + ", expected about 0.02", share > 0.01d && share < 0.03d);
+    }
+    
+    /**
+     * With many agents, only the identifiers of this agent must be accessed, the hot set
+     * being the first of them, although they are a tiny share of all identifiers.
+     */
+    @Test
+    public void testHotspotWithAgents() {
+        int agents = 4096;
+        Identifiers identifiers = createForAgent(new HotspotKeyDistribution(0.2d, 0.8d), 1, agents);
+        Map<Long, Integer> counts = sample(identifiers);
+        
+        // The agent owns every n-th block, the hot set are its first 2000 identifiers
+        long blockSize = Identifiers.getBlockSize();
+        long lastHot = (1999 / blockSize * agents + 1) * blockSize + 1 + 1999 % blockSize;
+        long hot = 0;
+        for (Map.Entry<Long, Integer> entry : counts.entrySet()) {
+            assertEquals("Identifier " + entry.getKey() + " of another agent accessed", 1, (entry.getKey() - 1) / blockSize % agents);
+            hot += entry.getKey() <= lastHot ? entry.getValue() : 0;
+        }
+        
+        // Cold identifiers are sampled about 12 times each, a few may be missed by chance
+        assertTrue("Only " + counts.size() + " identifiers accessed", counts.size() >= SIZE - 10);
+        double share = (double) hot / SAMPLES;
+        assertTrue("Share of the hot set is " + share + ", expected about 0.8", share > 0.78d && share < 0.82d);
+    }
+    
+    /**
+     * Deleting must remove existing identifiers only, each once.
+     */
+    @Test
+    public void testDeleteAfterDeletes() {
+        Identifiers identifiers = create(new UniformKeyDistribution(), 1001, 5000);
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            counts.merge(IdentifierFormat.SEQUENTIAL.parse(identifiers.delete()), 1, Integer::sum);
+        }
+        
+        // A sixth of the remaining identifiers precede the gap
+        long before = 0;
+        for (Map.Entry<Long, Integer> entry : counts.entrySet()) {
+            assertEquals(1, (int) entry.getValue());
+            assertTrue(entry.getKey() <= 1000 || entry.getKey() > 5000);
+            before += entry.getKey() <= 1000 ? 1 : 0;
+        }
+        assertEquals(3000, counts.size());
+        assertEquals(SIZE - 4000 - 3000, identifiers.getNumLive());
+        assertTrue("Deleted " + before + " identifiers before the gap, expected about 500", before > 400 && before < 600);
+    }
+    
+    /**
+     * Identifiers whose deletion failed must be accessed again.
+     */
+    @Test
+    public void testRestoreAfterFailedDelete() {
+        Identifiers identifiers = createForAgent(new UniformKeyDistribution(), 0, 1);
+        String id = identifiers.delete();
+        assertEquals(SIZE - 1, identifiers.getNumLive());
+        identifiers.restore(id);
+        assertEquals(SIZE, identifiers.getNumLive());
+        
+        // Identifiers that never exist are not restored
+        identifiers.restore(IdentifierFormat.SEQUENTIAL.format(Long.MAX_VALUE - 1, IdentifierFormat.SEQUENTIAL.getDefaultLength()));
+        assertEquals(SIZE, identifiers.getNumLive());
+    }
+    
+    /**
+     * Identifiers of other agents must not be tracked, as this agent never accesses them.
+     */
+    @Test
+    public void testOtherAgentIgnored() {
+        IdentifierFormat format = IdentifierFormat.SEQUENTIAL;
+        Identifiers identifiers = createForAgent(new UniformKeyDistribution(), 1, 64);
+        Identifiers other = new Identifiers(new UniformKeyDistribution(), 0d, 2, 64, format, format.getDefaultLength());
+        identifiers.created(other.create());
+        assertEquals(SIZE, identifiers.getNumLive());
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trustdeck.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+import org.trustdeck.benchmark.connector.Outcome;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Tests parsing retry policies, merging the overrides per work type, and the bounds of the backoff.
+ * 
+ * @author Armin Müller
+ */
+public class RetryPolicyTest {
+    
+    /**
+     * Parses the policies from a "retry" section given as YAML.
+     * 
+     * @param yaml
+     * @return the policies, indexed by the work types' ordinals
+     */
+    private static RetryPolicy[] parse(String yaml) {
+        Map<String, Object> values = new Yaml().load(yaml);
+        return RetryPolicy.fromSection(new ConfigurationSection("retry", values));
+    }
+    
+    /**
+     * Missing values must be taken from the defaults.
+     */
+    @Test
+    public void testDefaults() {
+        RetryPolicy policy = parse("maxAttempts: 3")[WorkType.READ.ordinal()];
+        assertEquals(3, policy.getMaxAttempts());
+        assertEquals(100L, policy.getInitialBackoff());
+        assertEquals(10000L, policy.getMaxBackoff());
+        assertEquals(2d, policy.getMultiplier(), 0d);
+        assertEquals(1d, policy.getJitter(), 0d);
+        
+        // 429, 5xx, timeouts, and connection errors
+        assertTrue(policy.isRetried(Outcome.CLIENT_ERROR, 429, 1));
+        assertTrue(policy.isRetried(Outcome.SERVER_ERROR, 503, 1));
+        assertTrue(policy.isRetried(Outcome.TIMEOUT, 0, 1));
+        assertTrue(policy.isRetried(Outcome.CONNECTION_ERROR, 0, 1));
+        assertFalse(policy.isRetried(Outcome.CLIENT_ERROR, 400, 1));
+        assertFalse(policy.isRetried(Outcome.NOT_FOUND, 404, 1));
+        assertFalse(policy.isRetried(Outcome.OTHER_ERROR, 0, 1));
+        assertFalse(policy.isRetried(Outcome.SUCCESS, 200, 1));
+    }
+    
+    /**
+     * Overrides per type must replace only the values they set, the others are those of the section.
+     */
+    @Test
+    public void testOverrides() {
+        RetryPolicy[] policies = parse("maxAttempts: 5\n" +
+                                       "initialBackoff: 20\n" +
+                                       "retryOn: [503, timeout]\n" +
+                                       "read:\n" +
+                                       "  maxAttempts: 2\n" +
+                                       "createDomain:\n" +
+                                       "  retryOn: [5xx]\n");
+        
+        // Not overridden
+        RetryPolicy defaults = policies[WorkType.CREATE.ordinal()];
+        assertEquals(5, defaults.getMaxAttempts());
+        assertEquals(20L, defaults.getInitialBackoff());
+        assertTrue(defaults.isRetried(Outcome.SERVER_ERROR, 503, 4));
+        assertFalse(defaults.isRetried(Outcome.SERVER_ERROR, 503, 5));
+        assertFalse(defaults.isRetried(Outcome.SERVER_ERROR, 500, 1));
+        assertFalse(defaults.isRetried(Outcome.CLIENT_ERROR, 429, 1));
+        for (WorkType type : WorkType.values()) {
+            if (type != WorkType.READ && type != WorkType.CREATE_DOMAIN) {
+                assertSame(type.name(), defaults, policies[type.ordinal()]);
+            }
+        }
+        
+        // Attempts overridden, failures inherited
+        RetryPolicy read = policies[WorkType.READ.ordinal()];
+        assertEquals(2, read.getMaxAttempts());
+        assertEquals(20L, read.getInitialBackoff());
+        assertTrue(read.isRetried(Outcome.TIMEOUT, 0, 1));
+        assertFalse(read.isRetried(Outcome.TIMEOUT, 0, 2));
+        assertTrue(read.isRetried(Outcome.SERVER_ERROR, 503, 1));
+        assertFalse(read.isRetried(Outcome.SERVER_ERROR, 500, 1));
+        
+        // Failures overridden, attempts inherited
+        RetryPolicy createDomain = policies[WorkType.CREATE_DOMAIN.ordinal()];
+        assertEquals(5, createDomain.getMaxAttempts());
+        assertTrue(createDomain.isRetried(Outcome.SERVER_ERROR, 500, 1));
+        assertFalse(createDomain.isRetried(Outcome.TIMEOUT, 0, 1));
+    }
+    
+    /**
+     * Invalid policies must be rejected.
+     */
+    @Test
+    public void testInvalid() {
+        String[] invalid = { "maxAttempts: 0", "initialBackoff: -1", "initialBackoff: 200\nmaxBackoff: 100", "multiplier: 0.5",
+                             "jitter: 1.5", "retryOn: [success]", "retryOn: [unknown]" };
+        for (String yaml : invalid) {
+            try {
+                parse(yaml);
+                throw new AssertionError("Accepted '" + yaml + "'");
+            } catch (IllegalStateException e) {
+                // Expected
+            }
+        }
+    }
+    
+    /**
+     * Without jitter, the backoff must grow exponentially up to the maximum.
+     */
+    @Test
+    public void testBackoff() {
+        RetryPolicy policy = parse("initialBackoff: 100\nmaxBackoff: 1000\nmultiplier: 3\njitter: 0")[WorkType.READ.ordinal()];
+        assertEquals(100000000L, policy.getBackoff(1));
+        assertEquals(300000000L, policy.getBackoff(2));
+        assertEquals(900000000L, policy.getBackoff(3));
+        assertEquals(1000000000L, policy.getBackoff(4));
+        assertEquals(1000000000L, policy.getBackoff(100));
+    }
+    
+    /**
+     * With jitter, the backoff must be between the share not removed and the full delay, and vary.
+     */
+    @Test
+    public void testBackoffJitter() {
+        for (double jitter : new double[] { 0.5d, 1d }) {
+            RetryPolicy policy = parse("initialBackoff: 100\nmaxBackoff: 1000\nmultiplier: 2\njitter: " + jitter)[WorkType.READ.ordinal()];
+            for (int attempt = 1; attempt <= 10; attempt++) {
+                long delay = Math.min(1000L, 100L << (attempt - 1)) * 1000000L;
+                long min = Long.MAX_VALUE;
+                long max = Long.MIN_VALUE;
+                for (int i = 0; i < 1000; i++) {
+                    long backoff = policy.getBackoff(attempt);
+                    assertTrue("Backoff " + backoff + " of attempt " + attempt + " out of bounds", backoff >= (long) (delay * (1d - jitter)) && backoff <= delay);
+                    min = Math.min(min, backoff);
+                    max = Math.max(max, backoff);
+                }
+                assertTrue("Backoff of attempt " + attempt + " does not vary", max - min > delay * jitter / 2d);
+            }
+        }
+    }
+}
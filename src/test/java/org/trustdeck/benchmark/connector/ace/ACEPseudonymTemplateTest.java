@@ -0,0 +1,91 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trustdeck.benchmark.connector.ace;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Tests that the payloads spliced from templates equal those serialized by Jackson.
+ * 
+ * @author Armin Müller
+ */
+public class ACEPseudonymTemplateTest {
+    
+    /** Writer used by the service. */
+    private static final ObjectWriter WRITER = new ObjectMapper().writer();
+    
+    /** Identifiers, including ones that must be escaped. */
+    private static final String[] IDS = { "", "1", "00000000000000000000000000000042", "550e8400-e29b-41d4-a716-446655440000",
+                                          "quote\"d", "back\\slash", "line\nbreak", "tab\t\u0001control", "ümlaut €", "/slash" };
+    
+    /**
+     * Asserts that the template renders the pseudonym like Jackson.
+     * 
+     * @param pseudonym
+     * @throws JsonProcessingException
+     */
+    private static void assertSerialized(ACEPseudonym pseudonym) throws JsonProcessingException {
+        String expected = WRITER.writeValueAsString(pseudonym);
+        assertEquals(expected, ACEPseudonymTemplate.serialize(pseudonym, WRITER));
+    }
+    
+    /**
+     * Identifiers with and without characters to escape.
+     * 
+     * @throws JsonProcessingException
+     */
+    @Test
+    public void testIdentifiers() throws JsonProcessingException {
+        for (String id : IDS) {
+            assertSerialized(new ACEPseudonym(id, "ID"));
+        }
+    }
+    
+    /**
+     * Several shapes, with absent and escaped constant fields, used alternately.
+     * 
+     * @throws JsonProcessingException
+     */
+    @Test
+    public void testShapes() throws JsonProcessingException {
+        for (int round = 0; round < 2; round++) {
+            for (String id : IDS) {
+                assertSerialized(new ACEPseudonym(id, "ID"));
+                assertSerialized(new ACEPseudonym(id, "ID", "2001-01-01T18:00:00", "10 years"));
+                assertSerialized(new ACEPseudonym(id, null, null, "1 day"));
+                assertSerialized(new ACEPseudonym(id, "type \"quoted\"", null, null));
+            }
+        }
+    }
+    
+    /**
+     * Pseudonyms without an identifier are serialized by Jackson.
+     * 
+     * @throws JsonProcessingException
+     */
+    @Test
+    public void testWithoutIdentifier() throws JsonProcessingException {
+        assertSerialized(new ACEPseudonym(null, "ID"));
+        assertSerialized(new ACEPseudonym());
+    }
+}
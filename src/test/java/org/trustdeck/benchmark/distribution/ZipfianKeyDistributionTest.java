@@ -0,0 +1,153 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.trustdeck.benchmark.distribution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests that the frequencies of ranks sampled from the Zipfian distribution follow their weights.
+ * Gray et al.'s method samples the first two ranks exactly and approximates the others, which
+ * overweights the ranks right after them by up to a fifth, so shares are compared per decade of ranks.
+ * 
+ * @author Armin Müller
+ */
+public class ZipfianKeyDistributionTest {
+    
+    /** Number of samples. */
+    private static final int SAMPLES = 1000000;
+    
+    /** Sizes, with zeta computed exactly and approximated. */
+    private static final long[] SIZES = { 1000L, 1000000L };
+    
+    /**
+     * Counts the samples per decade of ranks, i.e., rank 0, ranks 1 to 9, 10 to 99, etc.
+     * 
+     * @param distribution
+     * @param size
+     * @return the counts
+     */
+    private static long[] sampleDecades(KeyDistribution distribution, long size) {
+        long[] counts = new long[20];
+        for (int i = 0; i < SAMPLES; i++) {
+            long rank = distribution.next(size);
+            int decade = 0;
+            for (long bound = 1L; bound <= rank; bound *= 10L) {
+                decade++;
+            }
+            counts[decade]++;
+        }
+        return counts;
+    }
+    
+    /**
+     * The first two ranks must be sampled with their weights.
+     */
+    @Test
+    public void testTopRanks() {
+        for (long size : SIZES) {
+            ZipfianKeyDistribution distribution = new ZipfianKeyDistribution(ZipfianKeyDistribution.DEFAULT_THETA);
+            long[] counts = new long[2];
+            for (int i = 0; i < SAMPLES; i++) {
+                long rank = distribution.next(size);
+                if (rank < counts.length) {
+                    counts[(int) rank]++;
+                }
+            }
+            for (int rank = 0; rank < counts.length; rank++) {
+                double share = (double) counts[rank] / SAMPLES;
+                double weight = distribution.getWeight(rank, size);
+                assertEquals("Share of rank " + rank + " with size " + size, weight, share, weight * 0.03d);
+            }
+        }
+    }
+    
+    /**
+     * Every decade of ranks must be sampled about as often as its weights add up to.
+     */
+    @Test
+    public void testRankDecades() {
+        for (long size : SIZES) {
+            ZipfianKeyDistribution distribution = new ZipfianKeyDistribution(ZipfianKeyDistribution.DEFAULT_THETA);
+            long[] counts = sampleDecades(distribution, size);
+            long from = 0L;
+            for (int decade = 0; from < size; decade++) {
+                long to = Math.min(size, decade == 0 ? 1L : (long) Math.pow(10d, decade));
+                double weight = 0d;
+                for (long rank = from; rank < to; rank++) {
+                    weight += distribution.getWeight(rank, size);
+                }
+                double share = (double) counts[decade] / SAMPLES;
+                assertEquals("Share of ranks [" + from + ", " + to + ") with size " + size, weight, share, weight * 0.12d);
+                from = to;
+            }
+        }
+    }
+    
+    /**
+     * Lower ranks must be sampled more often than higher ones.
+     */
+    @Test
+    public void testDecreasingFrequencies() {
+        ZipfianKeyDistribution distribution = new ZipfianKeyDistribution(ZipfianKeyDistribution.DEFAULT_THETA);
+        long[] counts = new long[10];
+        for (int i = 0; i < SAMPLES; i++) {
+            long rank = distribution.next(1000L);
+            if (rank < counts.length) {
+                counts[(int) rank]++;
+            }
+        }
+        for (int rank = 1; rank < counts.length; rank++) {
+            assertTrue("Rank " + rank + " sampled more often than rank " + (rank - 1), counts[rank] < counts[rank - 1]);
+        }
+    }
+    
+    /**
+     * The approximated normalization must match the exact sum.
+     */
+    @Test
+    public void testNormalization() {
+        double theta = ZipfianKeyDistribution.DEFAULT_THETA;
+        ZipfianKeyDistribution distribution = new ZipfianKeyDistribution(theta);
+        double zeta = 0d;
+        long n = 0L;
+        for (long size : new long[] { 1024L, 1025L, 5000L, 1000000L }) {
+            while (n < size) {
+                zeta += 1d / Math.pow(++n, theta);
+            }
+            assertEquals("Weight of rank 0 with size " + size, 1d / zeta, distribution.getWeight(0, size), 1e-7d / zeta);
+        }
+    }
+    
+    /**
+     * Samples must be in range while the size grows and shrinks, which recomputes the parameters.
+     */
+    @Test
+    public void testBounds() {
+        ZipfianKeyDistribution distribution = new ZipfianKeyDistribution(0.5d);
+        for (long size = 1L; size <= 5000L; size++) {
+            for (long current : new long[] { size, 1L + size / 2 }) {
+                for (int i = 0; i < 20; i++) {
+                    long rank = distribution.next(current);
+                    assertTrue("Rank " + rank + " out of [0, " + current + ")", rank >= 0 && rank < current);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * ACE-Benchmark Driver
+ * Copyright 2024-2025 Armin Müller and contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.trustdeck.benchmark.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.trustdeck.benchmark.WorkDistribution.WorkType;
+import org.trustdeck.benchmark.connector.Outcome;
+
+/**
+ * Tests that traces are read back as written, in the order of issue.
+ * 
+ * @author Armin Müller
+ */
+public class TraceRecorderTest {
+    
+    /** Folder for the trace files. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    /**
+     * Header and records must survive the round trip, records completed out of order are written in the order of issue.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        File file = folder.newFile("round-trip.trace");
+        try (TraceRecorder recorder = new TraceRecorder(file, 42L)) {
+            recorder.start(0L);
+            long first = recorder.issue();
+            long second = recorder.issue();
+            long third = recorder.issue();
+            recorder.record(third, 3000L, WorkType.PING, null, Outcome.SUCCESS, 30000L);
+            recorder.record(second, 2000L, WorkType.DELETE_DOMAIN, "17", Outcome.NOT_FOUND, 20000L);
+            recorder.record(first, 1000L, WorkType.READ, "id-1", Outcome.TIMEOUT, 10000L);
+        }
+        try (TraceReader reader = new TraceReader(file)) {
+            assertEquals(42L, reader.getInitialDBSize());
+            assertRecord(reader.next(), 1L, WorkType.READ, "id-1", Outcome.TIMEOUT, 10);
+            assertRecord(reader.next(), 2L, WorkType.DELETE_DOMAIN, "17", Outcome.NOT_FOUND, 20);
+            assertRecord(reader.next(), 3L, WorkType.PING, null, Outcome.SUCCESS, 30);
+            assertNull(reader.next());
+        }
+    }
+    
+    /**
+     * An operation that is never recorded must not hold back the records issued after it.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testLostOperation() throws IOException {
+        File file = folder.newFile("lost.trace");
+        int count = 100000;
+        try (TraceRecorder recorder = new TraceRecorder(file, 0L)) {
+            recorder.start(0L);
+            recorder.issue();
+            for (int i = 1; i <= count; i++) {
+                recorder.record(recorder.issue(), i * 1000L, WorkType.CREATE, "id-" + i, Outcome.SUCCESS, 1000L);
+            }
+            
+            // Most have been written before closing
+            assertTrue(recorder.getNumPending() < count / 2);
+        }
+        try (TraceReader reader = new TraceReader(file)) {
+            for (int i = 1; i <= count; i++) {
+                assertEquals("id-" + i, reader.next().getId());
+            }
+            assertNull(reader.next());
+        }
+    }
+    
+    /**
+     * Compares a record.
+     * 
+     * @param record
+     * @param offset
+     * @param type
+     * @param id
+     * @param outcome
+     * @param latency
+     */
+    private static void assertRecord(TraceRecord record, long offset, WorkType type, String id, Outcome outcome, int latency) {
+        assertEquals(offset, record.getOffset());
+        assertEquals(type, record.getType());
+        assertEquals(id, record.getId());
+        assertEquals(outcome, record.getOutcome());
+        assertEquals(latency, record.getLatency());
+    }
+}